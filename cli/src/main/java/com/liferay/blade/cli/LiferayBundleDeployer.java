@@ -17,6 +17,7 @@
 package com.liferay.blade.cli;
 
 import com.liferay.blade.cli.gradle.LiferayBundleDeployerImpl;
+import com.liferay.blade.cli.util.FileServer;
 
 import java.io.IOException;
 
@@ -35,6 +36,15 @@ public interface LiferayBundleDeployer extends AutoCloseable {
 		return new LiferayBundleDeployerImpl(host, port);
 	}
 
+	/**
+	 * Creates a deployer that hands the runtime <code>http:</code> locations
+	 * served by the given file server instead of <code>file:</code> URIs, for
+	 * runtimes that don't share our file system.
+	 */
+	public static LiferayBundleDeployer newInstance(String host, int port, FileServer fileServer) throws IOException {
+		return new LiferayBundleDeployerImpl(host, port, fileServer);
+	}
+
 	public BundleDTO getBundle(long id) throws Exception;
 
 	public long getBundleId(Collection<BundleDTO> bundles, String name) throws Exception;
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.dto.BundleDTO;
+
+/**
+ * Builds a timeline of the state transitions of the bundles in a framework
+ * from samples of their states. A bundle is only seen in a state that lasts
+ * longer than the interval between two samples, so every activation that was
+ * seen in the STARTING state took at least that long.
+ *
+ * @author agent
+ */
+public class BundleStateTimeline {
+
+	public static String getStateName(int state) {
+		switch (state) {
+			case Bundle.ACTIVE:
+				return "ACTIVE";
+			case Bundle.INSTALLED:
+				return "INSTALLED";
+			case Bundle.RESOLVED:
+				return "RESOLVED";
+			case Bundle.STARTING:
+				return "STARTING";
+			case Bundle.STOPPING:
+				return "STOPPING";
+			case Bundle.UNINSTALLED:
+				return "UNINSTALLED";
+			default:
+				return String.valueOf(state);
+		}
+	}
+
+	/**
+	 * Creates a timeline that starts now, the times of the transitions are
+	 * relative to this.
+	 */
+	public BundleStateTimeline() {
+		this(System.currentTimeMillis());
+	}
+
+	public BundleStateTimeline(long startTime) {
+		_startTime = startTime;
+	}
+
+	/**
+	 * Returns the activations that were seen in the STARTING state, the
+	 * slowest first.
+	 */
+	public List<Transition> getActivations() {
+		Stream<Transition> stream = _transitions.stream();
+
+		return stream.filter(
+			transition -> (transition.getFromState() == Bundle.STARTING) && (transition.getToState() == Bundle.ACTIVE)
+		).sorted(
+			Comparator.comparingLong(Transition::getDuration).reversed()
+		).collect(
+			Collectors.toList()
+		);
+	}
+
+	/**
+	 * Returns the symbolic name and state of every bundle that isn't active in
+	 * the last sample, leaving out the bundles with the ids, like fragments
+	 * which are never started.
+	 */
+	public Map<String, String> getInactiveBundles(Collection<Long> excludedIds) {
+		Map<String, String> inactiveBundles = new TreeMap<>();
+
+		for (BundleDTO bundleDTO : _bundleDTOs.values()) {
+			if ((bundleDTO.state != Bundle.ACTIVE) && !excludedIds.contains(bundleDTO.id)) {
+				inactiveBundles.put(bundleDTO.symbolicName, getStateName(bundleDTO.state));
+			}
+		}
+
+		return inactiveBundles;
+	}
+
+	public long getLastChangeTime() {
+		return _lastChangeTime;
+	}
+
+	public List<Transition> getTransitions() {
+		return Collections.unmodifiableList(_transitions);
+	}
+
+	/**
+	 * Adds a sample of the bundle states that was taken at the time and
+	 * returns whether any bundle was installed, uninstalled or changed its
+	 * state since the previous sample.
+	 */
+	public boolean record(long time, BundleDTO[] bundleDTOs) {
+		long elapsed = time - _startTime;
+
+		Map<Long, BundleDTO> previousBundleDTOs = new HashMap<>(_bundleDTOs);
+
+		boolean changed = false;
+
+		for (BundleDTO bundleDTO : bundleDTOs) {
+			BundleDTO previousBundleDTO = previousBundleDTOs.remove(bundleDTO.id);
+
+			if (previousBundleDTO == null) {
+				_bundleDTOs.put(bundleDTO.id, bundleDTO);
+				_stateTimes.put(bundleDTO.id, elapsed);
+
+				if (_sampled) {
+					_transitions.add(
+						new Transition(bundleDTO.symbolicName, elapsed, Bundle.UNINSTALLED, bundleDTO.state, 0));
+
+					changed = true;
+				}
+
+				continue;
+			}
+
+			if (previousBundleDTO.state == bundleDTO.state) {
+				continue;
+			}
+
+			long duration = elapsed - _stateTimes.get(bundleDTO.id);
+
+			_transitions.add(
+				new Transition(bundleDTO.symbolicName, elapsed, previousBundleDTO.state, bundleDTO.state, duration));
+
+			_bundleDTOs.put(bundleDTO.id, bundleDTO);
+			_stateTimes.put(bundleDTO.id, elapsed);
+
+			changed = true;
+		}
+
+		for (BundleDTO previousBundleDTO : previousBundleDTOs.values()) {
+			long duration = elapsed - _stateTimes.remove(previousBundleDTO.id);
+
+			_transitions.add(
+				new Transition(
+					previousBundleDTO.symbolicName, elapsed, previousBundleDTO.state, Bundle.UNINSTALLED, duration));
+
+			_bundleDTOs.remove(previousBundleDTO.id);
+
+			changed = true;
+		}
+
+		if (changed || !_sampled) {
+			_lastChangeTime = elapsed;
+		}
+
+		_sampled = true;
+
+		return changed;
+	}
+
+	/**
+	 * A change of the state of a bundle between two samples.
+	 */
+	public static class Transition {
+
+		/**
+		 * Returns the milliseconds the bundle was seen in its previous state.
+		 */
+		public long getDuration() {
+			return _duration;
+		}
+
+		public int getFromState() {
+			return _fromState;
+		}
+
+		public String getSymbolicName() {
+			return _symbolicName;
+		}
+
+		/**
+		 * Returns the milliseconds from the start of the timeline to the
+		 * sample that saw the transition.
+		 */
+		public long getTime() {
+			return _time;
+		}
+
+		public int getToState() {
+			return _toState;
+		}
+
+		@Override
+		public String toString() {
+			return _time + "," + _symbolicName + "," + getStateName(_fromState) + "," + getStateName(_toState) + "," +
+				_duration;
+		}
+
+		private Transition(String symbolicName, long time, int fromState, int toState, long duration) {
+			_symbolicName = symbolicName;
+			_time = time;
+			_fromState = fromState;
+			_toState = toState;
+			_duration = duration;
+		}
+
+		private final long _duration;
+		private final int _fromState;
+		private final String _symbolicName;
+		private final long _time;
+		private final int _toState;
+
+	}
+
+	private final Map<Long, BundleDTO> _bundleDTOs = new HashMap<>();
+	private long _lastChangeTime;
+	private boolean _sampled;
+	private final long _startTime;
+	private final Map<Long, Long> _stateTimes = new HashMap<>();
+	private final List<Transition> _transitions = new ArrayList<>();
+
+}
\ No newline at end of file
@@ -56,6 +56,10 @@ public class ConvertArgs extends BaseArgs {
 		return CommandType.WORKSPACE_ONLY;
 	}
 
+	public int getConcurrency() {
+		return _concurrency;
+	}
+
 	public String getLiferayVersion() {
 		return _liferayVersion;
 	}
@@ -72,6 +76,14 @@ public class ConvertArgs extends BaseArgs {
 		return _all;
 	}
 
+	public boolean isDryRun() {
+		return _dryRun;
+	}
+
+	public boolean isForce() {
+		return _force;
+	}
+
 	public boolean isList() {
 		return _list;
 	}
@@ -84,6 +96,18 @@ public class ConvertArgs extends BaseArgs {
 		return _themeBuilder;
 	}
 
+	public void setConcurrency(int concurrency) {
+		_concurrency = concurrency;
+	}
+
+	public void setDryRun(boolean dryRun) {
+		_dryRun = dryRun;
+	}
+
+	public void setForce(boolean force) {
+		_force = force;
+	}
+
 	public void setLiferayVersion(String liferayVersion) {
 		_liferayVersion = liferayVersion;
 	}
@@ -91,6 +115,24 @@ public class ConvertArgs extends BaseArgs {
 	@Parameter(description = "Migrate all plugin projects", names = {"-a", "--all"})
 	private boolean _all;
 
+	@Parameter(
+		description = "The maximum number of plugins converted at the same time with --all, defaults to the number of available processors",
+		names = "--concurrency"
+	)
+	private int _concurrency;
+
+	@Parameter(
+		description = "Print what would be converted, how much would be copied and which dependencies can't be mapped without changing anything",
+		names = "--dry-run"
+	)
+	private boolean _dryRun;
+
+	@Parameter(
+		description = "Delete the converted projects of plugins that changed since they were converted and convert them again",
+		names = "--force"
+	)
+	private boolean _force;
+
 	@Parameter(
 		description = "The version of Liferay to target when converting the project. Available options are 7.0, 7.1, 7.2, 7.3.",
 		names = {"-v", "--liferay-version"}
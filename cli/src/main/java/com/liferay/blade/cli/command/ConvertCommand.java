@@ -18,65 +18,67 @@ package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.WorkspaceConstants;
+import com.liferay.blade.cli.command.PluginDescriptors.IvyDependency;
 import com.liferay.blade.cli.gradle.GradleWorkspaceProvider;
+import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.blade.cli.util.CopyDirVisitor;
 import com.liferay.blade.cli.util.FileUtil;
 import com.liferay.blade.cli.util.ListUtil;
+import com.liferay.blade.cli.util.MavenCoordinatesCache;
 import com.liferay.blade.cli.util.StringUtil;
 import com.liferay.ide.gradle.core.model.GradleDependency;
 import com.liferay.project.templates.extensions.ProjectTemplatesArgs;
 
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import java.text.MessageFormat;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.LoadProperties;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
 /**
  * @author Gregory Amerson
  * @author Terry Jia
@@ -216,57 +218,70 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		List<File> webPlugins = Arrays.asList((webFiles != null) ? webFiles : new File[0]);
 		List<File> themePlugins = Arrays.asList((themeFiles != null) ? themeFiles : new File[0]);
 
-		boolean removeSource = convertArgs.isRemoveSource();
-
 		final List<Path> convertedPaths = new ArrayList<>();
 
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+		_mavenCoordinatesCache = new MavenCoordinatesCache(bladeCachePath.resolve(_MAVEN_COORDINATES_CACHE_FILE_NAME));
+
+		Path projectPath = projectDir.toPath();
+
+		_convertJournal = new ConvertJournal(projectPath.resolve(_CONVERT_JOURNAL_FILE_NAME));
+
 		if (convertArgs.isAll()) {
-			serviceBuilderPlugins.forEach(
-				serviceBuilderPlugin -> _convertToServiceBuilderWarProject(
-					pluginsSdkDir, projectsDir, serviceBuilderPlugin, removeSource));
+			List<PluginPlan> pluginPlans = new ArrayList<>();
 
-			portletPlugins.forEach(
-				portalPlugin -> {
-					try {
-						convertedPaths.addAll(
-							_convertToWarProject(pluginsSdkDir, projectsDir, portalPlugin, null, removeSource));
-					}
-					catch (Exception e) {
-						e.printStackTrace(bladeCLI.error());
-					}
-				});
+			for (File serviceBuilderPlugin : serviceBuilderPlugins) {
+				pluginPlans.add(_planPlugin(pluginsSdkDir, serviceBuilderPlugin, PluginType.SERVICE_BUILDER));
+			}
 
-			hookPlugins.forEach(
-				hookPlugin -> {
-					try {
-						convertedPaths.addAll(
-							_convertToWarProject(pluginsSdkDir, projectsDir, hookPlugin, null, removeSource));
-					}
-					catch (Exception e) {
-						e.printStackTrace(bladeCLI.error());
-					}
-				});
+			for (File portletPlugin : portletPlugins) {
+				pluginPlans.add(_planPlugin(pluginsSdkDir, portletPlugin, PluginType.PORTLET));
+			}
 
-			webPlugins.forEach(
-				webPlugin -> {
-					try {
-						convertedPaths.addAll(
-							_convertToWarProject(pluginsSdkDir, projectsDir, webPlugin, null, removeSource));
-					}
-					catch (Exception e) {
-						e.printStackTrace(bladeCLI.error());
-					}
-				});
+			for (File hookPlugin : hookPlugins) {
+				pluginPlans.add(_planPlugin(pluginsSdkDir, hookPlugin, PluginType.HOOK));
+			}
+
+			for (File webPlugin : webPlugins) {
+				pluginPlans.add(_planPlugin(pluginsSdkDir, webPlugin, PluginType.WEB));
+			}
 
-			layoutPlugins.forEach(layoutPlugin -> _convertToLayoutWarProject(projectsDir, layoutPlugin, removeSource));
+			for (File layoutPlugin : layoutPlugins) {
+				pluginPlans.add(_planPlugin(pluginsSdkDir, layoutPlugin, PluginType.LAYOUTTPL));
+			}
 
-			if (convertArgs.isThemeBuilder()) {
-				themePlugins.forEach(
-					theme -> convertedPaths.addAll(_convertToThemeBuilderWarProject(projectsDir, theme, removeSource)));
+			for (File themePlugin : themePlugins) {
+				pluginPlans.add(_planPlugin(pluginsSdkDir, themePlugin, PluginType.THEME));
+			}
+
+			if (convertArgs.isDryRun()) {
+				_printPlan(pluginPlans);
 			}
 			else {
-				themePlugins.forEach(theme -> convertedPaths.addAll(_convertToThemeProject(theme)));
+				List<PluginPlan> pendingPluginPlans = pluginPlans.stream(
+				).filter(
+					pluginPlan -> !_isConverted(pluginPlan)
+				).collect(
+					Collectors.toList()
+				);
+
+				int convertedCount = pluginPlans.size() - pendingPluginPlans.size();
+
+				if ((convertedCount > 0) && !convertArgs.isQuiet()) {
+					bladeCLI.out(
+						"Skipping " + convertedCount + " plugins that are already converted and didn't change, " +
+							"delete " + _CONVERT_JOURNAL_FILE_NAME + " to convert them again.");
+				}
+
+				if (!convertArgs.isForce()) {
+					pendingPluginPlans.removeIf(this::_skipChanged);
+				}
+
+				convertedPaths.addAll(_convertAll(pluginsSdkDir, projectsDir, pendingPluginPlans));
 			}
+
+			_saveMavenCoordinatesCache();
 		}
 		else if (convertArgs.isList()) {
 			if (!convertArgs.isQuiet()) {
@@ -292,32 +307,63 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 
 			Path pluginPath = pluginDir.toPath();
 
+			PluginType pluginType = null;
+
 			if (pluginPath.startsWith(portletsDir.toPath())) {
 				if (_isServiceBuilderPlugin(pluginDir)) {
-					convertedPaths.addAll(
-						_convertToServiceBuilderWarProject(pluginsSdkDir, projectsDir, pluginDir, removeSource));
+					pluginType = PluginType.SERVICE_BUILDER;
 				}
 				else {
-					convertedPaths.addAll(
-						_convertToWarProject(pluginsSdkDir, projectsDir, pluginDir, null, removeSource));
+					pluginType = PluginType.PORTLET;
 				}
 			}
-
-			if (pluginPath.startsWith(hooksDir.toPath()) || pluginPath.startsWith(websDir.toPath())) {
-				convertedPaths.addAll(_convertToWarProject(pluginsSdkDir, projectsDir, pluginDir, null, removeSource));
+			else if (pluginPath.startsWith(hooksDir.toPath())) {
+				pluginType = PluginType.HOOK;
+			}
+			else if (pluginPath.startsWith(websDir.toPath())) {
+				pluginType = PluginType.WEB;
 			}
 			else if (pluginPath.startsWith(layouttplDir.toPath())) {
-				convertedPaths.addAll(_convertToLayoutWarProject(projectsDir, pluginDir, removeSource));
+				pluginType = PluginType.LAYOUTTPL;
 			}
 			else if (pluginPath.startsWith(themesDir.toPath())) {
-				if (convertArgs.isThemeBuilder()) {
-					convertedPaths.addAll(_convertToThemeBuilderWarProject(projectsDir, pluginDir, removeSource));
-				}
-				else {
-					convertedPaths.addAll(_convertToThemeProject(pluginDir));
+				pluginType = PluginType.THEME;
+			}
+
+			if (pluginType == null) {
+				bladeCLI.error("Plugin " + pluginName + " is not a portlet, hook, web, layouttpl or theme plugin");
+
+				return;
+			}
+
+			PluginPlan pluginPlan = _planPlugin(pluginsSdkDir, pluginDir, pluginType);
+
+			if (convertArgs.isDryRun()) {
+				_printPlan(Collections.singletonList(pluginPlan));
+
+				_saveMavenCoordinatesCache();
+
+				return;
+			}
+
+			if (_isConverted(pluginPlan)) {
+				if (!convertArgs.isQuiet()) {
+					bladeCLI.out(
+						"Plugin " + pluginName + " is already converted and didn't change, delete " +
+							_CONVERT_JOURNAL_FILE_NAME + " to convert it again.");
 				}
+
+				return;
+			}
+
+			if (!convertArgs.isForce() && _skipChanged(pluginPlan)) {
+				return;
 			}
 
+			convertedPaths.addAll(_convert(pluginsSdkDir, projectsDir, pluginPlan));
+
+			_saveMavenCoordinatesCache();
+
 			if (convertArgs.isQuiet()) {
 				convertedPaths.stream(
 				).map(
@@ -346,20 +392,63 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		return ConvertArgs.class;
 	}
 
-	private static String _getAttr(Node item, String attrName) {
-		if (item != null) {
-			NamedNodeMap attrs = item.getAttributes();
+	/**
+	 * Puts the dependencies block in place of the last closing brace before the
+	 * <code>war</code> block, scanning the lines once instead of matching the
+	 * whole build.gradle with a regular expression.
+	 */
+	private static String _addDependencies(String buildGradle, String dependenciesBlock) {
+		int dependenciesIndex = -1;
+		int warIndex = -1;
 
-			if (attrs != null) {
-				Node attr = attrs.getNamedItem(attrName);
+		int lineIndex = 0;
 
-				if (attr != null) {
-					return attr.getNodeValue();
-				}
+		while (lineIndex < buildGradle.length()) {
+			if ((dependenciesIndex < 0) && buildGradle.startsWith("dependencies {", lineIndex)) {
+				dependenciesIndex = lineIndex;
+			}
+			else if (buildGradle.startsWith("war {", lineIndex)) {
+				warIndex = lineIndex;
+			}
+
+			int nextLineIndex = buildGradle.indexOf('\n', lineIndex);
+
+			if (nextLineIndex < 0) {
+				break;
 			}
+
+			lineIndex = nextLineIndex + 1;
+		}
+
+		int closingIndex = -1;
+
+		if (warIndex > 0) {
+			closingIndex = buildGradle.lastIndexOf('}', warIndex);
+		}
+
+		if ((dependenciesIndex < 0) || (closingIndex < (dependenciesIndex + "dependencies {".length()))) {
+			throw new IllegalStateException("Unable to find the dependencies block in build.gradle");
+		}
+
+		return buildGradle.substring(0, closingIndex) + dependenciesBlock + buildGradle.substring(closingIndex + 1);
+	}
+
+	private static String _formatBytes(long bytes) {
+		double value = bytes;
+
+		int unit = -1;
+
+		while ((value >= 1024) && (unit < (_BYTE_UNITS.length - 1))) {
+			value /= 1024;
+
+			unit++;
 		}
 
-		return null;
+		if (unit < 0) {
+			return bytes + " B";
+		}
+
+		return String.format("%.1f %s", value, _BYTE_UNITS[unit]);
 	}
 
 	private static boolean _hasServiceXmlFile(File dir) {
@@ -374,15 +463,6 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		return _hasServiceXmlFile(pluginDir);
 	}
 
-	{
-		_portalClasspathDependenciesMap.put(
-			"util-bridges.jar", "compileOnly group: \"com.liferay.portal\", name: \"com.liferay.util.bridges\"");
-		_portalClasspathDependenciesMap.put(
-			"util-java.jar", "compileOnly group: \"com.liferay.portal\", name: \"com.liferay.util.java\"");
-		_portalClasspathDependenciesMap.put(
-			"util-taglib.jar", "compileOnly group: \"com.liferay.portal\", name: \"com.liferay.util.taglib\"");
-	}
-
 	private static final void _loadMigratedDependencies(String resource, Map<String, GAV> migratedDependencies) {
 		try (InputStream inputStream = ConvertCommand.class.getResourceAsStream(resource)) {
 			Properties properties = new Properties();
@@ -417,126 +497,278 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		}
 	}
 
+	private static String _toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+
+		return sb.toString();
+	}
+
+	private static void _updateDigest(MessageDigest messageDigest, Object... values) {
+		for (Object value : values) {
+			String s = String.valueOf(value) + "\n";
+
+			messageDigest.update(s.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
 	private void _assertTrue(String message, boolean value) {
 		if (!value) {
 			throw new AssertionError(message);
 		}
 	}
 
-	private List<GAV> _convertPortalDependencyJarProperty(File pluginsSdkDir, File warDir)
-		throws FileNotFoundException, IOException {
+	private List<Path> _convert(File pluginsSdkDir, File projectsDir, PluginPlan pluginPlan) throws Exception {
+		String pluginKey = pluginPlan.getKey();
 
-		List<GAV> convertedDependencies = new ArrayList<>();
+		if (_convertJournal.isConverted(pluginKey)) {
 
-		File liferayPluginPackageFile = new File(warDir, "src/main/webapp/WEB-INF/liferay-plugin-package.properties");
+			// the plugin changed since it was converted and --force was given
 
-		if (liferayPluginPackageFile.exists()) {
-			try (InputStream fileInputStream = new FileInputStream(liferayPluginPackageFile)) {
-				Properties liferayPluginPackageProperties = _loadProperties(fileInputStream);
+			for (Path convertedPath : _convertJournal.getConvertedPaths(pluginKey)) {
+				FileUtil.deleteDirIfExists(convertedPath);
+			}
 
-				String portalJarsValue = liferayPluginPackageProperties.getProperty("portal-dependency-jars");
+			_convertJournal.remove(pluginKey);
+		}
 
-				List<String> portalDependencyJars = new ArrayList<>(Arrays.asList(_PORTLET_PLUGIN_API_DEPENDENCIES));
+		Path warPath = null;
 
-				if (Objects.nonNull(portalJarsValue)) {
-					Collections.addAll(portalDependencyJars, portalJarsValue.split(","));
-				}
+		PluginType pluginType = pluginPlan.getPluginType();
 
-				List<String> missingDependencyJars = new ArrayList<>();
+		if ((pluginType == PluginType.HOOK) || (pluginType == PluginType.PORTLET) || (pluginType == PluginType.WEB)) {
+			warPath = _getWarPath(projectsDir, pluginPlan.getPluginDir());
 
-				try (InputStream inputStream = ConvertCommand.class.getResourceAsStream(
-						"/portal-dependency-jars-62.properties")) {
+			if (Files.exists(warPath)) {
+				warPath = null;
+			}
+		}
 
-					Properties properties = _loadProperties(inputStream);
+		List<Path> convertedPaths = Collections.emptyList();
 
-					Map<String, GAV> migratedDependencies = _getMigratedDependecies();
+		try {
+			convertedPaths = _convertPlugin(pluginsSdkDir, projectsDir, pluginPlan);
+		}
+		finally {
+			if (convertedPaths.isEmpty() && (warPath != null)) {
 
-					for (String portalDependencyJar : portalDependencyJars) {
-						GAV gav = migratedDependencies.get(portalDependencyJar);
+				// remove what a failed conversion left behind so it can be run again
 
-						if (gav == null) {
-							String newDependency = properties.getProperty(portalDependencyJar);
+				FileUtil.deleteDirIfExists(warPath);
+			}
+		}
 
-							if ((newDependency == null) || newDependency.isEmpty()) {
-								missingDependencyJars.add(portalDependencyJar);
+		if (!convertedPaths.isEmpty()) {
+			List<Path> journalPaths = new ArrayList<>(convertedPaths);
 
-								continue;
-							}
+			if (pluginType == PluginType.SERVICE_BUILDER) {
+				Path apiPath = convertedPaths.get(0);
+
+				journalPaths.add(apiPath.getParent());
+			}
+
+			_convertJournal.complete(pluginKey, pluginPlan.getFingerprint(), journalPaths);
+		}
+
+		return convertedPaths;
+	}
+
+	private List<Path> _convertAll(File pluginsSdkDir, File projectsDir, List<PluginPlan> pluginPlans)
+		throws InterruptedException {
+
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ConvertArgs convertArgs = getArgs();
+
+		int concurrency = convertArgs.getConcurrency();
+
+		if (concurrency < 1) {
+			Runtime runtime = Runtime.getRuntime();
+
+			concurrency = runtime.availableProcessors();
+		}
+
+		concurrency = Math.max(1, Math.min(concurrency, pluginPlans.size()));
+
+		ExecutorService executorService = Executors.newFixedThreadPool(concurrency);
 
-							String[] coordinates = newDependency.split(":");
+		Map<PluginPlan, Long> durations = new ConcurrentHashMap<>();
 
-							if (coordinates.length != 3) {
-								missingDependencyJars.add(portalDependencyJar);
+		long start = System.nanoTime();
 
-								continue;
+		try {
+			Map<PluginPlan, Future<List<Path>>> futures = new LinkedHashMap<>();
+
+			for (PluginPlan pluginPlan : pluginPlans) {
+				futures.put(
+					pluginPlan,
+					executorService.submit(
+						() -> {
+							long pluginStart = System.nanoTime();
+
+							try {
+								return _convert(pluginsSdkDir, projectsDir, pluginPlan);
 							}
+							finally {
+								durations.put(pluginPlan, System.nanoTime() - pluginStart);
+							}
+						}));
+			}
 
-							gav = new GAV(coordinates[0], coordinates[1], coordinates[2]);
-						}
+			List<Path> convertedPaths = new ArrayList<>();
+			List<String> failedPlugins = new ArrayList<>();
 
-						if (!gav.isRemove()) {
-							convertedDependencies.add(gav);
-						}
+			long convertedBytes = 0;
+
+			for (Map.Entry<PluginPlan, Future<List<Path>>> entry : futures.entrySet()) {
+				PluginPlan pluginPlan = entry.getKey();
+				Future<List<Path>> future = entry.getValue();
+
+				String pluginName = pluginPlan.getName();
+
+				try {
+					List<Path> paths = future.get();
+
+					if (paths.isEmpty()) {
+						failedPlugins.add(pluginName);
 					}
+					else {
+						convertedPaths.addAll(paths);
+
+						convertedBytes += pluginPlan.getBytes();
+					}
+				}
+				catch (ExecutionException ee) {
+					bladeCLI.error("Error upgrading project " + pluginName + "\n");
+
+					Throwable cause = ee.getCause();
+
+					cause.printStackTrace(bladeCLI.error());
+
+					failedPlugins.add(pluginName);
 				}
+			}
 
-				if (!missingDependencyJars.isEmpty()) {
-					LoadProperties loadProperties = new LoadProperties();
+			long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 
-					Project project = new Project();
+			if (!convertArgs.isQuiet()) {
+				int convertedCount = pluginPlans.size() - failedPlugins.size();
+
+				bladeCLI.out(
+					String.format(
+						"Converted %d of %d plugins (%s) in %.1f s using %d threads (%.2f plugins/s, %s/s)",
+						convertedCount, pluginPlans.size(), _formatBytes(convertedBytes), elapsedMillis / 1000.0,
+						concurrency, convertedCount * 1000.0 / elapsedMillis,
+						_formatBytes(convertedBytes * 1000 / elapsedMillis)));
+
+				Set<Map.Entry<PluginPlan, Long>> durationEntries = durations.entrySet();
+
+				durationEntries.stream(
+				).max(
+					Map.Entry.comparingByValue()
+				).ifPresent(
+					slowest -> {
+						PluginPlan pluginPlan = slowest.getKey();
+
+						bladeCLI.out(
+							String.format(
+								"Slowest plugin was %s (%.1f s)", pluginPlan.getName(),
+								TimeUnit.NANOSECONDS.toMillis(slowest.getValue()) / 1000.0));
+					}
+				);
+			}
 
-					project.setProperty("sdk.dir", pluginsSdkDir.getCanonicalPath());
+			if (!failedPlugins.isEmpty()) {
+				bladeCLI.error("The following plugins could not be converted: " + String.join(", ", failedPlugins));
+			}
 
-					loadProperties.setProject(project);
+			return convertedPaths;
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
 
-					loadProperties.setSrcFile(new File(pluginsSdkDir, "build.properties"));
-					loadProperties.execute();
+	private List<GAV> _convertPortalDependencyJarProperty(File pluginsSdkDir, File pluginDir)
+		throws FileNotFoundException, IOException {
 
-					String portalDirValue = project.getProperty(
-						"app.server." + project.getProperty("app.server.type") + ".portal.dir");
+		List<GAV> convertedDependencies = new ArrayList<>();
 
-					if (FileUtil.exists(portalDirValue)) {
-						Stream<String> stream = missingDependencyJars.stream();
+		File liferayPluginPackageFile = new File(pluginDir, "docroot/WEB-INF/liferay-plugin-package.properties");
 
-						stream.map(
-							jarName -> new File(portalDirValue, "WEB-INF/lib/" + jarName)
-						).filter(
-							File::exists
-						).map(
-							portalJar -> _getGAVFromJarFile(portalJar)
-						).forEach(
-							gav -> {
-								if (gav.isUnknown()) {
-									_warn(
-										MessageFormat.format(
-											"Found dependency {0} but unable to determine its artifactId. Please " +
-												"resolve manually.",
-											gav.getJarName()));
-								}
+		if (liferayPluginPackageFile.exists()) {
+			List<String> missingDependencyJars = new ArrayList<>();
+
+			for (String portalDependencyJar : _getPortalDependencyJars(liferayPluginPackageFile)) {
+				GAV gav = _getPortalDependencyGAV(portalDependencyJar);
+
+				if (gav == null) {
+					missingDependencyJars.add(portalDependencyJar);
+				}
+				else if (!gav.isRemove()) {
+					convertedDependencies.add(gav);
+				}
+			}
+
+			if (!missingDependencyJars.isEmpty()) {
+				LoadProperties loadProperties = new LoadProperties();
+
+				Project project = new Project();
+
+				project.setProperty("sdk.dir", pluginsSdkDir.getCanonicalPath());
+
+				loadProperties.setProject(project);
+
+				loadProperties.setSrcFile(new File(pluginsSdkDir, "build.properties"));
+				loadProperties.execute();
+
+				String portalDirValue = project.getProperty(
+					"app.server." + project.getProperty("app.server.type") + ".portal.dir");
 
-								convertedDependencies.add(gav);
+				if (FileUtil.exists(portalDirValue)) {
+					Stream<String> stream = missingDependencyJars.stream();
+
+					stream.map(
+						jarName -> new File(portalDirValue, "WEB-INF/lib/" + jarName)
+					).filter(
+						File::exists
+					).map(
+						portalJar -> _getGAVFromJarFile(portalJar)
+					).forEach(
+						gav -> {
+							if (gav.isUnknown()) {
+								_warn(
+									MessageFormat.format(
+										"Found dependency {0} but unable to determine its artifactId. Please " +
+											"resolve manually.",
+										gav.getJarName()));
 							}
-						);
-					}
-					else {
-						Stream<String> stream = missingDependencyJars.stream();
-
-						stream.map(
-							jarName -> new GAV(jarName)
-						).forEach(
-							gav -> {
-								if (gav.isUnknown()) {
-									_warn(
-										MessageFormat.format(
-											"Found dependency {0} but unable to determine its artifactId. Please " +
-												"resolve manually.",
-											gav.getJarName()));
-								}
 
-								convertedDependencies.add(gav);
+							convertedDependencies.add(gav);
+						}
+					);
+				}
+				else {
+					Stream<String> stream = missingDependencyJars.stream();
+
+					stream.map(
+						jarName -> new GAV(jarName)
+					).forEach(
+						gav -> {
+							if (gav.isUnknown()) {
+								_warn(
+									MessageFormat.format(
+										"Found dependency {0} but unable to determine its artifactId. Please " +
+											"resolve manually.",
+										gav.getJarName()));
 							}
-						);
-					}
+
+							convertedDependencies.add(gav);
+						}
+					);
 				}
 			}
 		}
@@ -544,6 +776,33 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		return convertedDependencies;
 	}
 
+	private List<Path> _convertPlugin(File pluginsSdkDir, File projectsDir, PluginPlan pluginPlan) throws Exception {
+		ConvertArgs convertArgs = getArgs();
+
+		boolean removeSource = convertArgs.isRemoveSource();
+
+		File pluginDir = pluginPlan.getPluginDir();
+
+		switch (pluginPlan.getPluginType()) {
+			case HOOK:
+			case PORTLET:
+			case WEB:
+				return _convertToWarProject(pluginsSdkDir, projectsDir, pluginDir, null, removeSource);
+			case LAYOUTTPL:
+				return _convertToLayoutWarProject(projectsDir, pluginDir, removeSource);
+			case SERVICE_BUILDER:
+				return _convertToServiceBuilderWarProject(pluginsSdkDir, projectsDir, pluginDir, removeSource);
+			case THEME:
+				if (convertArgs.isThemeBuilder()) {
+					return _convertToThemeBuilderWarProject(projectsDir, pluginDir, removeSource);
+				}
+
+				return _convertToThemeProject(pluginDir);
+			default:
+				return Collections.emptyList();
+		}
+	}
+
 	private List<Path> _convertToLayoutWarProject(File warsDir, File layoutPluginDir, boolean removeSource) {
 		try {
 			warsDir.mkdirs();
@@ -625,7 +884,7 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 			convertServiceBuilderArgs.setBase(convertArgs.getBase());
 
 			ConvertServiceBuilderCommand command = new ConvertServiceBuilderCommand(
-				bladeCLI, convertServiceBuilderArgs);
+				bladeCLI, convertServiceBuilderArgs, _pluginDescriptors, _workspaceLock);
 
 			command.execute();
 
@@ -646,6 +905,22 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 			bladeCLI.error("Error upgrading project " + pluginDir.getName() + "\n");
 
 			e.printStackTrace(bladeCLI.error());
+
+			if (!convertedPaths.isEmpty()) {
+
+				// remove the half converted service builder project so the plugin can be converted again
+
+				Path apiPath = convertedPaths.get(0);
+
+				try {
+					FileUtil.deleteDirIfExists(apiPath.getParent());
+				}
+				catch (IOException ioe) {
+					ioe.printStackTrace(bladeCLI.error());
+				}
+			}
+
+			return Collections.emptyList();
 		}
 
 		return convertedPaths;
@@ -671,7 +946,9 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 			projectTemplatesArgs.setName(themePlugin.getName());
 			projectTemplatesArgs.setTemplate("theme");
 
-			createCommand.execute(projectTemplatesArgs);
+			synchronized (_workspaceLock) {
+				createCommand.execute(projectTemplatesArgs);
+			}
 
 			File docroot = new File(themePlugin, "docroot");
 
@@ -745,10 +1022,21 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 	private List<Path> _convertToThemeProject(File themePlugin) {
 		BladeCLI bladeCLI = getBladeCLI();
 
+		ConvertArgs convertArgs = getArgs();
+
 		try {
-			ConvertThemeCommand convertThemeCommand = new ConvertThemeCommand(bladeCLI, getArgs());
+			ConvertArgs convertThemeArgs = new ConvertArgs(
+				false, false, convertArgs.isThemeBuilder(), convertArgs.isRemoveSource(), convertArgs.getSource(),
+				Collections.singletonList(themePlugin.getName()));
+
+			convertThemeArgs.setBase(convertArgs.getBase());
+			convertThemeArgs.setQuiet(convertArgs.isQuiet());
+
+			ConvertThemeCommand convertThemeCommand = new ConvertThemeCommand(bladeCLI, convertThemeArgs);
 
-			convertThemeCommand.execute();
+			synchronized (_workspaceLock) {
+				convertThemeCommand.execute();
+			}
 
 			return convertThemeCommand.getConvertedPaths();
 		}
@@ -767,17 +1055,11 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 
 		List<Path> convertedPaths = new ArrayList<>();
 
-		Path projectParentPath = projectsDir.toPath();
+		Path warPath = _getWarPath(projectsDir, pluginDir);
 
-		File projectParentDir = new File(projectsDir, _getProjectParentName(pluginDir));
+		Path projectParentPath = warPath.getParent();
 
-		if (!Objects.equals(projectParentDir.getName(), pluginDir.getName())) {
-			projectParentDir.mkdirs();
-
-			projectParentPath = projectParentDir.toPath();
-		}
-
-		Path warPath = projectParentPath.resolve(pluginDir.getName());
+		Files.createDirectories(projectParentPath);
 
 		copyFile(pluginDir.toPath(), warPath);
 
@@ -824,61 +1106,45 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 
 		List<GAV> convertedGavs = new CopyOnWriteArrayList<>();
 
-		File ivyFile = new File(warDir, "ivy.xml");
+		File ivyFile = new File(pluginDir, "ivy.xml");
 
 		if (ivyFile.exists()) {
-			DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-
-			DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-
-			Document doc = dBuilder.parse(ivyFile);
-
-			Element documentElement = doc.getDocumentElement();
-
-			documentElement.normalize();
+			Map<String, GAV> migratedDependencies = _getMigratedDependecies();
 
-			NodeList depElements = documentElement.getElementsByTagName("dependency");
+			Set<String> migratedKeys = migratedDependencies.keySet();
 
-			if ((depElements != null) && (depElements.getLength() > 0)) {
-				for (int i = 0; i < depElements.getLength(); i++) {
-					Node depElement = depElements.item(i);
+			for (IvyDependency ivyDependency : _pluginDescriptors.getIvyDependencies(ivyFile.toPath())) {
+				String name = ivyDependency.getName();
+				String org = ivyDependency.getOrg();
+				String rev = ivyDependency.getRev();
 
-					String name = _getAttr(depElement, "name");
-					String org = _getAttr(depElement, "org");
-					String rev = _getAttr(depElement, "rev");
+				boolean removedGav = false;
 
-					Map<String, GAV> migratedDependencies = _getMigratedDependecies();
+				if ((name != null) &&
+					migratedKeys.stream(
+					).filter(
+						key -> name.equals(key.replaceAll("\\.jar$", ""))
+					).map(
+						key -> migratedDependencies.get(key)
+					).filter(
+						GAV::isRemove
+					).findFirst(
+					).isPresent()) {
 
-					Set<String> migratedKeys = migratedDependencies.keySet();
-
-					boolean removedGav = false;
-
-					if ((name != null) &&
-						migratedKeys.stream(
-						).filter(
-							key -> name.equals(key.replaceAll("\\.jar$", ""))
-						).map(
-							key -> migratedDependencies.get(key)
-						).filter(
-							GAV::isRemove
-						).findFirst(
-						).isPresent()) {
-
-						removedGav = true;
-					}
+					removedGav = true;
+				}
 
-					if ((name != null) && (org != null) && (rev != null) && !removedGav) {
-						GAV gav = new GAV(org, name, rev);
+				if ((name != null) && (org != null) && (rev != null) && !removedGav) {
+					GAV gav = new GAV(org, name, rev);
 
-						convertedGavs.add(gav);
-					}
+					convertedGavs.add(gav);
 				}
 			}
 
-			ivyFile.delete();
+			Files.deleteIfExists(warPath.resolve("ivy.xml"));
 		}
 
-		convertedGavs.addAll(_convertPortalDependencyJarProperty(pluginsSdkDir, warDir));
+		convertedGavs.addAll(_convertPortalDependencyJarProperty(pluginsSdkDir, pluginDir));
 
 		List<GradleDependency> convertedGradleDependencies = convertedGavs.stream(
 		).map(
@@ -918,11 +1184,7 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		dependenciesBlock.append(System.lineSeparator());
 		dependenciesBlock.append("}");
 
-		Matcher matcher = _dependenciesBlockPattern.matcher(existingContent);
-
-		matcher.find();
-
-		String newContent = matcher.group(1) + dependenciesBlock.toString() + matcher.group(2);
+		String newContent = _addDependencies(existingContent, dependenciesBlock.toString());
 
 		Files.write(buildGradlePath, newContent.getBytes());
 
@@ -989,7 +1251,9 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 								}
 							}
 
-							FileUtils.moveFileToDirectory(libFile, libsFolder, true);
+							synchronized (_workspaceLock) {
+								FileUtils.moveFileToDirectory(libFile, libsFolder, true);
+							}
 						}
 						else {
 							convertDependencies.add(new GradleDependency(gav.toCompileDependency()));
@@ -1057,22 +1321,16 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 	}
 
 	private GAV _getGAVFromJarFile(File dependencyJarFile) {
-		try (JarFile jarFile = new JarFile(dependencyJarFile)) {
-			Enumeration<JarEntry> jarEntries = jarFile.entries();
-
-			while (jarEntries.hasMoreElements()) {
-				JarEntry jarEntry = jarEntries.nextElement();
-
-				String name = jarEntry.getName();
+		try {
+			String coordinates = _mavenCoordinatesCache.get(dependencyJarFile.toPath());
 
-				if (name.startsWith("META-INF/maven") && name.endsWith("pom.properties")) {
-					Properties properties = _loadProperties(jarFile.getInputStream(jarEntry));
+			if (coordinates != null) {
+				String[] coords = StringUtil.split(coordinates, ":");
 
-					return new GAV(properties.get("groupId"), properties.get("artifactId"), properties.get("version"));
-				}
+				return new GAV(coords[0], coords[1], coords[2]);
 			}
 		}
-		catch (IOException e) {
+		catch (IOException ioe) {
 		}
 
 		return new GAV(dependencyJarFile.getName());
@@ -1117,6 +1375,53 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		return pluginsSdkDir;
 	}
 
+	private GAV _getPortalDependencyGAV(String portalDependencyJar) {
+		Map<String, GAV> migratedDependencies = _getMigratedDependecies();
+
+		GAV gav = migratedDependencies.get(portalDependencyJar);
+
+		if (gav != null) {
+			return gav;
+		}
+
+		String newDependency = _portalDependencyJars62.getProperty(portalDependencyJar);
+
+		if ((newDependency == null) || newDependency.isEmpty()) {
+			return null;
+		}
+
+		String[] coordinates = newDependency.split(":");
+
+		if (coordinates.length != 3) {
+			return null;
+		}
+
+		return new GAV(coordinates[0], coordinates[1], coordinates[2]);
+	}
+
+	private List<String> _getPortalDependencyJars(File liferayPluginPackageFile) throws IOException {
+		List<String> portalDependencyJars = new ArrayList<>(Arrays.asList(_PORTLET_PLUGIN_API_DEPENDENCIES));
+
+		Properties liferayPluginPackageProperties = _pluginDescriptors.getProperties(
+			liferayPluginPackageFile.toPath());
+
+		String portalJarsValue = liferayPluginPackageProperties.getProperty("portal-dependency-jars");
+
+		if (Objects.nonNull(portalJarsValue)) {
+			Collections.addAll(portalDependencyJars, portalJarsValue.split(","));
+		}
+
+		return portalDependencyJars;
+	}
+
+	private String _getPluginKey(File pluginsSdkDir, File pluginDir) {
+		Path pluginsSdkPath = pluginsSdkDir.toPath();
+
+		Path relativePath = pluginsSdkPath.relativize(pluginDir.toPath());
+
+		return StringUtil.replace(relativePath.toString(), '\\', '/');
+	}
+
 	private String _getProjectParentName(File pluginDir) {
 		String parentProjectName = pluginDir.getName();
 
@@ -1127,7 +1432,11 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		return parentProjectName;
 	}
 
-	private void _initBuildGradle(Path warPath) throws Exception {
+	private byte[] _getWarBuildGradle() throws Exception {
+		if (_warBuildGradle != null) {
+			return _warBuildGradle;
+		}
+
 		Path initPath = Files.createTempDirectory("ws");
 
 		BladeCLI bladeCLI = new BladeCLI();
@@ -1166,11 +1475,37 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 
 		createCommand.execute();
 
-		Path tempBuildGradle = modulesPath.resolve("war-portlet/build.gradle");
-
-		copyFile(tempBuildGradle, warPath.resolve("build.gradle"));
+		_warBuildGradle = Files.readAllBytes(modulesPath.resolve("war-portlet/build.gradle"));
 
 		FileUtil.deleteDir(initPath);
+
+		return _warBuildGradle;
+	}
+
+	private Path _getWarPath(File projectsDir, File pluginDir) {
+		File projectParentDir = new File(projectsDir, _getProjectParentName(pluginDir));
+
+		if (Objects.equals(projectParentDir.getName(), pluginDir.getName())) {
+			projectParentDir = projectsDir;
+		}
+
+		Path projectParentPath = projectParentDir.toPath();
+
+		return projectParentPath.resolve(pluginDir.getName());
+	}
+
+	private void _initBuildGradle(Path warPath) throws Exception {
+		byte[] warBuildGradle;
+
+		synchronized (_workspaceLock) {
+			warBuildGradle = _getWarBuildGradle();
+		}
+
+		Files.write(warPath.resolve("build.gradle"), warBuildGradle);
+	}
+
+	private boolean _isConverted(PluginPlan pluginPlan) {
+		return _convertJournal.isUpToDate(pluginPlan.getKey(), pluginPlan.getFingerprint());
 	}
 
 	private boolean _isValidSDKDir(File pluginsSdkDir) {
@@ -1185,14 +1520,203 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		return false;
 	}
 
-	private Properties _loadProperties(InputStream inputStream) throws IOException {
-		Properties properties = new Properties();
+	private void _planDependencies(File pluginDir, List<String> dependencies, List<String> unknownDependencies)
+		throws IOException {
+
+		File liferayPluginPackageFile = new File(pluginDir, "docroot/WEB-INF/liferay-plugin-package.properties");
+
+		if (liferayPluginPackageFile.exists()) {
+			for (String portalDependencyJar : _getPortalDependencyJars(liferayPluginPackageFile)) {
+				GAV gav = _getPortalDependencyGAV(portalDependencyJar);
+
+				if (gav == null) {
+					unknownDependencies.add(portalDependencyJar);
+				}
+				else if (!gav.isRemove()) {
+					dependencies.add(portalDependencyJar);
+				}
+			}
+		}
+
+		File webInfLibDir = new File(pluginDir, "docroot/WEB-INF/lib");
+
+		File[] libFiles = webInfLibDir.listFiles((dir, name) -> name.endsWith(".jar"));
+
+		if (libFiles == null) {
+			return;
+		}
+
+		Map<String, GAV> migratedDependencies = _getMigratedDependecies();
+
+		for (File libFile : libFiles) {
+			GAV gav = migratedDependencies.get(libFile.getName());
+
+			if (gav == null) {
+				gav = _getGAVFromJarFile(libFile);
+			}
+
+			if (gav.isUnknown()) {
+				unknownDependencies.add("WEB-INF/lib/" + libFile.getName());
+			}
+			else if (!gav.isRemove()) {
+				dependencies.add("WEB-INF/lib/" + libFile.getName());
+			}
+		}
+	}
+
+	private PluginPlan _planPlugin(File pluginsSdkDir, File pluginDir, PluginType pluginType) {
+		ConvertArgs convertArgs = getArgs();
+
+		long bytes = 0;
+		List<String> dependencies = new ArrayList<>();
+		long files = 0;
+		String fingerprint = "";
+		List<String> unknownDependencies = new ArrayList<>();
+
+		Path pluginPath = pluginDir.toPath();
+
+		try (Stream<Path> paths = Files.walk(pluginPath)) {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+
+			_updateDigest(
+				messageDigest, pluginType, convertArgs.getLiferayVersion(), convertArgs.isThemeBuilder());
+
+			Iterator<Path> iterator = paths.filter(
+				Files::isRegularFile
+			).sorted(
+			).iterator();
+
+			while (iterator.hasNext()) {
+				Path path = iterator.next();
+
+				BasicFileAttributes basicFileAttributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+				FileTime lastModifiedTime = basicFileAttributes.lastModifiedTime();
+
+				_updateDigest(
+					messageDigest, pluginPath.relativize(path), basicFileAttributes.size(),
+					lastModifiedTime.toMillis());
+
+				bytes += basicFileAttributes.size();
+				files++;
+			}
+
+			fingerprint = _toHex(messageDigest.digest());
+
+			if ((pluginType != PluginType.LAYOUTTPL) && (pluginType != PluginType.THEME)) {
+				_planDependencies(pluginDir, dependencies, unknownDependencies);
+			}
+		}
+		catch (IOException | NoSuchAlgorithmException | UncheckedIOException e) {
+			_warn("Unable to plan the conversion of " + pluginDir.getName() + ": " + e.getMessage());
+		}
+
+		return new PluginPlan(
+			pluginDir, _getPluginKey(pluginsSdkDir, pluginDir), pluginType, bytes, files, fingerprint, dependencies,
+			unknownDependencies);
+	}
+
+	private void _printPlan(List<PluginPlan> pluginPlans) {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ConvertArgs convertArgs = getArgs();
+
+		if (!convertArgs.isQuiet()) {
+			bladeCLI.out("The following plugins would be converted:\n");
+		}
+
+		long bytes = 0;
+		long files = 0;
+		int dependencies = 0;
+		int unknownDependencies = 0;
+
+		for (PluginPlan pluginPlan : pluginPlans) {
+			List<String> pluginDependencies = pluginPlan.getDependencies();
+			String pluginType = String.valueOf(pluginPlan.getPluginType());
+			List<String> pluginUnknownDependencies = pluginPlan.getUnknownDependencies();
+
+			bladeCLI.out(
+				String.format(
+					"%-40s %-16s %10s in %6d files, %3d dependencies to map%s", pluginPlan.getName(),
+					StringUtil.replace(pluginType.toLowerCase(), '_', '-'), _formatBytes(pluginPlan.getBytes()),
+					pluginPlan.getFiles(), pluginDependencies.size(),
+					_isConverted(pluginPlan) ? " (already converted)" : ""));
+
+			for (String unknownDependency : pluginUnknownDependencies) {
+				bladeCLI.out("\tUnknown dependency: " + unknownDependency);
+			}
+
+			bytes += pluginPlan.getBytes();
+			files += pluginPlan.getFiles();
+			dependencies += pluginDependencies.size();
+			unknownDependencies += pluginUnknownDependencies.size();
+		}
+
+		if (convertArgs.isQuiet()) {
+			return;
+		}
+
+		bladeCLI.out(
+			String.format(
+				"\n%d plugins, %s in %d files to copy, %d dependencies to map, %d unknown dependencies",
+				pluginPlans.size(), _formatBytes(bytes), files, dependencies, unknownDependencies));
+
+		if (unknownDependencies > 0) {
+			bladeCLI.out(
+				"Unknown WEB-INF/lib jars would be moved to the workspace libs folder, other unknown dependencies " +
+					"would be looked up in the Plugins SDK app server.");
+		}
+
+		if (convertArgs.isRemoveSource()) {
+			bladeCLI.out("The source plugins would be removed once they are converted.");
+		}
+	}
+
+	private void _saveMavenCoordinatesCache() {
+		try {
+			_mavenCoordinatesCache.save();
+		}
+		catch (IOException ioe) {
+			_warn("Unable to save the Maven coordinates cache: " + ioe.getMessage());
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> and warns if the plugin changed since it was
+	 * converted, or some of the projects it was converted to are missing.
+	 * Converting it again would delete the remaining converted projects, along
+	 * with any changes made to them, so that takes --force. If none of them
+	 * are left there is nothing to lose and the plugin is converted again.
+	 */
+	private boolean _skipChanged(PluginPlan pluginPlan) {
+		String pluginKey = pluginPlan.getKey();
+
+		if (!_convertJournal.isConverted(pluginKey) || _isConverted(pluginPlan)) {
+			return false;
+		}
+
+		List<Path> convertedPaths = _convertJournal.getConvertedPaths(pluginKey);
+
+		boolean convertedPathExists = false;
+
+		for (Path convertedPath : convertedPaths) {
+			if (Files.exists(convertedPath)) {
+				convertedPathExists = true;
 
-		properties.load(inputStream);
+				break;
+			}
+		}
 
-		inputStream.close();
+		if (!convertedPathExists) {
+			return false;
+		}
 
-		return properties;
+		_warn(
+			"Skipping " + pluginPlan.getName() + ", it changed since it was converted to " + convertedPaths +
+				" or some of those projects were deleted. Use --force to delete the converted projects and " +
+					"convert it again.");
+
+		return true;
 	}
 
 	private void _warn(String message) {
@@ -1205,22 +1729,50 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 		}
 	}
 
+	private static final String[] _BYTE_UNITS = {"KB", "MB", "GB", "TB"};
+
+	private static final String _CONVERT_JOURNAL_FILE_NAME = ".blade-convert.properties";
+
+	private static final String _MAVEN_COORDINATES_CACHE_FILE_NAME = "maven-coordinates.properties";
+
 	private static final String[] _PORTLET_PLUGIN_API_DEPENDENCIES = {
 		"commons-logging.jar", "log4j.jar", "util-bridges.jar", "util-java.jar", "util-taglib.jar"
 	};
 
-	private static final Pattern _dependenciesBlockPattern = Pattern.compile(
-		"(.*^dependencies \\{.*)\\}(.*^war \\{.*)", Pattern.MULTILINE | Pattern.DOTALL);
 	private static final Map<String, GAV> _migratedDependencies71 = new HashMap<>();
 	private static final Map<String, GAV> _migratedDependencies72 = new HashMap<>();
 	private static final Map<String, GAV> _migratedDependencies73 = new HashMap<>();
 	private static final Map<String, String> _portalClasspathDependenciesMap = new HashMap<>();
-	{
+	private static final Properties _portalDependencyJars62 = new Properties();
+
+	static {
 		_loadMigratedDependencies("/migrated-dependencies-7.1.properties", _migratedDependencies71);
 		_loadMigratedDependencies("/migrated-dependencies-7.2.properties", _migratedDependencies72);
 		_loadMigratedDependencies("/migrated-dependencies-7.3.properties", _migratedDependencies73);
+
+		try (InputStream inputStream = ConvertCommand.class.getResourceAsStream(
+				"/portal-dependency-jars-62.properties")) {
+
+			_portalDependencyJars62.load(inputStream);
+		}
+		catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+
+		_portalClasspathDependenciesMap.put(
+			"util-bridges.jar", "compileOnly group: \"com.liferay.portal\", name: \"com.liferay.util.bridges\"");
+		_portalClasspathDependenciesMap.put(
+			"util-java.jar", "compileOnly group: \"com.liferay.portal\", name: \"com.liferay.util.java\"");
+		_portalClasspathDependenciesMap.put(
+			"util-taglib.jar", "compileOnly group: \"com.liferay.portal\", name: \"com.liferay.util.taglib\"");
 	}
 
+	private ConvertJournal _convertJournal;
+	private MavenCoordinatesCache _mavenCoordinatesCache;
+	private final PluginDescriptors _pluginDescriptors = new PluginDescriptors();
+	private byte[] _warBuildGradle;
+	private final Object _workspaceLock = new Object();
+
 	private static class GAV {
 
 		public GAV(Object groupId, Object artifactId, Object version) {
@@ -1298,4 +1850,73 @@ public class ConvertCommand extends BaseCommand<ConvertArgs> implements FilesSup
 
 	}
 
+	private static class PluginPlan {
+
+		public PluginPlan(
+			File pluginDir, String key, PluginType pluginType, long bytes, long files, String fingerprint,
+			List<String> dependencies, List<String> unknownDependencies) {
+
+			_pluginDir = pluginDir;
+			_key = key;
+			_pluginType = pluginType;
+			_bytes = bytes;
+			_files = files;
+			_fingerprint = fingerprint;
+			_dependencies = dependencies;
+			_unknownDependencies = unknownDependencies;
+		}
+
+		public long getBytes() {
+			return _bytes;
+		}
+
+		public List<String> getDependencies() {
+			return _dependencies;
+		}
+
+		public long getFiles() {
+			return _files;
+		}
+
+		public String getFingerprint() {
+			return _fingerprint;
+		}
+
+		public String getKey() {
+			return _key;
+		}
+
+		public String getName() {
+			return _pluginDir.getName();
+		}
+
+		public File getPluginDir() {
+			return _pluginDir;
+		}
+
+		public PluginType getPluginType() {
+			return _pluginType;
+		}
+
+		public List<String> getUnknownDependencies() {
+			return _unknownDependencies;
+		}
+
+		private final long _bytes;
+		private final List<String> _dependencies;
+		private final long _files;
+		private final String _fingerprint;
+		private final String _key;
+		private final File _pluginDir;
+		private final PluginType _pluginType;
+		private final List<String> _unknownDependencies;
+
+	}
+
+	private enum PluginType {
+
+		HOOK, LAYOUTTPL, PORTLET, SERVICE_BUILDER, THEME, WEB
+
+	}
+
 }
\ No newline at end of file
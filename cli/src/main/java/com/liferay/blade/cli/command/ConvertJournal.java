@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.util.StringUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Records every plugin that was converted into the workspace together with a
+ * fingerprint of its sources and the projects it was converted to. The journal
+ * is written after each plugin, so a conversion run that was interrupted can be
+ * started again and only converts the plugins that failed, didn't run yet or
+ * changed since they were converted.
+ *
+ * @author agent
+ */
+public class ConvertJournal {
+
+	public ConvertJournal(Path journalPath) throws IOException {
+		_journalPath = journalPath;
+
+		Path parentPath = journalPath.getParent();
+
+		_basePath = parentPath.toAbsolutePath();
+
+		if (Files.exists(journalPath)) {
+			try (InputStream inputStream = Files.newInputStream(journalPath)) {
+				_properties.load(inputStream);
+			}
+		}
+	}
+
+	/**
+	 * Records the plugin as converted and writes the journal.
+	 */
+	public synchronized void complete(String pluginKey, String fingerprint, List<Path> convertedPaths)
+		throws IOException {
+
+		List<String> relativePaths = new ArrayList<>();
+
+		for (Path convertedPath : convertedPaths) {
+			Path absolutePath = convertedPath.toAbsolutePath();
+
+			if (absolutePath.startsWith(_basePath)) {
+				Path relativePath = _basePath.relativize(absolutePath);
+
+				relativePaths.add(StringUtil.replace(relativePath.toString(), '\\', '/'));
+			}
+		}
+
+		_properties.setProperty(pluginKey + _FINGERPRINT_SUFFIX, fingerprint);
+		_properties.setProperty(pluginKey + _PATHS_SUFFIX, String.join(",", relativePaths));
+
+		_save();
+	}
+
+	/**
+	 * Returns the projects the plugin was converted to the last time it was
+	 * converted.
+	 */
+	public synchronized List<Path> getConvertedPaths(String pluginKey) {
+		String paths = _properties.getProperty(pluginKey + _PATHS_SUFFIX);
+
+		if ((paths == null) || paths.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		List<Path> convertedPaths = new ArrayList<>();
+
+		for (String path : paths.split(",")) {
+			convertedPaths.add(_basePath.resolve(path));
+		}
+
+		return convertedPaths;
+	}
+
+	public synchronized boolean isConverted(String pluginKey) {
+		return _properties.containsKey(pluginKey + _FINGERPRINT_SUFFIX);
+	}
+
+	/**
+	 * Returns <code>true</code> if the plugin was converted, its sources
+	 * didn't change since and all the projects it was converted to still
+	 * exist.
+	 */
+	public synchronized boolean isUpToDate(String pluginKey, String fingerprint) {
+		if ((fingerprint == null) || fingerprint.isEmpty() ||
+			!Objects.equals(fingerprint, _properties.getProperty(pluginKey + _FINGERPRINT_SUFFIX))) {
+
+			return false;
+		}
+
+		for (Path convertedPath : getConvertedPaths(pluginKey)) {
+			if (Files.notExists(convertedPath)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public synchronized void remove(String pluginKey) throws IOException {
+		_properties.remove(pluginKey + _FINGERPRINT_SUFFIX);
+		_properties.remove(pluginKey + _PATHS_SUFFIX);
+
+		_save();
+	}
+
+	private void _save() throws IOException {
+		Path parentPath = _journalPath.getParent();
+
+		Path tempPath = Files.createTempFile(parentPath, String.valueOf(_journalPath.getFileName()), ".tmp");
+
+		try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+			_properties.store(outputStream, "blade convert journal, delete this file to convert all plugins again");
+		}
+
+		Files.move(tempPath, _journalPath, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static final String _FINGERPRINT_SUFFIX = ".fingerprint";
+
+	private static final String _PATHS_SUFFIX = ".paths";
+
+	private final Path _basePath;
+	private final Path _journalPath;
+	private final Properties _properties = new Properties();
+
+}
\ No newline at end of file
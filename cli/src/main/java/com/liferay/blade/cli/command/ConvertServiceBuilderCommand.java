@@ -24,7 +24,6 @@ import com.liferay.project.templates.extensions.ProjectTemplatesArgs;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.StringReader;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,15 +33,6 @@ import java.util.List;
 import java.util.Properties;
 import java.util.stream.Stream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
-
 /**
  * @author Terry Jia
  */
@@ -51,9 +41,29 @@ public class ConvertServiceBuilderCommand implements FilesSupport {
 	public static final String DESCRIPTION = "Convert a service builder project to new Liferay Workspace projects";
 
 	public ConvertServiceBuilderCommand(BladeCLI bladeCLI, ConvertArgs convertArgs) throws Exception {
+		this(bladeCLI, convertArgs, new PluginDescriptors());
+	}
+
+	public ConvertServiceBuilderCommand(
+			BladeCLI bladeCLI, ConvertArgs convertArgs, PluginDescriptors pluginDescriptors)
+		throws Exception {
+
+		this(bladeCLI, convertArgs, pluginDescriptors, new Object());
+	}
+
+	/**
+	 * The workspace lock is held while the module project is generated in
+	 * the workspace, so several plugins can be converted concurrently.
+	 */
+	public ConvertServiceBuilderCommand(
+			BladeCLI bladeCLI, ConvertArgs convertArgs, PluginDescriptors pluginDescriptors, Object workspaceLock)
+		throws Exception {
+
 		_bladeCLI = bladeCLI;
 
 		_convertArgs = convertArgs;
+		_pluginDescriptors = pluginDescriptors;
+		_workspaceLock = workspaceLock;
 
 		File baseDir = _convertArgs.getBase();
 
@@ -142,14 +152,7 @@ public class ConvertServiceBuilderCommand implements FilesSupport {
 
 		Path sbProjectPath = modulesPath.resolve(sbProjectName);
 
-		if (Files.exists(sbProjectPath)) {
-			_bladeCLI.error(
-				"The service builder module project " + sbProjectName + " already exists. Please choose another name");
-
-			return;
-		}
-
-		ServiceBuilder oldServiceBuilderXml = new ServiceBuilder(serviceXmlPath.toFile());
+		String sbPackageName = _pluginDescriptors.getServiceBuilderPackagePath(serviceXmlPath);
 
 		CreateCommand createCommand = new CreateCommand(_bladeCLI);
 
@@ -159,10 +162,20 @@ public class ConvertServiceBuilderCommand implements FilesSupport {
 
 		projectTemplatesArgs.setDestinationDir(_modulesDir);
 		projectTemplatesArgs.setName(sbProjectFileName.toString());
-		projectTemplatesArgs.setPackageName(oldServiceBuilderXml.getPackagePath());
+		projectTemplatesArgs.setPackageName(sbPackageName);
 		projectTemplatesArgs.setTemplate("service-builder");
 
-		createCommand.execute(projectTemplatesArgs);
+		synchronized (_workspaceLock) {
+			if (Files.exists(sbProjectPath)) {
+				_bladeCLI.error(
+					"The service builder module project " + sbProjectName +
+						" already exists. Please choose another name");
+
+				return;
+			}
+
+			createCommand.execute(projectTemplatesArgs);
+		}
 
 		Path sbServiceProjectPath = sbProjectPath.resolve(sbProjectName + "-service");
 
@@ -170,10 +183,6 @@ public class ConvertServiceBuilderCommand implements FilesSupport {
 
 		copyFile(serviceXmlPath, newServiceXmlPath);
 
-		ServiceBuilder serviceBuilderXml = new ServiceBuilder(newServiceXmlPath.toFile());
-
-		String sbPackageName = serviceBuilderXml.getPackagePath();
-
 		String packageName = sbPackageName.replaceAll("\\.", "/");
 
 		Path oldSBFolder = originalProjectPath.resolve(Constants.DEFAULT_PLUGINS_SDK_PORTLET_SRC + packageName);
@@ -352,6 +361,8 @@ public class ConvertServiceBuilderCommand implements FilesSupport {
 	private ConvertArgs _convertArgs;
 	private final List<Path> _convertedPaths = new ArrayList<>();
 	private final File _modulesDir;
+	private final PluginDescriptors _pluginDescriptors;
+	private final Object _workspaceLock;
 
 	private static class ServiceBuilder {
 
@@ -365,41 +376,6 @@ public class ConvertServiceBuilderCommand implements FilesSupport {
 
 		public static final String SERVICE_XML = "service.xml";
 
-		public ServiceBuilder(File serviceXml) throws Exception {
-			_serviceXml = serviceXml;
-
-			_parse();
-		}
-
-		public String getPackagePath() {
-			return _rootElement.getAttribute("package-path");
-		}
-
-		private void _parse() throws Exception {
-			if ((_rootElement == null) && (_serviceXml != null) && _serviceXml.exists()) {
-				DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-
-				DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-
-				documentBuilder.setEntityResolver(
-					new EntityResolver() {
-
-						@Override
-						public InputSource resolveEntity(String publicId, String systemId) {
-							return new InputSource(new StringReader(""));
-						}
-
-					});
-
-				Document doc = documentBuilder.parse(_serviceXml);
-
-				_rootElement = doc.getDocumentElement();
-			}
-		}
-
-		private Element _rootElement;
-		private File _serviceXml;
-
 	}
 
 }
\ No newline at end of file
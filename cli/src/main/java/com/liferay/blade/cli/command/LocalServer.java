@@ -21,25 +21,103 @@ import com.liferay.blade.cli.WorkspaceConstants;
 import com.liferay.blade.cli.WorkspaceProvider;
 import com.liferay.blade.cli.gradle.GradleWorkspaceProvider;
 import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.BundleStore;
+import com.liferay.blade.cli.util.FileUtil;
 import com.liferay.blade.cli.util.ServerUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * @author Gregory Amerson
  */
 public class LocalServer {
 
+	/**
+	 * Returns <code>true</code> if the directory, relative to the Liferay home,
+	 * holds state of a single server instance, like its database, logs or the
+	 * state of the OSGi framework, that must not be shared with other
+	 * instances.
+	 */
+	public static boolean isStateDir(Path relativePath) {
+		String path = relativePath.toString();
+
+		path = path.replace('\\', '/');
+
+		if (_stateDirs.contains(path)) {
+			return true;
+		}
+
+		if (relativePath.getNameCount() == 2) {
+			Path fileName = relativePath.getFileName();
+
+			return _appServerStateDirs.contains(fileName.toString());
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the lines of a portal-ext.properties with the OSGi console
+	 * listening on the gogo port, replacing an earlier setting.
+	 */
+	public static List<String> setOsgiConsole(List<String> lines, int gogoPort) {
+		List<String> newLines = new ArrayList<>();
+
+		for (String line : lines) {
+			if (!line.startsWith(_OSGI_CONSOLE_PROPERTY)) {
+				newLines.add(line);
+			}
+		}
+
+		newLines.add(_OSGI_CONSOLE_PROPERTY + "=localhost:" + gogoPort);
+
+		return newLines;
+	}
+
+	/**
+	 * Moves the ports and redirect ports of a Tomcat server.xml by the offset.
+	 */
+	public static String shiftPorts(String serverXml, int portOffset) {
+		Matcher matcher = _portPattern.matcher(serverXml);
+
+		StringBuffer sb = new StringBuffer();
+
+		while (matcher.find()) {
+			int port = Integer.parseInt(matcher.group(2)) + portOffset;
+
+			matcher.appendReplacement(sb, matcher.group(1) + "=\"" + port + "\"");
+		}
+
+		matcher.appendTail(sb);
+
+		return sb.toString();
+	}
+
 	public LocalServer(BladeCLI bladeCLI) {
 		if (bladeCLI.isWorkspace()) {
 			Properties properties = getWorkspaceProperties(bladeCLI);
@@ -161,10 +239,94 @@ public class LocalServer {
 		}
 	}
 
+	/**
+	 * Runs the task for the first instances of this server at the same time.
+	 * The failure of every instance is reported, the first one is thrown once
+	 * all instances are done.
+	 */
+	public void forEachInstance(int instances, PrintStream error, InstanceTask instanceTask) throws Exception {
+		ExecutorService executorService = Executors.newFixedThreadPool(instances);
+
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+
+			for (int i = 1; i <= instances; i++) {
+				LocalServer instanceLocalServer = getInstance(i);
+
+				futures.add(
+					executorService.submit(
+						() -> {
+							instanceTask.run(
+								instanceLocalServer, "[instance " + instanceLocalServer.getInstanceNumber() + "] ");
+
+							return null;
+						}));
+			}
+
+			Exception exception = null;
+
+			for (Future<Void> future : futures) {
+				try {
+					future.get();
+				}
+				catch (ExecutionException ee) {
+					Throwable cause = ee.getCause();
+
+					error.println(cause.getMessage());
+
+					if (exception != null) {
+						continue;
+					}
+
+					if (cause instanceof Exception) {
+						exception = (Exception)cause;
+					}
+					else {
+						exception = ee;
+					}
+				}
+			}
+
+			if (exception != null) {
+				throw exception;
+			}
+		}
+		finally {
+			executorService.shutdown();
+		}
+	}
+
 	public Optional<Path> getAppServerPath() throws IOException {
 		return _appServerPath;
 	}
 
+	public int getGogoPort() {
+		return _GOGO_PORT + getPortOffset();
+	}
+
+	public int getHttpPort() {
+		return _HTTP_PORT + getPortOffset();
+	}
+
+	/**
+	 * Returns the server instance with the number. Instance 1 is this server,
+	 * every other instance has its own Liferay home next to the Liferay home
+	 * of this server and uses its ports shifted by a multiple of 100.
+	 */
+	public LocalServer getInstance(int instance) throws IOException {
+		if (instance == 1) {
+			return this;
+		}
+
+		Path liferayHomePath = _liferayHomePath.resolveSibling(_liferayHomePath.getFileName() + "-" + instance);
+
+		return new LocalServer(this, instance, liferayHomePath);
+	}
+
+	public int getInstanceNumber() {
+		return _instance;
+	}
+
 	public Path getLiferayHomePath() {
 		return _liferayHomePath;
 	}
@@ -181,10 +343,60 @@ public class LocalServer {
 		}
 	}
 
+	public int getPortOffset() {
+		return (_instance - 1) * _PORT_OFFSET;
+	}
+
 	public String getServerType() {
 		return _serverType;
 	}
 
+	/**
+	 * Creates or updates the Liferay home of the instance from the Liferay
+	 * home of the first instance, leaving out the state of the server like the
+	 * database, logs and the state of the OSGi framework, and moves the ports
+	 * of the instance by its offset.
+	 */
+	public void initInstance() throws IOException {
+		if (_instance == 1) {
+			return;
+		}
+
+		BundleStore.materialize(_mainLiferayHomePath, _liferayHomePath, LocalServer::isStateDir);
+
+		_appServerPath = ServerUtil.findAppServerPath(_liferayHomePath, _serverType);
+
+		if (_serverType.equals("tomcat") && _appServerPath.isPresent()) {
+			Path appServerPath = _appServerPath.get();
+
+			Path serverXmlPath = appServerPath.resolve("conf/server.xml");
+
+			if (Files.exists(serverXmlPath)) {
+				String serverXml = shiftPorts(FileUtil.read(serverXmlPath.toFile()), getPortOffset());
+
+				Files.write(serverXmlPath, serverXml.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		Path portalExtPath = _liferayHomePath.resolve("portal-ext.properties");
+
+		List<String> lines = new ArrayList<>();
+
+		if (Files.exists(portalExtPath)) {
+			lines = Files.readAllLines(portalExtPath, StandardCharsets.ISO_8859_1);
+		}
+
+		Files.write(portalExtPath, setOsgiConsole(lines, getGogoPort()), StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Returns <code>true</code> if the server can be asked to shut down
+	 * gracefully, which is only the case for Tomcat.
+	 */
+	public boolean isShutdownSupported() {
+		return _serverType.equals("tomcat");
+	}
+
 	public boolean isSupported() throws IOException {
 		Optional<Path> serverBinPath = getAppServerPath();
 
@@ -212,6 +424,59 @@ public class LocalServer {
 		return processBuilder;
 	}
 
+	/**
+	 * Asks Tomcat to shut down through its shutdown port and waits until the
+	 * shutdown and HTTP ports are closed. Returns <code>false</code> if the
+	 * server has no shutdown port or it didn't stop before the timeout.
+	 */
+	public boolean shutdown(long timeout, TimeUnit timeUnit) throws InterruptedException, IOException {
+		if (!isShutdownSupported() || !_appServerPath.isPresent()) {
+			return false;
+		}
+
+		Path appServerPath = _appServerPath.get();
+
+		Path serverXmlPath = appServerPath.resolve("conf/server.xml");
+
+		if (Files.notExists(serverXmlPath)) {
+			return false;
+		}
+
+		Matcher matcher = _serverPattern.matcher(FileUtil.read(serverXmlPath.toFile()));
+
+		if (!matcher.find()) {
+			return false;
+		}
+
+		int shutdownPort = Integer.parseInt(matcher.group(1));
+
+		if (shutdownPort < 0) {
+			return false;
+		}
+
+		try (Socket socket = new Socket("localhost", shutdownPort);
+			OutputStream outputStream = socket.getOutputStream()) {
+
+			outputStream.write(matcher.group(2).getBytes(StandardCharsets.ISO_8859_1));
+			outputStream.flush();
+		}
+		catch (IOException ioe) {
+			return !BladeUtil.canConnect("localhost", getHttpPort());
+		}
+
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+
+		while (BladeUtil.canConnect("localhost", shutdownPort) || BladeUtil.canConnect("localhost", getHttpPort())) {
+			if ((System.nanoTime() - deadline) > 0) {
+				return false;
+			}
+
+			Thread.sleep(500);
+		}
+
+		return true;
+	}
+
 	protected File getWorkspaceDir(BladeCLI bladeCLI) {
 		BaseArgs baseArgs = bladeCLI.getArgs();
 
@@ -233,6 +498,20 @@ public class LocalServer {
 		return workspaceProviderGradle.getGradleProperties(baseDir);
 	}
 
+	private LocalServer(LocalServer localServer, int instance, Path liferayHomePath) throws IOException {
+		_instance = instance;
+		_liferayHomePath = liferayHomePath;
+		_mainLiferayHomePath = localServer.getLiferayHomePath();
+		_serverType = localServer.getServerType();
+
+		if (Files.exists(liferayHomePath)) {
+			_appServerPath = ServerUtil.findAppServerPath(liferayHomePath, _serverType);
+		}
+		else {
+			_appServerPath = Optional.empty();
+		}
+	}
+
 	private static String _getJBossWildflyExecutable() {
 		String executable = "./standalone.sh";
 
@@ -301,8 +580,30 @@ public class LocalServer {
 		}
 	}
 
+	private static final int _GOGO_PORT = 11311;
+
+	private static final int _HTTP_PORT = 8080;
+
+	private static final String _OSGI_CONSOLE_PROPERTY = "module.framework.properties.osgi.console";
+
+	private static final int _PORT_OFFSET = 100;
+
+	private static final Collection<String> _appServerStateDirs = Arrays.asList("logs", "temp", "work");
+	private static final Pattern _portPattern = Pattern.compile("\\b(port|redirectPort)=\"(\\d+)\"");
+	private static final Pattern _serverPattern = Pattern.compile(
+		"<Server\\s+port=\"(-?\\d+)\"\\s+shutdown=\"([^\"]*)\"");
+	private static final Collection<String> _stateDirs = Arrays.asList("data", "logs", "osgi/state", "work");
+
 	private Optional<Path> _appServerPath;
+	private int _instance = 1;
 	private Path _liferayHomePath;
+	private Path _mainLiferayHomePath;
 	private String _serverType;
 
+	public interface InstanceTask {
+
+		public void run(LocalServer localServer, String prefix) throws Exception;
+
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the descriptors of Plugins SDK plugins for the convert commands. XML
+ * descriptors are streamed with a shared StAX factory and only the elements
+ * that are needed are looked at, so large generated files like service.xml
+ * are never loaded into memory. Every descriptor is read at most once per
+ * conversion run unless the file changes.
+ *
+ * @author agent
+ */
+public class PluginDescriptors {
+
+	public List<IvyDependency> getIvyDependencies(Path ivyXmlPath) throws IOException {
+		return _get(ivyXmlPath, this::_readIvyDependencies);
+	}
+
+	public Properties getProperties(Path propertiesPath) throws IOException {
+		return _get(propertiesPath, this::_readProperties);
+	}
+
+	/**
+	 * Returns the <code>package-path</code> of a service.xml. Only the root
+	 * element is read.
+	 */
+	public String getServiceBuilderPackagePath(Path serviceXmlPath) throws IOException {
+		return _get(serviceXmlPath, this::_readServiceBuilderPackagePath);
+	}
+
+	private static XMLInputFactory _createXMLInputFactory() {
+		XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+		xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+		return xmlInputFactory;
+	}
+
+	private <T> T _get(Path path, Reader<T> reader) throws IOException {
+		BasicFileAttributes basicFileAttributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+		Path absolutePath = path.toAbsolutePath();
+
+		String key = absolutePath + ":" + basicFileAttributes.size() + ":" + basicFileAttributes.lastModifiedTime();
+
+		try {
+			@SuppressWarnings("unchecked")
+			T value = (T)_descriptors.computeIfAbsent(
+				key,
+				k -> {
+					try {
+						return reader.read(absolutePath);
+					}
+					catch (IOException ioe) {
+						throw new UncheckedIOException(ioe);
+					}
+				});
+
+			return value;
+		}
+		catch (UncheckedIOException uioe) {
+			throw uioe.getCause();
+		}
+	}
+
+	private List<IvyDependency> _readIvyDependencies(Path ivyXmlPath) throws IOException {
+		List<IvyDependency> ivyDependencies = new ArrayList<>();
+
+		try (InputStream inputStream = Files.newInputStream(ivyXmlPath)) {
+			XMLStreamReader xmlStreamReader = _xmlInputFactory.createXMLStreamReader(inputStream);
+
+			try {
+				while (xmlStreamReader.hasNext()) {
+					if ((xmlStreamReader.next() == XMLStreamConstants.START_ELEMENT) &&
+						Objects.equals("dependency", xmlStreamReader.getLocalName())) {
+
+						ivyDependencies.add(
+							new IvyDependency(
+								xmlStreamReader.getAttributeValue(null, "org"),
+								xmlStreamReader.getAttributeValue(null, "name"),
+								xmlStreamReader.getAttributeValue(null, "rev")));
+					}
+				}
+			}
+			finally {
+				xmlStreamReader.close();
+			}
+		}
+		catch (XMLStreamException xmlse) {
+			throw new IOException("Unable to parse " + ivyXmlPath, xmlse);
+		}
+
+		return Collections.unmodifiableList(ivyDependencies);
+	}
+
+	private Properties _readProperties(Path propertiesPath) throws IOException {
+		Properties properties = new Properties();
+
+		try (InputStream inputStream = Files.newInputStream(propertiesPath)) {
+			properties.load(inputStream);
+		}
+
+		return properties;
+	}
+
+	private String _readServiceBuilderPackagePath(Path serviceXmlPath) throws IOException {
+		try (InputStream inputStream = Files.newInputStream(serviceXmlPath)) {
+			XMLStreamReader xmlStreamReader = _xmlInputFactory.createXMLStreamReader(inputStream);
+
+			try {
+				while (xmlStreamReader.hasNext()) {
+					if (xmlStreamReader.next() == XMLStreamConstants.START_ELEMENT) {
+						String packagePath = xmlStreamReader.getAttributeValue(null, "package-path");
+
+						if (packagePath == null) {
+							return "";
+						}
+
+						return packagePath;
+					}
+				}
+			}
+			finally {
+				xmlStreamReader.close();
+			}
+		}
+		catch (XMLStreamException xmlse) {
+			throw new IOException("Unable to parse " + serviceXmlPath, xmlse);
+		}
+
+		throw new IOException(serviceXmlPath + " has no root element");
+	}
+
+	private static final XMLInputFactory _xmlInputFactory = _createXMLInputFactory();
+
+	private final Map<String, Object> _descriptors = new ConcurrentHashMap<>();
+
+	public static class IvyDependency {
+
+		public IvyDependency(String org, String name, String rev) {
+			_org = org;
+			_name = name;
+			_rev = rev;
+		}
+
+		public String getName() {
+			return _name;
+		}
+
+		public String getOrg() {
+			return _org;
+		}
+
+		public String getRev() {
+			return _rev;
+		}
+
+		private final String _name;
+		private final String _org;
+		private final String _rev;
+
+	}
+
+	private interface Reader<T> {
+
+		public T read(Path path) throws IOException;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.util.BladeUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Copies changed static resources of a module, like JSPs, CSS and JavaScript,
+ * straight into the exploded copy of the module in the work directory of the
+ * Liferay home, which is where the server serves and compiles them from. This
+ * is what the deployFast task does, without starting Gradle or updating and
+ * refreshing the bundle.
+ *
+ * @author agent
+ */
+public class ResourceHotSwapper {
+
+	public ResourceHotSwapper(Path liferayHomePath) {
+		_workPath = liferayHomePath.resolve("work");
+	}
+
+	/**
+	 * Copies the resource of the project into the work directory and returns
+	 * the path it was copied to. Returns <code>null</code> if the resource has
+	 * to be built before it can be deployed, like Sass or JavaScript of npm
+	 * projects, or if the server didn't explode the module yet, so it has to be
+	 * deployed the regular way.
+	 */
+	public Path hotSwap(Path projectPath, Path resourcePath) throws IOException {
+		Path resourcesPath = projectPath.resolve(_RESOURCES_DIR);
+
+		if (!resourcePath.startsWith(resourcesPath) || !Files.isRegularFile(resourcePath) ||
+			!_isHotSwappable(projectPath, resourcePath)) {
+
+			return null;
+		}
+
+		Optional<Path> moduleWorkPath = _moduleWorkPaths.get(projectPath);
+
+		if ((moduleWorkPath == null) || !moduleWorkPath.map(Files::isDirectory).orElse(false)) {
+			moduleWorkPath = _findModuleWorkPath(projectPath);
+
+			_moduleWorkPaths.put(projectPath, moduleWorkPath);
+		}
+
+		if (!moduleWorkPath.isPresent()) {
+			return null;
+		}
+
+		Path relativePath = resourcesPath.relativize(resourcePath);
+
+		Path workPath = moduleWorkPath.get();
+
+		Path targetPath = workPath.resolve(relativePath.toString());
+
+		Files.createDirectories(targetPath.getParent());
+
+		Path tempPath = Files.createTempFile(targetPath.getParent(), ".blade", ".tmp");
+
+		try {
+			Files.copy(resourcePath, tempPath, StandardCopyOption.REPLACE_EXISTING);
+
+			Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(tempPath);
+		}
+
+		return targetPath;
+	}
+
+	private static String _getBundleSymbolicName(Path projectPath) {
+		File bndFile = new File(projectPath.toFile(), "bnd.bnd");
+
+		if (bndFile.exists()) {
+			Properties properties = BladeUtil.getProperties(bndFile);
+
+			String bundleSymbolicName = properties.getProperty("Bundle-SymbolicName");
+
+			if (bundleSymbolicName != null) {
+				int index = bundleSymbolicName.indexOf(';');
+
+				if (index != -1) {
+					bundleSymbolicName = bundleSymbolicName.substring(0, index);
+				}
+
+				return bundleSymbolicName.trim();
+			}
+		}
+
+		return String.valueOf(projectPath.getFileName());
+	}
+
+	private static boolean _isHotSwappable(Path projectPath, Path resourcePath) {
+		String fileName = String.valueOf(resourcePath.getFileName());
+
+		int index = fileName.lastIndexOf('.');
+
+		if (index == -1) {
+			return false;
+		}
+
+		String extension = fileName.substring(index + 1);
+
+		if (extension.equals("js") && Files.exists(projectPath.resolve("package.json"))) {
+			return false;
+		}
+
+		return _hotSwappableExtensions.contains(extension);
+	}
+
+	/**
+	 * Returns the directory the server exploded the module into, which is
+	 * named after the symbolic name and the version of the bundle. The most
+	 * recently modified one wins if several versions were deployed.
+	 */
+	private Optional<Path> _findModuleWorkPath(Path projectPath) throws IOException {
+		if (Files.notExists(_workPath)) {
+			return Optional.empty();
+		}
+
+		String prefix = _getBundleSymbolicName(projectPath) + "-";
+
+		try (Stream<Path> paths = Files.list(_workPath)) {
+			return paths.filter(
+				path -> {
+					String fileName = String.valueOf(path.getFileName());
+
+					return fileName.startsWith(prefix) && (fileName.length() > prefix.length()) &&
+						Character.isDigit(fileName.charAt(prefix.length())) && Files.isDirectory(path);
+				}
+			).max(
+				(path1, path2) -> {
+					File file1 = path1.toFile();
+					File file2 = path2.toFile();
+
+					return Long.compare(file1.lastModified(), file2.lastModified());
+				}
+			);
+		}
+	}
+
+	private static final String _RESOURCES_DIR = "src/main/resources/META-INF/resources";
+
+	private static final Collection<String> _hotSwappableExtensions = Arrays.asList(
+		"css", "gif", "html", "jpg", "js", "jsp", "jspf", "map", "png", "svg");
+
+	private final Map<Path, Optional<Path>> _moduleWorkPaths = new HashMap<>();
+	private final Path _workPath;
+
+}
\ No newline at end of file
@@ -19,7 +19,9 @@ package com.liferay.blade.cli.command;
 import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.BladeSettings;
 import com.liferay.blade.cli.WorkspaceProvider;
+import com.liferay.blade.cli.command.SamplesIndex.Sample;
 import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.CachedDownload;
 import com.liferay.blade.cli.util.FileUtil;
 
 import java.io.File;
@@ -29,15 +31,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Stream;
+import java.util.TreeMap;
 
 /**
  * @author David Truong
@@ -64,15 +60,19 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 
 		final String sampleName = samplesArgs.getSampleName();
 
-		if (_downloadBladeRepoIfNeeded(bladeRepoArchiveName, bladeRepoUrl)) {
-			_extractBladeRepo(bladeRepoArchiveName);
-		}
+		_downloadBladeRepoIfNeeded(bladeRepoArchiveName, bladeRepoUrl);
+
+		Path samplesCachePath = _getSamplesCachePath();
+
+		FileUtil.deleteDirIfExists(samplesCachePath.resolve(bladeRepoName));
+
+		SamplesIndex samplesIndex = SamplesIndex.load(samplesCachePath.resolve(bladeRepoArchiveName));
 
 		if (sampleName == null) {
-			_listSamples(bladeRepoName);
+			_listSamples(samplesIndex);
 		}
 		else {
-			_copySample(sampleName, bladeRepoName);
+			_copySample(sampleName, samplesIndex);
 		}
 	}
 
@@ -81,7 +81,7 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 		return SamplesArgs.class;
 	}
 
-	private void _copySample(String sampleName, String bladeRepoName) throws Exception {
+	private void _copySample(String sampleName, SamplesIndex samplesIndex) throws Exception {
 		SamplesArgs samplesArgs = getArgs();
 
 		File workDir = samplesArgs.getDir();
@@ -90,42 +90,28 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 			workDir = samplesArgs.getBase();
 		}
 
-		Path cachePath = _getSamplesCachePath();
-
-		File bladeRepo = new File(cachePath.toFile(), bladeRepoName);
-
 		String buildType = samplesArgs.getProfileName();
 
-		File samples = new File(bladeRepo, buildType);
+		Sample sample = samplesIndex.getSample(buildType, sampleName);
 
-		SamplesVisitor visitor = new SamplesVisitor();
+		if (sample == null) {
+			BladeCLI bladeCLI = getBladeCLI();
 
-		for (File file : samples.listFiles()) {
-			String fileName = file.getName();
+			bladeCLI.error("Unable to find the sample " + sampleName + " for " + buildType);
 
-			if (file.isDirectory() && _topLevelFolders.contains(fileName)) {
-				Files.walkFileTree(file.toPath(), visitor);
-			}
+			return;
 		}
 
-		for (Path path : visitor.getPaths()) {
-			File file = path.toFile();
-
-			String fileName = file.getName();
+		File dest = new File(workDir, sampleName);
 
-			if (Files.isDirectory(path) && fileName.equals(sampleName)) {
-				File dest = new File(workDir, fileName);
+		samplesIndex.extract(sample, dest.toPath());
 
-				FileUtil.copyDir(path, dest.toPath());
-
-				if (buildType.equals("gradle")) {
-					_updateBuildGradle(dest, bladeRepoName);
-				}
+		if (buildType.equals("gradle")) {
+			_updateBuildGradle(dest, samplesIndex);
+		}
 
-				if (!BladeUtil.hasGradleWrapper(dest)) {
-					BladeUtil.addGradleWrapper(dest);
-				}
-			}
+		if (!BladeUtil.hasGradleWrapper(dest)) {
+			BladeUtil.addGradleWrapper(dest);
 		}
 	}
 
@@ -133,42 +119,24 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 		return s.replaceAll("(?m)^\t", "");
 	}
 
-	private boolean _downloadBladeRepoIfNeeded(String bladeRepoArchiveName, String bladeRepoUrl) throws Exception {
+	/**
+	 * Makes sure the samples archive is in the cache. A cached archive is used
+	 * right away and revalidated in the background once it's older than a
+	 * week, so only an archive that changed on GitHub is downloaded again.
+	 */
+	private void _downloadBladeRepoIfNeeded(String bladeRepoArchiveName, String bladeRepoUrl) throws Exception {
 		Path cachePath = _getSamplesCachePath();
 
 		File bladeRepoArchive = new File(cachePath.toFile(), bladeRepoArchiveName);
 
-		if (bladeRepoArchive.exists()) {
-			Date now = new Date();
-
-			long diff = now.getTime() - bladeRepoArchive.lastModified();
-
-			boolean old = false;
-
-			if (diff > _FILE_EXPIRATION_TIME) {
-				old = true;
-			}
-
-			if (old || !BladeUtil.isZipValid(bladeRepoArchive)) {
-				bladeRepoArchive.delete();
-			}
-		}
-
-		if (!bladeRepoArchive.exists()) {
-			BladeUtil.downloadLink(bladeRepoUrl, bladeRepoArchive.toPath());
-
-			return true;
+		if (bladeRepoArchive.exists() && !BladeUtil.isZipValid(bladeRepoArchive)) {
+			bladeRepoArchive.delete();
 		}
 
-		return false;
-	}
-
-	private void _extractBladeRepo(String bladeRepoArchiveName) throws Exception {
-		Path samplesCachePath = _getSamplesCachePath();
-
-		File bladeRepoArchive = new File(samplesCachePath.toFile(), bladeRepoArchiveName);
+		CachedDownload cachedDownload = new CachedDownload(
+			bladeRepoUrl, bladeRepoArchive.toPath(), _FILE_EXPIRATION_TIME);
 
-		FileUtil.unzip(bladeRepoArchive, samplesCachePath.toFile(), null);
+		cachedDownload.get();
 	}
 
 	private String _getLiferayVersion(BladeCLI bladeCLI, SamplesArgs samplesArgs) throws IOException {
@@ -195,63 +163,35 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 		return samplesCachePath;
 	}
 
-	private void _listSamples(String bladeRepoName) throws IOException {
+	private void _listSamples(SamplesIndex samplesIndex) {
 		BladeCLI bladeCLI = getBladeCLI();
 		SamplesArgs samplesArgs = getArgs();
 
-		Path cachePath = _getSamplesCachePath();
-
-		File bladeRepo = new File(cachePath.toFile(), bladeRepoName);
-
-		String buildType = samplesArgs.getProfileName();
+		Map<String, List<Sample>> samplesMap = new TreeMap<>();
 
-		File samples = new File(bladeRepo, buildType);
+		for (Sample sample : samplesIndex.getSamples(samplesArgs.getProfileName())) {
+			List<Sample> samples = samplesMap.computeIfAbsent(sample.getCategory(), category -> new ArrayList<>());
 
-		Map<String, List<Path>> samplesMap = new HashMap<>();
-
-		for (File file : samples.listFiles()) {
-			String fileName = file.getName();
-
-			if (file.isDirectory() && _topLevelFolders.contains(fileName)) {
-				SamplesVisitor visitor = new SamplesVisitor();
+			samples.add(sample);
+		}
 
-				Files.walkFileTree(file.toPath(), visitor);
+		bladeCLI.out("Please provide the sample project name to create, e.g. \"blade samples jsp-portlet\"\n");
+		bladeCLI.out("Currently available categories and samples:");
 
-				List<Path> samplesList = samplesMap.get(fileName);
+		for (Map.Entry<String, List<Sample>> entry : samplesMap.entrySet()) {
+			bladeCLI.out("\t " + entry.getKey() + ":");
 
-				if (samplesList == null) {
-					samplesList = new ArrayList<>();
+			for (Sample sample : entry.getValue()) {
+				String description = sample.getDescription();
 
-					samplesMap.put(fileName, samplesList);
+				if (description.isEmpty()) {
+					bladeCLI.out("\t\t " + sample.getName());
 				}
-
-				for (Path path : visitor.getPaths()) {
-					samplesList.add(path.getFileName());
-				}
-
-				if (samplesMap.containsKey(fileName)) {
-					Collections.sort(samplesList);
+				else {
+					bladeCLI.out("\t\t " + sample.getName() + " - " + description);
 				}
 			}
 		}
-
-		bladeCLI.out("Please provide the sample project name to create, e.g. \"blade samples jsp-portlet\"\n");
-		bladeCLI.out("Currently available categories and samples:");
-
-		Set<String> keySet = samplesMap.keySet();
-
-		Stream<String> stream = keySet.stream();
-
-		stream.sorted(
-		).peek(
-			category -> bladeCLI.out("\t " + category + ":")
-		).map(
-			samplesMap::get
-		).flatMap(
-			category -> category.stream()
-		).forEach(
-			sample -> bladeCLI.out("\t\t " + sample)
-		);
 	}
 
 	private String _parseGradleScript(String script, String section, boolean contentsOnly) {
@@ -326,11 +266,7 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 		return _removeGradleSection(script.substring(0, begin) + script.substring(end, script.length()), section);
 	}
 
-	private void _updateBuildGradle(File dir, String bladeRepoName) throws Exception {
-		Path cachePath = _getSamplesCachePath();
-
-		File bladeRepo = new File(cachePath.toFile(), bladeRepoName);
-
+	private void _updateBuildGradle(File dir, SamplesIndex samplesIndex) throws Exception {
 		File sampleGradleFile = new File(dir, "build.gradle");
 
 		String script = BladeUtil.read(sampleGradleFile);
@@ -340,12 +276,11 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 		WorkspaceProvider workspaceProvider = bladeCLI.getWorkspaceProvider(dir);
 
 		if (workspaceProvider == null) {
-			File parentBuildGradleFile = new File(bladeRepo, "gradle/build.gradle");
+			String parentBuildGradle = samplesIndex.read("gradle/build.gradle");
 
-			String parentBuildScript = _parseGradleScript(BladeUtil.read(parentBuildGradleFile), "buildscript", false);
+			String parentBuildScript = _parseGradleScript(parentBuildGradle, "buildscript", false);
 
-			String parentSubprojectsScript = _parseGradleScript(
-				BladeUtil.read(parentBuildGradleFile), "subprojects", true);
+			String parentSubprojectsScript = _parseGradleScript(parentBuildGradle, "subprojects", true);
 
 			parentSubprojectsScript = _removeGradleSection(parentSubprojectsScript, "buildscript");
 
@@ -361,7 +296,4 @@ public class SamplesCommand extends BaseCommand<SamplesArgs> {
 
 	private static final File _USER_HOME_DIR = new File(System.getProperty("user.home"));
 
-	private static final Collection<String> _topLevelFolders = Arrays.asList(
-		"apps", "extensions", "overrides", "themes");
-
 }
\ No newline at end of file
@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.FileUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * An index of the samples in a liferay-blade-samples archive. The index is
+ * built from the zip entries once per downloaded archive and stored next to
+ * it, so samples can be listed without reading the archive and a single sample
+ * can be extracted without unpacking the rest.
+ *
+ * @author agent
+ */
+public class SamplesIndex {
+
+	public static SamplesIndex load(Path archivePath) throws IOException {
+		Path indexPath = archivePath.resolveSibling(archivePath.getFileName() + _INDEX_FILE_EXTENSION);
+
+		String fingerprint = _getFingerprint(archivePath);
+
+		Properties properties = new Properties();
+
+		if (Files.exists(indexPath)) {
+			try (InputStream inputStream = Files.newInputStream(indexPath)) {
+				properties.load(inputStream);
+			}
+
+			if (Objects.equals(fingerprint, properties.getProperty(_FINGERPRINT_KEY))) {
+				return new SamplesIndex(archivePath, properties);
+			}
+
+			properties.clear();
+		}
+
+		_index(archivePath, properties);
+
+		properties.setProperty(_FINGERPRINT_KEY, fingerprint);
+
+		Path tempPath = Files.createTempFile(
+			indexPath.getParent(), String.valueOf(indexPath.getFileName()), ".tmp");
+
+		try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+			properties.store(outputStream, null);
+		}
+
+		Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING);
+
+		return new SamplesIndex(archivePath, properties);
+	}
+
+	/**
+	 * Extracts the entries of the sample into the destination directory.
+	 */
+	public void extract(Sample sample, Path destinationPath) throws IOException {
+		String prefix = sample.getPath() + "/";
+
+		try (ZipFile zipFile = new ZipFile(_archivePath.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+			while (entries.hasMoreElements()) {
+				ZipEntry zipEntry = entries.nextElement();
+
+				String entryName = zipEntry.getName();
+
+				if (zipEntry.isDirectory() || !entryName.startsWith(prefix)) {
+					continue;
+				}
+
+				Path path = destinationPath.resolve(entryName.substring(prefix.length()));
+
+				if (!BladeUtil.isSafelyRelative(path.toFile(), destinationPath.toFile())) {
+					throw new ZipException(
+						"Entry " + entryName + " is outside of the target destination: " + destinationPath);
+				}
+
+				Files.createDirectories(path.getParent());
+
+				try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+					Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		}
+	}
+
+	public Sample getSample(String buildType, String name) {
+		for (Sample sample : getSamples(buildType)) {
+			if (name.equals(sample.getName())) {
+				return sample;
+			}
+		}
+
+		return null;
+	}
+
+	public List<Sample> getSamples(String buildType) {
+		List<Sample> samples = _samples.get(buildType);
+
+		if (samples == null) {
+			return Collections.emptyList();
+		}
+
+		return Collections.unmodifiableList(samples);
+	}
+
+	/**
+	 * Returns the content of a file of the archive, the path is relative to the
+	 * root folder of the archive.
+	 */
+	public String read(String path) throws IOException {
+		try (ZipFile zipFile = new ZipFile(_archivePath.toFile())) {
+			ZipEntry zipEntry = zipFile.getEntry(_rootPath + path);
+
+			if (zipEntry == null) {
+				throw new IOException("Unable to find " + path + " in " + _archivePath);
+			}
+
+			try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+				return FileUtil.collect(inputStream);
+			}
+		}
+	}
+
+	private SamplesIndex(Path archivePath, Properties properties) {
+		_archivePath = archivePath;
+
+		_rootPath = properties.getProperty(_ROOT_PATH_KEY, "");
+
+		for (String key : properties.stringPropertyNames()) {
+			if (!key.endsWith(_PATH_SUFFIX)) {
+				continue;
+			}
+
+			String sampleKey = key.substring(0, key.length() - _PATH_SUFFIX.length());
+
+			int index = sampleKey.indexOf('/');
+
+			String buildType = sampleKey.substring(0, index);
+
+			List<Sample> samples = _samples.computeIfAbsent(buildType, k -> new ArrayList<>());
+
+			samples.add(
+				new Sample(
+					sampleKey.substring(index + 1), buildType,
+					properties.getProperty(sampleKey + _CATEGORY_SUFFIX),
+					properties.getProperty(key), properties.getProperty(sampleKey + _DESCRIPTION_SUFFIX, "")));
+		}
+
+		for (List<Sample> samples : _samples.values()) {
+			samples.sort(Comparator.comparing(Sample::getName));
+		}
+	}
+
+	private static String _getFingerprint(Path archivePath) throws IOException {
+		BasicFileAttributes basicFileAttributes = Files.readAttributes(archivePath, BasicFileAttributes.class);
+
+		return basicFileAttributes.size() + ":" + basicFileAttributes.lastModifiedTime();
+	}
+
+	private static void _index(Path archivePath, Properties properties) throws IOException {
+		try (ZipFile zipFile = new ZipFile(archivePath.toFile())) {
+			Set<String> samplePaths = new TreeSet<>();
+
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+			while (entries.hasMoreElements()) {
+				ZipEntry zipEntry = entries.nextElement();
+
+				String[] segments = _split(zipEntry.getName());
+
+				if (!properties.containsKey(_ROOT_PATH_KEY)) {
+					properties.setProperty(_ROOT_PATH_KEY, segments[0] + "/");
+				}
+
+				if (segments.length < 4) {
+					continue;
+				}
+
+				if (!_topLevelFolders.contains(segments[2])) {
+					continue;
+				}
+
+				for (int i = 3; i < segments.length; i++) {
+					if (segments[i].equals("src")) {
+						samplePaths.add(String.join("/", Arrays.copyOfRange(segments, 0, i)));
+
+						break;
+					}
+				}
+			}
+
+			for (String samplePath : samplePaths) {
+				String[] segments = _split(samplePath);
+
+				if (_isNested(samplePaths, segments)) {
+					continue;
+				}
+
+				String key = segments[1] + "/" + segments[segments.length - 1];
+
+				if (properties.containsKey(key + _PATH_SUFFIX)) {
+					continue;
+				}
+
+				properties.setProperty(key + _CATEGORY_SUFFIX, segments[2]);
+				properties.setProperty(key + _DESCRIPTION_SUFFIX, _readDescription(zipFile, samplePath));
+				properties.setProperty(key + _PATH_SUFFIX, samplePath);
+			}
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if a parent folder of the sample is a sample
+	 * itself, these are skipped like the samples visitor did.
+	 */
+	private static boolean _isNested(Set<String> samplePaths, String[] segments) {
+		for (int i = 3; i < segments.length; i++) {
+			if (samplePaths.contains(String.join("/", Arrays.copyOfRange(segments, 0, i)))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the first sentence of the README of the sample.
+	 */
+	private static String _readDescription(ZipFile zipFile, String samplePath) throws IOException {
+		for (String readmeFileName : _README_FILE_NAMES) {
+			ZipEntry zipEntry = zipFile.getEntry(samplePath + "/" + readmeFileName);
+
+			if (zipEntry == null) {
+				continue;
+			}
+
+			try (InputStream inputStream = zipFile.getInputStream(zipEntry);
+				BufferedReader bufferedReader = new BufferedReader(
+					new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+
+				String line = null;
+
+				while ((line = bufferedReader.readLine()) != null) {
+					line = line.trim();
+
+					if (line.isEmpty() || !Character.isLetter(line.charAt(0))) {
+						continue;
+					}
+
+					int index = line.indexOf(". ");
+
+					if (index > 0) {
+						return line.substring(0, index + 1);
+					}
+
+					return line;
+				}
+			}
+		}
+
+		return "";
+	}
+
+	private static String[] _split(String entryName) {
+		if (entryName.endsWith("/")) {
+			entryName = entryName.substring(0, entryName.length() - 1);
+		}
+
+		return entryName.split("/");
+	}
+
+	private static final String _CATEGORY_SUFFIX = ".category";
+
+	private static final String _DESCRIPTION_SUFFIX = ".description";
+
+	private static final String _FINGERPRINT_KEY = "archive.fingerprint";
+
+	private static final String _INDEX_FILE_EXTENSION = ".index";
+
+	private static final String _PATH_SUFFIX = ".path";
+
+	private static final String[] _README_FILE_NAMES = {"README.markdown", "README.md"};
+
+	private static final String _ROOT_PATH_KEY = "archive.root";
+
+	private static final Collection<String> _topLevelFolders = Arrays.asList(
+		"apps", "extensions", "overrides", "themes");
+
+	private final Path _archivePath;
+	private final String _rootPath;
+	private final Map<String, List<Sample>> _samples = new TreeMap<>();
+
+	public static class Sample {
+
+		public Sample(String name, String buildType, String category, String path, String description) {
+			_name = name;
+			_buildType = buildType;
+			_category = category;
+			_path = path;
+			_description = description;
+		}
+
+		public String getBuildType() {
+			return _buildType;
+		}
+
+		public String getCategory() {
+			return _category;
+		}
+
+		public String getDescription() {
+			return _description;
+		}
+
+		public String getName() {
+			return _name;
+		}
+
+		/**
+		 * Returns the path of the sample folder inside the archive.
+		 */
+		public String getPath() {
+			return _path;
+		}
+
+		private final String _buildType;
+		private final String _category;
+		private final String _description;
+		private final String _name;
+		private final String _path;
+
+	}
+
+}
\ No newline at end of file
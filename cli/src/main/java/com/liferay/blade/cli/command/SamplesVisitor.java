@@ -1,55 +0,0 @@
-/**
- * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-
-package com.liferay.blade.cli.command;
-
-import java.io.IOException;
-
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-
-/**
- * @author Christopher Bryan Boyd
- */
-public class SamplesVisitor extends SimpleFileVisitor<Path> {
-
-	public Collection<Path> getPaths() {
-		return Collections.unmodifiableCollection(_paths);
-	}
-
-	@Override
-	public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-		super.preVisitDirectory(dir, attrs);
-
-		if (Files.exists(dir.resolve("src"))) {
-			_paths.add(dir);
-
-			return FileVisitResult.SKIP_SUBTREE;
-		}
-
-		return FileVisitResult.CONTINUE;
-	}
-
-	private final Collection<Path> _paths = new HashSet<>();
-
-}
\ No newline at end of file
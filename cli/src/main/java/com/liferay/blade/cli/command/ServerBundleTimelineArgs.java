@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+import java.io.File;
+
+/**
+ * @author agent
+ */
+@Parameters(
+	commandDescription = "Record the bundle state transitions of the server while it starts or bundles are deployed",
+	commandNames = "server bundle-timeline"
+)
+public class ServerBundleTimelineArgs extends BaseArgs {
+
+	@Override
+	public CommandType getCommandType() {
+		return CommandType.WORKSPACE_ONLY;
+	}
+
+	public int getDuration() {
+		return _duration;
+	}
+
+	public int getInterval() {
+		return _interval;
+	}
+
+	public File getOutputDir() {
+		return _outputDir;
+	}
+
+	public int getSettle() {
+		return _settle;
+	}
+
+	public int getTop() {
+		return _top;
+	}
+
+	@Parameter(
+		description = "The maximum number of seconds to record, including the time waiting for the server",
+		names = {"-d", "--duration"}
+	)
+	private int _duration = 600;
+
+	@Parameter(
+		description = "The number of milliseconds between two samples of the bundle states", names = {"-i", "--interval"}
+	)
+	private int _interval = 100;
+
+	@Parameter(
+		description = "The directory to write the timeline to, defaults to the profiles directory of the Liferay home",
+		names = {"-o", "--output"}
+	)
+	private File _outputDir;
+
+	@Parameter(
+		description = "Stop recording once no bundle changed its state for this number of seconds", names = "--settle"
+	)
+	private int _settle = 15;
+
+	@Parameter(description = "The number of slowest activations to report", names = "--top")
+	private int _top = 20;
+
+}
\ No newline at end of file
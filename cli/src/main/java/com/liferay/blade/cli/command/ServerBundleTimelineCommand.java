@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.jmx.JMXBundleDeployer;
+import com.liferay.blade.cli.util.BladeUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.text.SimpleDateFormat;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.framework.dto.BundleDTO;
+
+/**
+ * Samples the bundle states of the server through the osgi.core MBeans while
+ * it starts or bundles are deployed to it, then reports the slowest
+ * activations and the bundles that never became active, and writes every
+ * state transition to a timeline file. The server doesn't have to be running
+ * yet, the command waits for its framework to show up.
+ *
+ * @author agent
+ */
+public class ServerBundleTimelineCommand extends BaseCommand<ServerBundleTimelineArgs> {
+
+	public ServerBundleTimelineCommand() {
+	}
+
+	@Override
+	public void execute() throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		LocalServer localServer = newLocalServer(bladeCLI);
+
+		Path liferayHomePath = localServer.getLiferayHomePath();
+
+		if (Files.notExists(liferayHomePath) || BladeUtil.isDirEmpty(liferayHomePath)) {
+			bladeCLI.error("Liferay home directory does not exist. Execute 'blade server init' to create it.");
+
+			return;
+		}
+
+		ServerBundleTimelineArgs serverBundleTimelineArgs = getArgs();
+
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(serverBundleTimelineArgs.getDuration());
+
+		JMXBundleDeployer jmxBundleDeployer = _connect(deadline);
+
+		if (jmxBundleDeployer == null) {
+			bladeCLI.error("Unable to connect to the OSGi framework of a running Liferay server.");
+
+			return;
+		}
+
+		try {
+			BundleStateTimeline bundleStateTimeline = _record(jmxBundleDeployer, deadline);
+
+			Set<Long> fragmentIds = Collections.emptySet();
+
+			try {
+				fragmentIds = jmxBundleDeployer.listFragmentIds();
+			}
+			catch (Exception e) {
+				bladeCLI.trace("Unable to list fragments: " + e.getMessage());
+			}
+
+			Path timelinePath = _writeTimeline(bundleStateTimeline, liferayHomePath);
+
+			if (!serverBundleTimelineArgs.isQuiet()) {
+				_printReport(bundleStateTimeline, fragmentIds);
+
+				bladeCLI.out("Timeline written to " + timelinePath);
+			}
+		}
+		finally {
+			jmxBundleDeployer.close();
+		}
+	}
+
+	@Override
+	public Class<ServerBundleTimelineArgs> getArgsClass() {
+		return ServerBundleTimelineArgs.class;
+	}
+
+	protected JMXBundleDeployer newJMXBundleDeployer(BladeCLI bladeCLI) throws Exception {
+		return new JMXBundleDeployer(trace -> bladeCLI.trace(trace));
+	}
+
+	protected LocalServer newLocalServer(BladeCLI bladeCLI) {
+		return new LocalServer(bladeCLI);
+	}
+
+	/**
+	 * Connects to the framework, trying again every second until the deadline
+	 * while the server is still starting.
+	 */
+	private JMXBundleDeployer _connect(long deadline) throws InterruptedException {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ServerBundleTimelineArgs serverBundleTimelineArgs = getArgs();
+
+		boolean waiting = false;
+
+		while (true) {
+			try {
+				return newJMXBundleDeployer(bladeCLI);
+			}
+			catch (Exception e) {
+				bladeCLI.trace("Unable to connect to the framework: " + e.getMessage());
+			}
+
+			if (System.currentTimeMillis() > deadline) {
+				return null;
+			}
+
+			if (!waiting && !serverBundleTimelineArgs.isQuiet()) {
+				bladeCLI.out("Waiting for the OSGi framework of the server...");
+
+				waiting = true;
+			}
+
+			Thread.sleep(_CONNECT_INTERVAL);
+		}
+	}
+
+	private void _printReport(BundleStateTimeline bundleStateTimeline, Set<Long> fragmentIds) {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ServerBundleTimelineArgs serverBundleTimelineArgs = getArgs();
+
+		List<BundleStateTimeline.Transition> transitions = bundleStateTimeline.getTransitions();
+
+		bladeCLI.out(
+			transitions.size() + " bundle state transitions in " + bundleStateTimeline.getLastChangeTime() + " ms");
+
+		List<BundleStateTimeline.Transition> activations = bundleStateTimeline.getActivations();
+
+		if (!activations.isEmpty()) {
+			int top = Math.min(activations.size(), serverBundleTimelineArgs.getTop());
+
+			bladeCLI.out("Slowest activations:");
+
+			for (BundleStateTimeline.Transition activation : activations.subList(0, top)) {
+				bladeCLI.out(
+					String.format(
+						"%8d ms  %s (active at %d ms)", activation.getDuration(), activation.getSymbolicName(),
+						activation.getTime()));
+			}
+		}
+
+		Map<String, String> inactiveBundles = bundleStateTimeline.getInactiveBundles(fragmentIds);
+
+		if (!inactiveBundles.isEmpty()) {
+			bladeCLI.out("Bundles that never became active:");
+
+			inactiveBundles.forEach((symbolicName, state) -> bladeCLI.out("\t" + symbolicName + " " + state));
+		}
+	}
+
+	/**
+	 * Samples the bundle states until the framework settled, the deadline
+	 * passed or the server went away.
+	 */
+	private BundleStateTimeline _record(JMXBundleDeployer jmxBundleDeployer, long deadline)
+		throws InterruptedException {
+
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ServerBundleTimelineArgs serverBundleTimelineArgs = getArgs();
+
+		long interval = Math.max(serverBundleTimelineArgs.getInterval(), 10);
+
+		long settle = TimeUnit.SECONDS.toMillis(serverBundleTimelineArgs.getSettle());
+
+		long start = System.currentTimeMillis();
+
+		BundleStateTimeline bundleStateTimeline = new BundleStateTimeline(start);
+
+		if (!serverBundleTimelineArgs.isQuiet()) {
+			bladeCLI.out("Recording bundle states...");
+		}
+
+		for (long next = start;; next += interval) {
+			long sleep = next - System.currentTimeMillis();
+
+			if (sleep > 0) {
+				Thread.sleep(sleep);
+			}
+
+			BundleDTO[] bundleDTOs = null;
+
+			try {
+				bundleDTOs = jmxBundleDeployer.listBundles();
+			}
+			catch (Exception e) {
+				bladeCLI.trace("Unable to list bundles: " + e.getMessage());
+
+				break;
+			}
+
+			long now = System.currentTimeMillis();
+
+			bundleStateTimeline.record(now, bundleDTOs);
+
+			if (((now - start - bundleStateTimeline.getLastChangeTime()) >= settle) || (now > deadline)) {
+				break;
+			}
+		}
+
+		return bundleStateTimeline;
+	}
+
+	private Path _writeTimeline(BundleStateTimeline bundleStateTimeline, Path liferayHomePath) throws IOException {
+		ServerBundleTimelineArgs serverBundleTimelineArgs = getArgs();
+
+		File outputDir = serverBundleTimelineArgs.getOutputDir();
+
+		Path outputPath = liferayHomePath.resolve("profiles");
+
+		if (outputDir != null) {
+			outputPath = outputDir.toPath();
+		}
+
+		Files.createDirectories(outputPath);
+
+		SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyyMMdd-HHmmss");
+
+		Path timelinePath = outputPath.resolve("bundle-timeline-" + simpleDateFormat.format(new Date()) + ".csv");
+
+		try (PrintWriter printWriter = new PrintWriter(Files.newBufferedWriter(timelinePath, StandardCharsets.UTF_8))) {
+			printWriter.println("time_ms,symbolic_name,from_state,to_state,duration_ms");
+
+			for (BundleStateTimeline.Transition transition : bundleStateTimeline.getTransitions()) {
+				printWriter.println(transition);
+			}
+		}
+
+		return timelinePath;
+	}
+
+	private static final long _CONNECT_INTERVAL = 1000;
+
+}
\ No newline at end of file
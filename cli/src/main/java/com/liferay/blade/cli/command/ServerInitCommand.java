@@ -17,11 +17,23 @@
 package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.WorkspaceConstants;
 import com.liferay.blade.cli.WorkspaceProvider;
 import com.liferay.blade.cli.gradle.GradleExec;
+import com.liferay.blade.cli.gradle.GradleWorkspaceProvider;
+import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.BundleStore;
+import com.liferay.blade.cli.util.ProductInfo;
 
 import java.io.File;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.Map;
+import java.util.Properties;
+
 /**
  * @author Christopher Bryan Boyd
  * @author Gregory Amerson
@@ -41,6 +53,32 @@ public class ServerInitCommand extends BaseCommand<ServerInitArgs> {
 
 		WorkspaceProvider workspaceProvider = bladeCLI.getWorkspaceProvider(baseDir);
 
+		if (workspaceProvider instanceof GradleWorkspaceProvider) {
+			GradleWorkspaceProvider gradleWorkspaceProvider = (GradleWorkspaceProvider)workspaceProvider;
+
+			Properties properties = gradleWorkspaceProvider.getGradleProperties(baseDir);
+
+			String bundleUrl = _getBundleUrl(properties);
+
+			// token downloads of DXP bundles need the credentials the Gradle
+			// plugin handles, so those are left to the initBundle task
+
+			boolean tokenDownload = Boolean.parseBoolean(properties.getProperty(_BUNDLE_TOKEN_DOWNLOAD_PROPERTY));
+
+			if ((bundleUrl != null) && !tokenDownload) {
+				try {
+					_initBundle(gradleWorkspaceProvider.getWorkspaceDir(baseDir), properties, bundleUrl);
+
+					return;
+				}
+				catch (Exception e) {
+					bladeCLI.error(
+						"Unable to initialize the bundle from " + bundleUrl +
+							", falling back to the initBundle task: " + e.getMessage());
+				}
+			}
+		}
+
 		if (workspaceProvider != null) {
 			GradleExec gradleExec = new GradleExec(bladeCLI);
 
@@ -66,4 +104,94 @@ public class ServerInitCommand extends BaseCommand<ServerInitArgs> {
 		return ServerInitArgs.class;
 	}
 
+	@SuppressWarnings("unchecked")
+	private String _getBundleUrl(Properties properties) {
+		String bundleUrl = properties.getProperty(WorkspaceConstants.BUNDLE_URL);
+
+		if (!BladeUtil.isEmpty(bundleUrl)) {
+			return bundleUrl;
+		}
+
+		String product = properties.getProperty(WorkspaceConstants.DEFAULT_WORKSPACE_PRODUCT_PROPERTY);
+
+		if (BladeUtil.isEmpty(product)) {
+			return null;
+		}
+
+		Map<String, Object> productInfos = BladeUtil.getProductInfos();
+
+		Object productInfoObject = productInfos.get(product);
+
+		if (productInfoObject == null) {
+			return null;
+		}
+
+		ProductInfo productInfo = new ProductInfo((Map<String, String>)productInfoObject);
+
+		return productInfo.getBundleUrl();
+	}
+
+	/**
+	 * Materializes the Liferay home from the pristine bundle in the blade cache
+	 * and overlays the configs of the environment, like the initBundle task
+	 * does but without extracting the bundle again.
+	 */
+	private void _initBundle(File workspaceDir, Properties properties, String bundleUrl) throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ServerInitArgs serverInitArgs = getArgs();
+
+		Path workspacePath = workspaceDir.toPath();
+
+		String bundleCacheDir = properties.getProperty(
+			_BUNDLE_CACHE_DIR_PROPERTY, System.getProperty("user.home") + "/.liferay/bundles");
+
+		Path archivePath = Paths.get(bundleCacheDir, bundleUrl.substring(bundleUrl.lastIndexOf('/') + 1));
+
+		if (Files.notExists(archivePath)) {
+			Files.createDirectories(archivePath.getParent());
+
+			BladeUtil.downloadLink(bundleUrl, archivePath);
+		}
+
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+		BundleStore bundleStore = new BundleStore(bladeCachePath.resolve("bundles"));
+
+		Path bundlePath = bundleStore.getBundle(archivePath);
+
+		Path homePath = workspacePath.resolve(
+			properties.getProperty(
+				WorkspaceConstants.DEFAULT_LIFERAY_HOME_DIR_PROPERTY, WorkspaceConstants.DEFAULT_LIFERAY_HOME_DIR));
+
+		int count = bundleStore.materialize(bundlePath, homePath);
+
+		String environment = serverInitArgs.getEnvironment();
+
+		if (BladeUtil.isEmpty(environment)) {
+			environment = properties.getProperty(_ENVIRONMENT_PROPERTY, _DEFAULT_ENVIRONMENT);
+		}
+
+		Path configsPath = workspacePath.resolve(_CONFIGS_DIR);
+
+		count += BundleStore.overlay(configsPath.resolve("common"), homePath);
+		count += BundleStore.overlay(configsPath.resolve(environment), homePath);
+
+		if (!serverInitArgs.isQuiet()) {
+			bladeCLI.out(
+				"Initialized " + homePath + " from " + archivePath.getFileName() + " with the " + environment +
+					" environment, " + count + " files were updated");
+		}
+	}
+
+	private static final String _BUNDLE_CACHE_DIR_PROPERTY = "liferay.workspace.bundle.cache.dir";
+
+	private static final String _BUNDLE_TOKEN_DOWNLOAD_PROPERTY = "liferay.workspace.bundle.token.download";
+
+	private static final String _CONFIGS_DIR = "configs";
+
+	private static final String _DEFAULT_ENVIRONMENT = "local";
+
+	private static final String _ENVIRONMENT_PROPERTY = "liferay.workspace.environment";
+
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+import java.io.File;
+
+/**
+ * @author agent
+ */
+@Parameters(
+	commandDescription = "Profile the running server defined by your Liferay project", commandNames = "server profile"
+)
+public class ServerProfileArgs extends BaseArgs {
+
+	@Override
+	public CommandType getCommandType() {
+		return CommandType.WORKSPACE_ONLY;
+	}
+
+	public int getDuration() {
+		return _duration;
+	}
+
+	public int getInterval() {
+		return _interval;
+	}
+
+	public String getJfrSettings() {
+		return _jfrSettings;
+	}
+
+	public File getOutputDir() {
+		return _outputDir;
+	}
+
+	public boolean isJfr() {
+		return _jfr;
+	}
+
+	@Parameter(description = "The number of seconds to profile the server", names = {"-d", "--duration"})
+	private int _duration = 30;
+
+	@Parameter(description = "The number of seconds between two samples of the MBeans", names = {"-i", "--interval"})
+	private int _interval = 1;
+
+	@Parameter(
+		description = "Record the server with Java Flight Recorder and write the recording next to the report",
+		names = "--jfr"
+	)
+	private boolean _jfr;
+
+	@Parameter(description = "The Java Flight Recorder settings to record with", names = "--jfr-settings")
+	private String _jfrSettings = "profile";
+
+	@Parameter(
+		description = "The directory to write the report to, defaults to the profiles directory of the Liferay home",
+		names = {"-o", "--output"}
+	)
+	private File _outputDir;
+
+}
\ No newline at end of file
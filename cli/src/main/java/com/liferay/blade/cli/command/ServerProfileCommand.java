@@ -0,0 +1,293 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.BladeCLI;
+import com.liferay.blade.cli.jmx.JMXRuntimeProfiler;
+import com.liferay.blade.cli.util.BladeUtil;
+
+import java.io.File;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.text.SimpleDateFormat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attaches to the running Liferay JVM over JMX, samples its MBeans for a
+ * while and optionally records it with Java Flight Recorder, then writes a
+ * summary of the samples next to the recording.
+ *
+ * @author agent
+ */
+public class ServerProfileCommand extends BaseCommand<ServerProfileArgs> {
+
+	public ServerProfileCommand() {
+	}
+
+	@Override
+	public void execute() throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		LocalServer localServer = newLocalServer(bladeCLI);
+
+		Path liferayHomePath = localServer.getLiferayHomePath();
+
+		if (Files.notExists(liferayHomePath) || BladeUtil.isDirEmpty(liferayHomePath)) {
+			bladeCLI.error("Liferay home directory does not exist. Execute 'blade server init' to create it.");
+
+			return;
+		}
+
+		ServerProfileArgs serverProfileArgs = getArgs();
+
+		JMXRuntimeProfiler jmxRuntimeProfiler = null;
+
+		try {
+			jmxRuntimeProfiler = newJMXRuntimeProfiler(bladeCLI);
+		}
+		catch (Exception e) {
+			bladeCLI.error("Unable to connect to a running Liferay server. Execute 'blade server start' to start it.");
+
+			return;
+		}
+
+		File outputDir = serverProfileArgs.getOutputDir();
+
+		Path outputPath = liferayHomePath.resolve("profiles");
+
+		if (outputDir != null) {
+			outputPath = outputDir.toPath();
+		}
+
+		Files.createDirectories(outputPath);
+
+		SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyyMMdd-HHmmss");
+
+		String name = "profile-" + simpleDateFormat.format(new Date());
+
+		Path jfrPath = outputPath.resolve(name + ".jfr");
+
+		boolean recording = false;
+
+		try {
+			if (serverProfileArgs.isJfr()) {
+				if (jmxRuntimeProfiler.isRecordingSupported()) {
+					jmxRuntimeProfiler.startRecording(name, serverProfileArgs.getJfrSettings());
+
+					recording = true;
+				}
+				else {
+					bladeCLI.error("The server JVM does not support Java Flight Recorder, only sampling MBeans.");
+				}
+			}
+
+			if (!serverProfileArgs.isQuiet()) {
+				bladeCLI.out("Profiling the server for " + serverProfileArgs.getDuration() + " seconds...");
+			}
+
+			List<JMXRuntimeProfiler.Sample> samples = _sample(jmxRuntimeProfiler);
+
+			if (recording) {
+				recording = false;
+
+				jmxRuntimeProfiler.stopRecording(name, jfrPath);
+			}
+
+			Path reportPath = outputPath.resolve(name + ".txt");
+
+			String report = _getReport(samples);
+
+			Files.write(reportPath, report.getBytes(StandardCharsets.UTF_8));
+
+			if (!serverProfileArgs.isQuiet()) {
+				bladeCLI.out(report);
+				bladeCLI.out("Report written to " + reportPath);
+
+				if (Files.exists(jfrPath)) {
+					bladeCLI.out("Recording written to " + jfrPath);
+				}
+			}
+		}
+		finally {
+			try {
+				if (recording) {
+					jmxRuntimeProfiler.stopRecording(name, jfrPath);
+				}
+			}
+			finally {
+				jmxRuntimeProfiler.close();
+			}
+		}
+	}
+
+	@Override
+	public Class<ServerProfileArgs> getArgsClass() {
+		return ServerProfileArgs.class;
+	}
+
+	protected JMXRuntimeProfiler newJMXRuntimeProfiler(BladeCLI bladeCLI) throws Exception {
+		return new JMXRuntimeProfiler(trace -> bladeCLI.trace(trace));
+	}
+
+	protected LocalServer newLocalServer(BladeCLI bladeCLI) {
+		return new LocalServer(bladeCLI);
+	}
+
+	private static String _toMegabytes(long bytes) {
+		return String.valueOf(bytes / (1024 * 1024)) + " MB";
+	}
+
+	private String _getReport(List<JMXRuntimeProfiler.Sample> samples) {
+		JMXRuntimeProfiler.Sample first = samples.get(0);
+		JMXRuntimeProfiler.Sample last = samples.get(samples.size() - 1);
+
+		long elapsed = Math.max(last.getTime() - first.getTime(), 1);
+
+		long heapUsedMax = 0;
+		long heapUsedMin = Long.MAX_VALUE;
+		long heapUsedTotal = 0;
+		int threadCountMax = 0;
+		Map<String, Integer> threadPoolsBusyMax = new TreeMap<>();
+
+		for (JMXRuntimeProfiler.Sample sample : samples) {
+			heapUsedMax = Math.max(heapUsedMax, sample.getHeapUsed());
+			heapUsedMin = Math.min(heapUsedMin, sample.getHeapUsed());
+			heapUsedTotal += sample.getHeapUsed();
+			threadCountMax = Math.max(threadCountMax, sample.getThreadCount());
+
+			Map<String, Integer> threadPoolsBusy = sample.getThreadPoolsBusy();
+
+			threadPoolsBusy.forEach((threadPool, busy) -> threadPoolsBusyMax.merge(threadPool, busy, Math::max));
+		}
+
+		SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("Profile of the Liferay server from ");
+		sb.append(simpleDateFormat.format(new Date(first.getTime())));
+		sb.append(System.lineSeparator());
+		sb.append(samples.size());
+		sb.append(" samples over ");
+		sb.append(TimeUnit.MILLISECONDS.toSeconds(elapsed));
+		sb.append(" seconds");
+		sb.append(System.lineSeparator());
+		sb.append(System.lineSeparator());
+
+		sb.append("Heap used: min ");
+		sb.append(_toMegabytes(heapUsedMin));
+		sb.append(", avg ");
+		sb.append(_toMegabytes(heapUsedTotal / samples.size()));
+		sb.append(", max ");
+		sb.append(_toMegabytes(heapUsedMax));
+		sb.append(" (committed ");
+		sb.append(_toMegabytes(last.getHeapCommitted()));
+
+		if (last.getHeapMax() > 0) {
+			sb.append(", limit ");
+			sb.append(_toMegabytes(last.getHeapMax()));
+		}
+
+		sb.append(")");
+		sb.append(System.lineSeparator());
+
+		long gcTime = last.getGcTime() - first.getGcTime();
+
+		sb.append("Garbage collection: ");
+		sb.append(last.getGcCount() - first.getGcCount());
+		sb.append(" collections taking ");
+		sb.append(gcTime);
+		sb.append(" ms (");
+		sb.append(String.format("%.1f", gcTime * 100.0 / elapsed));
+		sb.append("% of the time)");
+		sb.append(System.lineSeparator());
+		sb.append("Threads: max ");
+		sb.append(threadCountMax);
+		sb.append(System.lineSeparator());
+
+		threadPoolsBusyMax.forEach(
+			(threadPool, busy) -> {
+				sb.append("Thread pool ");
+				sb.append(threadPool);
+				sb.append(": max ");
+				sb.append(busy);
+				sb.append(" busy threads");
+				sb.append(System.lineSeparator());
+			});
+
+		Map<String, Integer> bundleStates = last.getBundleStates();
+
+		if (!bundleStates.isEmpty()) {
+			sb.append(System.lineSeparator());
+			sb.append("Bundles: ");
+			sb.append(bundleStates);
+			sb.append(System.lineSeparator());
+
+			Map<String, String> unsettledBundles = last.getUnsettledBundles();
+
+			unsettledBundles.forEach(
+				(symbolicName, state) -> {
+					sb.append("\t");
+					sb.append(symbolicName);
+					sb.append(" ");
+					sb.append(state);
+					sb.append(System.lineSeparator());
+				});
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Samples the MBeans at the interval until the duration elapsed, the
+	 * samples are taken at fixed times so slow samples don't stretch the
+	 * profile.
+	 */
+	private List<JMXRuntimeProfiler.Sample> _sample(JMXRuntimeProfiler jmxRuntimeProfiler) throws Exception {
+		ServerProfileArgs serverProfileArgs = getArgs();
+
+		long interval = TimeUnit.SECONDS.toMillis(Math.max(serverProfileArgs.getInterval(), 1));
+
+		long start = System.currentTimeMillis();
+
+		long end = start + TimeUnit.SECONDS.toMillis(Math.max(serverProfileArgs.getDuration(), 1));
+
+		List<JMXRuntimeProfiler.Sample> samples = new ArrayList<>();
+
+		for (long next = start; next <= end; next += interval) {
+			long sleep = next - System.currentTimeMillis();
+
+			if (sleep > 0) {
+				Thread.sleep(sleep);
+			}
+
+			samples.add(jmxRuntimeProfiler.sample());
+		}
+
+		return samples;
+	}
+
+}
\ No newline at end of file
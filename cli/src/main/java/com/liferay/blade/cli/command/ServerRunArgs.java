@@ -19,6 +19,9 @@ package com.liferay.blade.cli.command;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author Christopher Bryan Boyd
  * @author Gregory Amerson
@@ -36,6 +39,18 @@ public class ServerRunArgs extends BaseArgs {
 		return _debugPort;
 	}
 
+	public String getLogLevel() {
+		return _logLevel;
+	}
+
+	public List<String> getLogLoggers() {
+		return _logLoggers;
+	}
+
+	public int getLogSummary() {
+		return _logSummary;
+	}
+
 	public boolean isDebug() {
 		return _debug;
 	}
@@ -50,6 +65,21 @@ public class ServerRunArgs extends BaseArgs {
 	@Parameter(description = "Debug port", names = {"-p", "--port"})
 	private int _debugPort = -1;
 
+	@Parameter(description = "Only print server log entries of this level or higher, like WARN", names = "--log-level")
+	private String _logLevel;
+
+	@Parameter(
+		description = "Only print server log entries of loggers that start with this name, may be repeated",
+		names = "--log-logger"
+	)
+	private List<String> _logLoggers = new ArrayList<>();
+
+	@Parameter(
+		description = "Print a summary of errors, warnings and the slowest bundles to start every number of seconds",
+		names = "--log-summary"
+	)
+	private int _logSummary;
+
 	@Parameter(
 		description = "When in debug mode, suspend the started server until the debugger is connected",
 		names = {"-s", "--suspend"}
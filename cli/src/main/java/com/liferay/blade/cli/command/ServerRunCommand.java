@@ -18,6 +18,7 @@ package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.ServerLogPrinter;
 
 import java.io.OutputStream;
 
@@ -27,6 +28,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Christopher Bryan Boyd
@@ -126,10 +128,30 @@ public class ServerRunCommand extends BaseCommand<ServerRunArgs> {
 			}
 		}
 
+		ServerLogPrinter serverLogPrinter = new ServerLogPrinter();
+
+		serverLogPrinter.setCollapseStackTraces(true);
+
+		String logLevel = serverRunArgs.getLogLevel();
+
+		if (logLevel != null) {
+			try {
+				serverLogPrinter.setLevel(logLevel);
+			}
+			catch (IllegalArgumentException iae) {
+				bladeCLI.error(iae.getMessage());
+
+				return;
+			}
+		}
+
+		serverLogPrinter.setLoggers(serverRunArgs.getLogLoggers());
+		serverLogPrinter.setSummaryInterval(TimeUnit.SECONDS.toMillis(serverRunArgs.getLogSummary()));
+
 		Process process = processBuilder.start();
 
-		BladeUtil.readProcessStream(process.getInputStream(), bladeCLI.out());
-		BladeUtil.readProcessStream(process.getErrorStream(), bladeCLI.error());
+		serverLogPrinter.read(process.getInputStream(), bladeCLI.out());
+		serverLogPrinter.read(process.getErrorStream(), bladeCLI.error());
 
 		OutputStream outputStream = process.getOutputStream();
 
@@ -139,6 +161,8 @@ public class ServerRunCommand extends BaseCommand<ServerRunArgs> {
 
 		process.waitFor();
 
+		serverLogPrinter.waitFor();
+
 		if (log.isPresent()) {
 			BladeUtil.tail(log.get(), bladeCLI.out());
 		}
@@ -36,6 +36,14 @@ public class ServerStartArgs extends BaseArgs {
 		return _debugPort;
 	}
 
+	public int getInstances() {
+		return _instances;
+	}
+
+	public int getTimeout() {
+		return _timeout;
+	}
+
 	public boolean isDebug() {
 		return _debug;
 	}
@@ -48,6 +56,10 @@ public class ServerStartArgs extends BaseArgs {
 		return _tail;
 	}
 
+	public boolean isWait() {
+		return _wait;
+	}
+
 	public void setDebug(boolean debug) {
 		_debug = debug;
 	}
@@ -58,6 +70,12 @@ public class ServerStartArgs extends BaseArgs {
 	@Parameter(description = "Debug port number in debug mode", names = {"-p", "--port"})
 	private int _debugPort = -1;
 
+	@Parameter(
+		description = "The number of server instances to start, instances after the first get their own Liferay home next to it and ports shifted by 100",
+		names = "--instances"
+	)
+	private int _instances = 1;
+
 	@Parameter(
 		description = "When in debug mode, suspend the started server until the debugger is connected",
 		names = {"-s", "--suspend"}
@@ -67,4 +85,15 @@ public class ServerStartArgs extends BaseArgs {
 	@Parameter(description = "Tail the started server", names = {"-t", "--tail"})
 	private boolean _tail;
 
+	@Parameter(
+		description = "The number of seconds to wait for the server to be ready when waiting", names = "--timeout"
+	)
+	private int _timeout = 600;
+
+	@Parameter(
+		description = "Wait until the portal started and the HTTP and Gogo shell ports accept connections, then print the startup timings",
+		names = {"-w", "--wait"}
+	)
+	private boolean _wait;
+
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -63,6 +64,68 @@ public class ServerStartCommand extends BaseCommand<ServerStartArgs> {
 			return;
 		}
 
+		ServerStartArgs serverStartArgs = getArgs();
+
+		int instances = serverStartArgs.getInstances();
+
+		if (instances <= 1) {
+			_start(localServer, "");
+
+			return;
+		}
+
+		if (!serverType.equals("tomcat")) {
+			bladeCLI.error("Starting multiple instances is only supported for tomcat");
+
+			return;
+		}
+
+		if (serverStartArgs.isTail()) {
+			bladeCLI.error("Tailing the log is not supported when starting multiple instances");
+
+			return;
+		}
+
+		localServer.forEachInstance(
+			instances, bladeCLI.error(),
+			(instanceLocalServer, prefix) -> {
+				instanceLocalServer.initInstance();
+
+				_start(instanceLocalServer, prefix);
+			});
+	}
+
+	@Override
+	public Class<ServerStartArgs> getArgsClass() {
+		return ServerStartArgs.class;
+	}
+
+	protected LocalServer newLocalServer(BladeCLI bladeCLI) {
+		return new LocalServer(bladeCLI);
+	}
+
+	private String _getDebugPortString(String serverType, int portOffset) {
+		ServerStartArgs serverStartArgs = getArgs();
+
+		int debugPort = serverStartArgs.getDebugPort();
+
+		if (debugPort == -1) {
+			if (serverType.equals("tomcat")) {
+				debugPort = 8000;
+			}
+			else if (serverType.equals("jboss") || serverType.equals("wildfly")) {
+				debugPort = 8787;
+			}
+		}
+
+		return String.valueOf(debugPort + portOffset);
+	}
+
+	private void _start(LocalServer localServer, String prefix) throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		String serverType = localServer.getServerType();
+
 		ProcessBuilder processBuilder = localServer.newLocalServerProcess();
 
 		List<String> commands = processBuilder.command();
@@ -103,7 +166,7 @@ public class ServerStartCommand extends BaseCommand<ServerStartArgs> {
 					opts.append(" ");
 				}
 
-				String debugPortString = _getDebugPortString(serverType);
+				String debugPortString = _getDebugPortString(serverType, localServer.getPortOffset());
 
 				String suspendValue;
 
@@ -137,6 +200,15 @@ public class ServerStartCommand extends BaseCommand<ServerStartArgs> {
 
 		BladeUtil.setShell(processBuilder, shellCommand);
 
+		Optional<Path> log = localServer.getLogPath();
+
+		ServerStartupMonitor serverStartupMonitor = null;
+
+		if (serverStartArgs.isWait() && log.isPresent()) {
+			serverStartupMonitor = new ServerStartupMonitor(
+				log.get(), "localhost", localServer.getHttpPort(), localServer.getGogoPort());
+		}
+
 		Process process = processBuilder.start();
 
 		BladeUtil.readProcessStream(process.getInputStream(), bladeCLI.out());
@@ -146,8 +218,6 @@ public class ServerStartCommand extends BaseCommand<ServerStartArgs> {
 
 		outputStream.close();
 
-		Optional<Path> log = localServer.getLogPath();
-
 		boolean quiet = serverStartArgs.isQuiet();
 
 		if (serverType.equals("tomcat")) {
@@ -163,7 +233,20 @@ public class ServerStartCommand extends BaseCommand<ServerStartArgs> {
 			}
 
 			if (!quiet) {
-				bladeCLI.out(serverType + " started.");
+				bladeCLI.out(prefix + serverType + " started.");
+			}
+		}
+
+		if (serverStartupMonitor != null) {
+			serverStartupMonitor.waitForStartup(serverStartArgs.getTimeout(), TimeUnit.SECONDS);
+
+			if (!quiet) {
+				Map<String, Long> phaseTimes = serverStartupMonitor.getPhaseTimes();
+
+				for (Map.Entry<String, Long> entry : phaseTimes.entrySet()) {
+					bladeCLI.out(
+						String.format("%s%s in %.1f seconds", prefix, entry.getKey(), entry.getValue() / 1000.0));
+				}
 			}
 		}
 
@@ -176,35 +259,9 @@ public class ServerStartCommand extends BaseCommand<ServerStartArgs> {
 			if (log.isPresent() && !quiet) {
 				Path logPath = log.get();
 
-				bladeCLI.out("To view the log execute 'tail -f " + logPath.toString() + "'");
-			}
-		}
-	}
-
-	@Override
-	public Class<ServerStartArgs> getArgsClass() {
-		return ServerStartArgs.class;
-	}
-
-	protected LocalServer newLocalServer(BladeCLI bladeCLI) {
-		return new LocalServer(bladeCLI);
-	}
-
-	private String _getDebugPortString(String serverType) {
-		ServerStartArgs serverStartArgs = getArgs();
-
-		int debugPort = serverStartArgs.getDebugPort();
-
-		if (debugPort == -1) {
-			if (serverType.equals("tomcat")) {
-				debugPort = 8000;
-			}
-			else if (serverType.equals("jboss") || serverType.equals("wildfly")) {
-				debugPort = 8787;
+				bladeCLI.out(prefix + "To view the log execute 'tail -f " + logPath.toString() + "'");
 			}
 		}
-
-		return String.valueOf(debugPort);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.LogFollower;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Watches a starting server until Liferay is ready. The log written since the
+ * monitor was created is followed for the markers of the startup phases, and
+ * once the portal reports it started the HTTP and Gogo shell ports are probed
+ * until both accept connections.
+ *
+ * @author agent
+ */
+public class ServerStartupMonitor {
+
+	public static final String PHASE_FRAMEWORK_STARTED = "OSGi framework started";
+
+	public static final String PHASE_JVM_STARTED = "JVM started";
+
+	public static final String PHASE_PORTAL_STARTED = "Portal started";
+
+	public static final String PHASE_READY = "Ports ready";
+
+	/**
+	 * Creates a monitor for the log, content that is already in the log is
+	 * ignored, so the monitor has to be created before the server is started.
+	 */
+	public ServerStartupMonitor(Path logPath, String host, int httpPort, int gogoPort) throws IOException {
+		_logPath = logPath;
+		_host = host;
+		_httpPort = httpPort;
+		_gogoPort = gogoPort;
+
+		if (Files.exists(logPath)) {
+			_logPosition = Files.size(logPath);
+		}
+		else {
+			_logPosition = 0;
+		}
+
+		_startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Returns the milliseconds from the creation of the monitor to the end of
+	 * each phase that was reached, in the order of the phases.
+	 */
+	public Map<String, Long> getPhaseTimes() {
+		synchronized (_phaseTimes) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(_phaseTimes));
+		}
+	}
+
+	/**
+	 * Blocks until the server is ready or the timeout elapsed.
+	 */
+	public void waitForStartup(long timeout, TimeUnit timeUnit)
+		throws IOException, InterruptedException, TimeoutException {
+
+		long deadline = _startNanos + timeUnit.toNanos(timeout);
+
+		LogFollower logFollower = new LogFollower(_logPath, null, _logPosition);
+
+		logFollower.setLineConsumer(this::_onLine);
+
+		Thread thread = new Thread(
+			() -> {
+				try {
+					logFollower.follow();
+				}
+				catch (IOException ioe) {
+				}
+			},
+			"blade-server-startup-log");
+
+		thread.setDaemon(true);
+
+		thread.start();
+
+		try {
+			while (!_isPhaseReached(PHASE_READY)) {
+				if (_isPhaseReached(PHASE_PORTAL_STARTED) && BladeUtil.canConnect(_host, _httpPort) &&
+					BladeUtil.canConnect(_host, _gogoPort)) {
+
+					_reachPhase(PHASE_READY);
+
+					break;
+				}
+
+				if ((System.nanoTime() - deadline) > 0) {
+					throw new TimeoutException(
+						"Liferay was not ready " + timeUnit.toSeconds(timeout) + " seconds after it was started");
+				}
+
+				Thread.sleep(_PROBE_INTERVAL);
+			}
+		}
+		finally {
+			thread.interrupt();
+		}
+	}
+
+	private boolean _isPhaseReached(String phase) {
+		synchronized (_phaseTimes) {
+			return _phaseTimes.containsKey(phase);
+		}
+	}
+
+	private void _onLine(String line) {
+		_reachPhase(PHASE_JVM_STARTED);
+
+		if (line.contains(_FRAMEWORK_STARTED_MARKER)) {
+			_reachPhase(PHASE_FRAMEWORK_STARTED);
+		}
+
+		for (String portalStartedMarker : _PORTAL_STARTED_MARKERS) {
+			if (line.contains(portalStartedMarker)) {
+				_reachPhase(PHASE_FRAMEWORK_STARTED);
+				_reachPhase(PHASE_PORTAL_STARTED);
+			}
+		}
+	}
+
+	private void _reachPhase(String phase) {
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - _startNanos);
+
+		synchronized (_phaseTimes) {
+			_phaseTimes.putIfAbsent(phase, elapsed);
+		}
+	}
+
+	private static final String _FRAMEWORK_STARTED_MARKER = "Starting dynamic bundles";
+
+	private static final String[] _PORTAL_STARTED_MARKERS = {"JBAS015874", "Server startup in", "WFLYSRV0025"};
+
+	private static final long _PROBE_INTERVAL = 500;
+
+	private final int _gogoPort;
+	private final String _host;
+	private final int _httpPort;
+	private final Path _logPath;
+	private final long _logPosition;
+	private final Map<String, Long> _phaseTimes = new LinkedHashMap<>();
+	private final long _startNanos;
+
+}
\ No newline at end of file
@@ -16,6 +16,7 @@
 
 package com.liferay.blade.cli.command;
 
+import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
 /**
@@ -29,4 +30,20 @@ public class ServerStopArgs extends BaseArgs {
 		return CommandType.WORKSPACE_ONLY;
 	}
 
+	public int getInstances() {
+		return _instances;
+	}
+
+	public int getTimeout() {
+		return _timeout;
+	}
+
+	@Parameter(description = "The number of server instances to stop", names = "--instances")
+	private int _instances = 1;
+
+	@Parameter(
+		description = "The number of seconds to wait for a server to shut down before it's killed", names = "--timeout"
+	)
+	private int _timeout = 60;
+
 }
\ No newline at end of file
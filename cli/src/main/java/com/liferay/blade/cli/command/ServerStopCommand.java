@@ -25,6 +25,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author David Truong
@@ -63,13 +64,61 @@ public class ServerStopCommand extends BaseCommand<ServerStopArgs> {
 			return;
 		}
 
+		ServerStopArgs serverStopArgs = getArgs();
+
+		int instances = serverStopArgs.getInstances();
+
+		if (instances <= 1) {
+			_stop(localServer, "");
+
+			return;
+		}
+
+		localServer.forEachInstance(instances, bladeCLI.error(), this::_stop);
+	}
+
+	@Override
+	public Class<ServerStopArgs> getArgsClass() {
+		return ServerStopArgs.class;
+	}
+
+	protected LocalServer newLocalServer(BladeCLI bladeCLI) {
+		return new LocalServer(bladeCLI);
+	}
+
+	/**
+	 * Shuts the server down through its shutdown port and only kills it if it
+	 * didn't stop before the timeout. Servers that can't be shut down that
+	 * way are stopped by their stop script right away.
+	 */
+	private void _stop(LocalServer localServer, String prefix) throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ServerStopArgs serverStopArgs = getArgs();
+
+		String serverType = localServer.getServerType();
+
+		if (localServer.isShutdownSupported()) {
+			if (localServer.shutdown(serverStopArgs.getTimeout(), TimeUnit.SECONDS)) {
+				if (!serverStopArgs.isQuiet()) {
+					bladeCLI.out(prefix + serverType + " stopped.");
+				}
+
+				return;
+			}
+
+			if (!serverStopArgs.isQuiet()) {
+				bladeCLI.out(prefix + serverType + " could not be shut down gracefully, stopping it forcibly.");
+			}
+		}
+
 		ProcessBuilder processBuilder = localServer.newLocalServerProcess();
 
 		List<String> commands = processBuilder.command();
 
 		if (serverType.equals("tomcat")) {
 			commands.add("stop");
-			commands.add("60");
+			commands.add("0");
 			commands.add("-force");
 		}
 
@@ -85,13 +134,4 @@ public class ServerStopCommand extends BaseCommand<ServerStopArgs> {
 		process.waitFor();
 	}
 
-	@Override
-	public Class<ServerStopArgs> getArgsClass() {
-		return ServerStopArgs.class;
-	}
-
-	protected LocalServer newLocalServer(BladeCLI bladeCLI) {
-		return new LocalServer(bladeCLI);
-	}
-
 }
\ No newline at end of file
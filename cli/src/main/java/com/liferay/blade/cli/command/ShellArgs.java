@@ -19,6 +19,8 @@ package com.liferay.blade.cli.command;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
+import java.io.File;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,10 +36,18 @@ public class ShellArgs extends BaseArgs {
 		return _args;
 	}
 
+	public File getFile() {
+		return _file;
+	}
+
 	public String getHost() {
 		return _host;
 	}
 
+	public int getParallel() {
+		return _parallel;
+	}
+
 	public int getPort() {
 		return _port;
 	}
@@ -45,9 +55,21 @@ public class ShellArgs extends BaseArgs {
 	@Parameter
 	private List<String> _args = new ArrayList<>();
 
+	@Parameter(
+		description = "Read gogo commands from the file, one per line, and run them over one session, use - for stdin",
+		names = {"-f", "--file"}
+	)
+	private File _file;
+
 	@Parameter(description = "The host to use to connect to gogo shell", names = {"-h", "--host"})
 	private String _host;
 
+	@Parameter(
+		description = "The number of gogo shell sessions to run the commands of the file over concurrently, only for commands that don't depend on each other",
+		names = "--parallel"
+	)
+	private int _parallel = 1;
+
 	@Parameter(description = "The port to use to connect to gogo shell", names = {"-p", "--port"})
 	private int _port;
 
@@ -16,11 +16,27 @@
 
 package com.liferay.blade.cli.command;
 
+import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.util.BladeUtil;
 import com.liferay.gogo.shell.client.GogoShellClient;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -38,13 +54,27 @@ public class ShellCommand extends BaseCommand<ShellArgs> {
 		String host = (shellArgs.getHost() != null) ? shellArgs.getHost() : "localhost";
 		int port = (shellArgs.getPort() != 0) ? shellArgs.getPort() : 11311;
 
+		List<String> args = shellArgs.getArgs();
+
+		File file = shellArgs.getFile();
+
+		if ((file != null) && !args.isEmpty()) {
+			_addError("sh", "Either pass a gogo command or a file of gogo commands, not both");
+
+			return;
+		}
+
 		if (!BladeUtil.canConnect(host, port)) {
 			_addError("sh", "Unable to connect to gogo shell on " + host + ":" + port);
 
 			return;
 		}
 
-		List<String> args = shellArgs.getArgs();
+		if (file != null) {
+			_executeCommands(_readCommands(file), host, port);
+
+			return;
+		}
 
 		String gogoCommand = args.stream(
 		).collect(
@@ -71,4 +101,133 @@ public class ShellCommand extends BaseCommand<ShellArgs> {
 		}
 	}
 
+	/**
+	 * Runs the commands over a few gogo shell sessions that each take the next
+	 * command that no session took yet, so connecting is only paid once per
+	 * session. The output of every command is printed after a prompt line
+	 * with the command, in the order of the commands, as soon as the command
+	 * and the commands before it are done.
+	 */
+	private void _executeCommands(List<String> gogoCommands, String host, int port) throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		ShellArgs shellArgs = getArgs();
+
+		int sessions = Math.max(Math.min(shellArgs.getParallel(), gogoCommands.size()), 1);
+
+		List<CompletableFuture<String>> responses = new ArrayList<>();
+
+		for (int i = 0; i < gogoCommands.size(); i++) {
+			responses.add(new CompletableFuture<>());
+		}
+
+		AtomicInteger liveSessions = new AtomicInteger(sessions);
+		AtomicInteger nextCommand = new AtomicInteger();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(sessions);
+
+		try {
+			for (int i = 0; i < sessions; i++) {
+				executorService.submit(
+					() -> _runSession(gogoCommands, responses, nextCommand, liveSessions, host, port));
+			}
+
+			PrintStream printStream = bladeCLI.out();
+
+			for (int i = 0; i < gogoCommands.size(); i++) {
+				printStream.println(_PROMPT + gogoCommands.get(i));
+
+				CompletableFuture<String> response = responses.get(i);
+
+				try {
+					printStream.println(response.get());
+				}
+				catch (ExecutionException ee) {
+					Throwable cause = ee.getCause();
+
+					_addError("sh", "Unable to execute " + gogoCommands.get(i) + ": " + cause.getMessage());
+				}
+			}
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the commands of the file or stdin, leaving out empty lines and
+	 * comments.
+	 */
+	private List<String> _readCommands(File file) throws IOException {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		List<String> lines;
+
+		if ("-".equals(file.getPath())) {
+			try (BufferedReader bufferedReader = new BufferedReader(
+					new InputStreamReader(bladeCLI.in(), StandardCharsets.UTF_8))) {
+
+				lines = bufferedReader.lines(
+				).collect(
+					Collectors.toList()
+				);
+			}
+		}
+		else {
+			lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		}
+
+		List<String> gogoCommands = new ArrayList<>();
+
+		for (String line : lines) {
+			line = line.trim();
+
+			if (!line.isEmpty() && !line.startsWith("#")) {
+				gogoCommands.add(line);
+			}
+		}
+
+		return gogoCommands;
+	}
+
+	/**
+	 * Sends commands over one session until every command was taken. If the
+	 * session breaks, the command that was being sent fails and the other
+	 * sessions take the rest, the last session to break fails every command
+	 * that is left. The client fails with an error rather than an exception
+	 * when the session closes during the handshake, so errors break the
+	 * session too.
+	 */
+	private void _runSession(
+		List<String> gogoCommands, List<CompletableFuture<String>> responses, AtomicInteger nextCommand,
+		AtomicInteger liveSessions, String host, int port) {
+
+		int i = -1;
+
+		try (GogoShellClient client = new GogoShellClient(host, port)) {
+			while ((i = nextCommand.getAndIncrement()) < gogoCommands.size()) {
+				CompletableFuture<String> response = responses.get(i);
+
+				response.complete(client.send(gogoCommands.get(i)));
+			}
+		}
+		catch (Throwable t) {
+			if ((i >= 0) && (i < gogoCommands.size())) {
+				CompletableFuture<String> response = responses.get(i);
+
+				response.completeExceptionally(t);
+			}
+
+			if (liveSessions.decrementAndGet() == 0) {
+				while ((i = nextCommand.getAndIncrement()) < gogoCommands.size()) {
+					CompletableFuture<String> response = responses.get(i);
+
+					response.completeExceptionally(t);
+				}
+			}
+		}
+	}
+
+	private static final String _PROMPT = "g! ";
+
 }
\ No newline at end of file
@@ -63,6 +63,10 @@ public class WatchArgs extends BaseArgs {
 		);
 	}
 
+	public boolean isSkipHotSwap() {
+		return _skipHotSwap;
+	}
+
 	public boolean isSkipInit() {
 		return _skipInit;
 	}
@@ -100,6 +104,12 @@ public class WatchArgs extends BaseArgs {
 	@Parameter(description = "File paths to use to identify a project path.", names = {"-p", "--project-paths"})
 	private List<String> _projectPaths = new ArrayList<>();
 
+	@Parameter(
+		description = "Always use deployFast for fast paths instead of copying static resources straight into the module the server exploded",
+		names = "--skip-hot-swap"
+	)
+	private boolean _skipHotSwap = false;
+
 	@Parameter(description = "Skip initial deploy", names = {"-s", "--skip-init"})
 	private boolean _skipInit = false;
 
@@ -18,6 +18,9 @@ package com.liferay.blade.cli.command;
 
 import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.gradle.GradleExec;
+import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.DirectorySnapshot;
+import com.liferay.blade.cli.util.ProjectPathsCache;
 
 import com.sun.nio.file.SensitivityWatchEventModifier;
 
@@ -42,11 +45,9 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * @author Gregory Amerson
@@ -154,65 +155,138 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 		return pathMatchers;
 	}
 
+	/**
+	 * Finds the projects to watch. The directories that were looked at are
+	 * cached with their modification times, so on the next run only the
+	 * directories that changed since are listed again.
+	 */
 	private Map<String, Path> _getProjectPaths(
 			final Path watchPath, List<String> projectPaths, List<String> ignorePaths)
 		throws Exception {
 
 		final Map<String, Path> foundProjectPaths = new HashMap<>();
 
-		FileSystem fileSystem = FileSystems.getDefault();
+		Path bladeCachePath = BladeUtil.getBladeCachePath();
 
-		List<PathMatcher> ignorePathMatchers = ignorePaths.stream(
-		).map(
-			ignorePath -> fileSystem.getPathMatcher("glob:" + ignorePath)
-		).collect(
-			Collectors.toList()
-		);
+		String watchPathHash = Integer.toHexString(String.valueOf(watchPath).hashCode());
 
-		Files.walkFileTree(
-			watchPath,
-			new SimpleFileVisitor<Path>() {
+		ProjectPathsCache projectPathsCache = new ProjectPathsCache(
+			bladeCachePath.resolve("watch/project-paths-" + watchPathHash + ".properties"), projectPaths, ignorePaths);
 
-				@Override
-				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes)
-					throws IOException {
+		for (Path path : projectPathsCache.find(watchPath)) {
+			foundProjectPaths.put(_getGradlePath(path, watchPath), path);
+		}
 
-					boolean shouldIgnorePath = ignorePathMatchers.stream(
-					).anyMatch(
-						pathMatcher -> pathMatcher.matches(path)
-					);
+		try {
+			projectPathsCache.save();
+		}
+		catch (IOException ioe) {
+			BladeCLI bladeCLI = getBladeCLI();
 
-					if (shouldIgnorePath) {
-						return FileVisitResult.SKIP_SUBTREE;
-					}
+			bladeCLI.trace("Unable to save the project paths cache: " + ioe.getMessage());
+		}
 
-					try (Stream<Path> files = Files.list(path)) {
-						if (files.map(
-								p -> p.getFileName()
-							).filter(
-								p -> !ignorePathMatchers.stream(
-								).anyMatch(
-									pathMatcher -> pathMatcher.matches(path.resolve(p))
-								)
-							).anyMatch(
-								p -> projectPaths.stream(
-								).anyMatch(
-									pp -> Objects.equals(pp, p.toString())
-								)
-							)) {
-
-							foundProjectPaths.put(_getGradlePath(path, watchPath), path);
-
-							return FileVisitResult.SKIP_SUBTREE;
-						}
-					}
+		return foundProjectPaths;
+	}
 
-					return FileVisitResult.CONTINUE;
-				}
+	/**
+	 * Copies the changed resource into the exploded module on the server, or
+	 * returns <code>null</code> if it has to be deployed with Gradle.
+	 */
+	private Path _hotSwap(ResourceHotSwapper resourceHotSwapper, Path projectPath, Path path) {
+		try {
+			return resourceHotSwapper.hotSwap(projectPath, path);
+		}
+		catch (IOException ioe) {
+			BladeCLI bladeCLI = getBladeCLI();
 
-			});
+			bladeCLI.trace("Unable to hot swap " + path + ": " + ioe.getMessage());
 
-		return foundProjectPaths;
+			return null;
+		}
+	}
+
+	private boolean _isIgnored(Path path, List<PathMatcher> ignorePathMatchers) {
+		for (PathMatcher pathMatcher : ignorePathMatchers) {
+			if (pathMatcher.matches(path)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private ResourceHotSwapper _newResourceHotSwapper() {
+		WatchArgs watchArgs = getArgs();
+
+		if (watchArgs.isSkipHotSwap()) {
+			return null;
+		}
+
+		LocalServer localServer = new LocalServer(getBladeCLI());
+
+		Path liferayHomePath = localServer.getLiferayHomePath();
+
+		if (liferayHomePath == null) {
+			return null;
+		}
+
+		return new ResourceHotSwapper(liferayHomePath);
+	}
+
+	/**
+	 * Recovers from lost watch events by comparing the workspace to the last
+	 * snapshot of it. Every project with changes is deployed once, or cleaned
+	 * and deployed when files were deleted from it, and directories that were
+	 * created in the meantime get registered.
+	 */
+	private void _redeployChanges(
+			WatchService watchService, Map<WatchKey, Path> watchKeys, Path watchPath, Map<String, Path> projectPaths,
+			List<PathMatcher> ignorePathMatchers, DirectorySnapshot directorySnapshot, GradleExec gradleExec)
+		throws Exception {
+
+		Map<Path, WatchEvent.Kind<Path>> changes = directorySnapshot.rescan(watchPath);
+
+		Map<Path, Boolean> changedProjectPaths = new LinkedHashMap<>();
+
+		for (Map.Entry<Path, WatchEvent.Kind<Path>> entry : changes.entrySet()) {
+			Path path = entry.getKey();
+
+			if (_isIgnored(path, ignorePathMatchers)) {
+				continue;
+			}
+
+			WatchEvent.Kind<Path> kind = entry.getValue();
+
+			if ((kind == StandardWatchEventKinds.ENTRY_CREATE) && Files.isDirectory(path)) {
+				_registerDirectory(watchService, watchKeys, path);
+			}
+
+			Path projectPath = _getGradleProjectPath(watchPath, path, projectPaths);
+
+			boolean clean = changedProjectPaths.getOrDefault(projectPath, false);
+
+			changedProjectPaths.put(projectPath, clean || (kind == StandardWatchEventKinds.ENTRY_DELETE));
+		}
+
+		BladeCLI bladeCLI = getBladeCLI();
+
+		BaseArgs baseArgs = bladeCLI.getArgs();
+
+		for (Map.Entry<Path, Boolean> entry : changedProjectPaths.entrySet()) {
+			Path projectPath = entry.getKey();
+
+			if (!baseArgs.isQuiet()) {
+				bladeCLI.out(projectPath + " has changed, deploying...");
+			}
+
+			if (entry.getValue()) {
+				gradleExec.executeTask("clean deploy", projectPath.toFile(), false);
+			}
+			else {
+				gradleExec.executeTask("deploy", projectPath.toFile(), false);
+			}
+		}
 	}
 
 	private void _registerDirectory(WatchService watcher, Map<WatchKey, Path> keys, Path dir) throws IOException {
@@ -240,10 +314,8 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 				public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes basicFileAttributes)
 					throws IOException {
 
-					for (PathMatcher pathMatcher : ignorePathMatchers) {
-						if (pathMatcher.matches(path)) {
-							return FileVisitResult.SKIP_SUBTREE;
-						}
+					if (_isIgnored(path, ignorePathMatchers)) {
+						return FileVisitResult.SKIP_SUBTREE;
 					}
 
 					_registerDirectory(watchService, watchKeys, path);
@@ -280,8 +352,15 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 
 					_walkAndRegisterDirectories(watchService, watchKeys, watchPath, ignorePathMatchers);
 
+					final DirectorySnapshot directorySnapshot = new DirectorySnapshot(
+						dir -> !_isIgnored(dir, ignorePathMatchers));
+
+					directorySnapshot.add(watchPath);
+
 					final GradleExec gradleExec = new GradleExec(bladeCLI);
 
+					final ResourceHotSwapper resourceHotSwapper = _newResourceHotSwapper();
+
 					if (deploy) {
 						if (!baseArgs.isQuiet()) {
 							bladeCLI.out("Deploying...  To skip initial deployment, use `blade watch -s`");
@@ -311,24 +390,28 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 						for (WatchEvent<?> event : watchKey.pollEvents()) {
 							WatchEvent.Kind<?> kind = event.kind();
 
-							Path path = (Path)event.context();
+							if (kind == StandardWatchEventKinds.OVERFLOW) {
+								if (!baseArgs.isQuiet()) {
+									bladeCLI.out("Too many changes to track, rescanning " + watchPath + "...");
+								}
 
-							Path resolvedPath = dir.resolve(path);
+								_redeployChanges(
+									watchService, watchKeys, watchPath, projectPaths, ignorePathMatchers,
+									directorySnapshot, gradleExec);
 
-							boolean ignoredPath = false;
+								continue;
+							}
 
-							for (PathMatcher pathMatcher : ignorePathMatchers) {
-								if (pathMatcher.matches(resolvedPath)) {
-									ignoredPath = true;
+							Path path = (Path)event.context();
 
-									break;
-								}
-							}
+							Path resolvedPath = dir.resolve(path);
 
-							if (ignoredPath) {
+							if (_isIgnored(resolvedPath, ignorePathMatchers)) {
 								continue;
 							}
 
+							directorySnapshot.update(resolvedPath);
+
 							boolean directory = Files.isDirectory(resolvedPath);
 
 							Path projectPath = _getGradleProjectPath(watchPath, resolvedPath, projectPaths);
@@ -368,7 +451,18 @@ public class WatchCommand extends BaseCommand<WatchArgs> {
 									}
 								}
 
-								if (fastExtension) {
+								Path hotSwappedPath = null;
+
+								if (fastExtension && (resourceHotSwapper != null)) {
+									hotSwappedPath = _hotSwap(resourceHotSwapper, projectPath, resolvedPath);
+								}
+
+								if (hotSwappedPath != null) {
+									if (!baseArgs.isQuiet()) {
+										bladeCLI.out(resolvedPath + " has changed, copied to " + hotSwappedPath);
+									}
+								}
+								else if (fastExtension) {
 									if (!baseArgs.isQuiet()) {
 										bladeCLI.out(resolvedPath + " has changed, fast deploying...");
 									}
@@ -17,6 +17,7 @@
 package com.liferay.blade.cli.gradle;
 
 import com.liferay.blade.cli.LiferayBundleDeployer;
+import com.liferay.blade.cli.util.FileServer;
 import com.liferay.gogo.shell.client.GogoShellClient;
 
 import java.io.IOException;
@@ -48,7 +49,12 @@ import org.osgi.framework.dto.BundleDTO;
 public class LiferayBundleDeployerImpl implements LiferayBundleDeployer {
 
 	public LiferayBundleDeployerImpl(final String host, final int port) throws IOException {
+		this(host, port, null);
+	}
+
+	public LiferayBundleDeployerImpl(final String host, final int port, FileServer fileServer) throws IOException {
 		_client = new GogoShellClient(host, port);
+		_fileServer = fileServer;
 	}
 
 	@Override
@@ -120,7 +126,7 @@ public class LiferayBundleDeployerImpl implements LiferayBundleDeployer {
 			installString = "install " + _getWarString(uriPath);
 		}
 		else {
-			installString = "install " + uri.toASCIIString();
+			installString = "install " + _getLocation(uri);
 		}
 
 		String response = _sendGogo(installString);
@@ -168,10 +174,10 @@ public class LiferayBundleDeployerImpl implements LiferayBundleDeployer {
 		Path uriPath = Paths.get(uri);
 
 		if (_WAR_FILE_GLOB.matches(uriPath)) {
-			installString = "update " + _getWarString(uriPath);
+			installString = String.format("update %s %s", id, _getWarString(uriPath));
 		}
 		else {
-			installString = _sendGogo(String.format("update %s %s", id, uri.toASCIIString()));
+			installString = String.format("update %s %s", id, _getLocation(uri));
 		}
 
 		_sendGogo(installString);
@@ -218,24 +224,6 @@ public class LiferayBundleDeployerImpl implements LiferayBundleDeployer {
 		return 0;
 	}
 
-	private static String _getWarString(Path path) throws IllegalArgumentException {
-		if (!_WAR_FILE_GLOB.matches(path)) {
-			throw new IllegalArgumentException("Must provide a valid WAR file");
-		}
-
-		String fileNameString = String.valueOf(path.getFileName());
-
-		Matcher matcher = _versionPattern.matcher(fileNameString);
-
-		if (matcher.find()) {
-			fileNameString = matcher.replaceFirst(".war");
-		}
-
-		URI uri = path.toUri();
-
-		return String.format(_WAR_STRING_TEMPLATE, uri.toASCIIString(), fileNameString, fileNameString);
-	}
-
 	private static final BundleDTO _newBundleDTO(Long id, int state, String symbolicName) {
 		BundleDTO bundle = new BundleDTO();
 
@@ -304,6 +292,30 @@ public class LiferayBundleDeployerImpl implements LiferayBundleDeployer {
 		}
 	}
 
+	private String _getLocation(URI uri) {
+		if ((_fileServer != null) && Objects.equals(uri.getScheme(), "file")) {
+			uri = _fileServer.publish(Paths.get(uri));
+		}
+
+		return uri.toASCIIString();
+	}
+
+	private String _getWarString(Path path) throws IllegalArgumentException {
+		if (!_WAR_FILE_GLOB.matches(path)) {
+			throw new IllegalArgumentException("Must provide a valid WAR file");
+		}
+
+		String fileNameString = String.valueOf(path.getFileName());
+
+		Matcher matcher = _versionPattern.matcher(fileNameString);
+
+		if (matcher.find()) {
+			fileNameString = matcher.replaceFirst(".war");
+		}
+
+		return String.format(_WAR_STRING_TEMPLATE, _getLocation(path.toUri()), fileNameString, fileNameString);
+	}
+
 	private String _sendGogo(String data) throws Exception {
 		return _client.send(data);
 	}
@@ -319,5 +331,6 @@ public class LiferayBundleDeployerImpl implements LiferayBundleDeployer {
 	private static final Pattern _versionPattern = Pattern.compile("-[\\d]+((\\.[\\d]+)+(-.+)*)\\.war$");
 
 	private GogoShellClient _client;
+	private final FileServer _fileServer;
 
 }
\ No newline at end of file
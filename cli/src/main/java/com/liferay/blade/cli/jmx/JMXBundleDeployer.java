@@ -21,17 +21,22 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 
-import javax.management.MBeanServerConnection;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.TabularData;
+import javax.management.remote.JMXServiceURL;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.dto.BundleDTO;
@@ -45,6 +50,12 @@ import org.osgi.framework.dto.BundleDTO;
  * framework JMX beans. For the JDK attach API, beware, assumptions about the
  * Oracle JDK directory layout have been made.
  *
+ * An instance is meant to be kept open and reused for many deploys. The
+ * framework and bundleState MBean names are only looked up once and the
+ * Bundle-SymbolicName to bundle id mapping is only listed once, after that it
+ * is kept up to date with the bundles installed or uninstalled through this
+ * instance.
+ *
  * @author Gregory Amerson
  */
 public class JMXBundleDeployer extends JMXLocalConnector {
@@ -57,6 +68,10 @@ public class JMXBundleDeployer extends JMXLocalConnector {
 		super(port);
 	}
 
+	public JMXBundleDeployer(JMXServiceURL serviceUrl) {
+		super(serviceUrl);
+	}
+
 	/**
 	 * Gets the current list of installed bsns, compares it to the bsn provided.
 	 * If bsn doesn't exist, then install it. If it does exist then update it.
@@ -69,77 +84,118 @@ public class JMXBundleDeployer extends JMXLocalConnector {
 	 * @throws Exception
 	 */
 	public long deploy(String bsn, String bundleUrl) throws Exception {
-		final ObjectName framework = _getFramework(mBeanServerConnection);
+		Map<String, String> bundleUrls = new HashMap<>();
 
-		long bundleId = -1;
+		bundleUrls.put(bsn, bundleUrl);
 
-		for (BundleDTO osgiBundle : listBundles()) {
-			if (osgiBundle.symbolicName.equals(bsn)) {
-				bundleId = osgiBundle.id;
+		Map<String, Long> bundleIds = deploy(bundleUrls);
 
-				break;
-			}
+		return bundleIds.get(bsn);
+	}
+
+	/**
+	 * Deploys several bundles at once. Instead of one round trip per bundle
+	 * and operation this uses the framework MBean batch operations, so all
+	 * existing bundles are stopped, updated and refreshed together, all new
+	 * bundles are installed together and finally everything is started. If a
+	 * batch fails, for example because a bundle was reinstalled by someone
+	 * else, the bundles are listed again and the deploy is retried once.
+	 *
+	 * @param bundleUrls
+	 *            map of Bundle-SymbolicName to the url of the bundle
+	 * @return map of Bundle-SymbolicName to the id of the updated or installed
+	 *         bundle
+	 * @throws Exception
+	 */
+	public Map<String, Long> deploy(Map<String, String> bundleUrls) throws Exception {
+		try {
+			return _deploy(bundleUrls);
 		}
+		catch (Exception e) {
 
-		if (bundleId > -1) {
-			mBeanServerConnection.invoke(framework, "stopBundle", new Object[] {bundleId}, new String[] {"long"});
+			// bundles may have been changed behind our back, list them again
+			// and retry once
 
-			Object[] params = {bundleId, bundleUrl};
+			listBundles();
 
-			mBeanServerConnection.invoke(
-				framework, "updateBundleFromURL", params, new String[] {"long", String.class.getName()});
+			try {
+				return _deploy(bundleUrls);
+			}
+			catch (Exception retryException) {
+				_bundleIds = null;
 
-			mBeanServerConnection.invoke(framework, "refreshBundle", new Object[] {bundleId}, new String[] {"long"});
+				retryException.addSuppressed(e);
+
+				throw retryException;
+			}
 		}
-		else {
-			Object[] params = {bundleUrl, bundleUrl};
+	}
+
+	/**
+	 * Calls osgi.core bundleState MBean listBundles operation
+	 *
+	 * @return array of bundles in framework
+	 * @throws Exception
+	 */
+	public BundleDTO[] listBundles() throws Exception {
+		final ObjectName bundleState = _getBundleState();
+
+		final Object[] params = {new String[] {"Identifier", "SymbolicName", "State", "Version"}};
+
+		final String[] signature = {String[].class.getName()};
+
+		final TabularData data = (TabularData)mBeanServerConnection.invoke(
+			bundleState, "listBundles", params, signature);
 
-			String[] signature = {String.class.getName(), String.class.getName()};
+		final List<BundleDTO> retval = new ArrayList<>();
+
+		for (Object value : data.values()) {
+			final CompositeData cd = (CompositeData)value;
+
+			retval.add(_newFromData(cd));
+		}
 
-			Object installed = mBeanServerConnection.invoke(framework, "installBundleFromURL", params, signature);
+		Map<String, Long> bundleIds = new HashMap<>();
 
-			bundleId = Long.parseLong(installed.toString());
+		for (BundleDTO bundleDTO : retval) {
+			bundleIds.put(bundleDTO.symbolicName, bundleDTO.id);
 		}
 
-		mBeanServerConnection.invoke(framework, "startBundle", new Object[] {bundleId}, new String[] {"long"});
+		_bundleIds = bundleIds;
 
-		return bundleId;
+		return retval.toArray(new BundleDTO[0]);
 	}
 
 	/**
-	 * Calls osgi.core bundleState MBean listBundles operation
+	 * Calls osgi.core bundleState MBean listBundles operation for the
+	 * fragment flag of the bundles
 	 *
-	 * @return array of bundles in framework
+	 * @return ids of the fragments in framework
+	 * @throws Exception
 	 */
-	public BundleDTO[] listBundles() {
-		final List<BundleDTO> retval = new ArrayList<>();
+	public Set<Long> listFragmentIds() throws Exception {
+		final ObjectName bundleState = _getBundleState();
 
-		try {
-			final ObjectName bundleState = _getBundleState();
+		final Object[] params = {new String[] {"Identifier", "Fragment"}};
+
+		final String[] signature = {String[].class.getName()};
 
-			final Object[] params = {new String[] {"Identifier", "SymbolicName", "State", "Version"}};
+		final TabularData data = (TabularData)mBeanServerConnection.invoke(
+			bundleState, "listBundles", params, signature);
 
-			final String[] signature = {String[].class.getName()};
+		Set<Long> fragmentIds = new HashSet<>();
 
-			final TabularData data = (TabularData)mBeanServerConnection.invoke(
-				bundleState, "listBundles", params, signature);
+		for (Object value : data.values()) {
+			final CompositeData cd = (CompositeData)value;
 
-			for (Object value : data.values()) {
-				final CompositeData cd = (CompositeData)value;
+			if (Boolean.TRUE.equals(cd.get("Fragment"))) {
+				Object identifier = cd.get("Identifier");
 
-				try {
-					retval.add(_newFromData(cd));
-				}
-				catch (Exception e) {
-					e.printStackTrace();
-				}
+				fragmentIds.add(Long.parseLong(identifier.toString()));
 			}
 		}
-		catch (Exception e) {
-			e.printStackTrace();
-		}
 
-		return retval.toArray(new BundleDTO[0]);
+		return fragmentIds;
 	}
 
 	/**
@@ -151,13 +207,19 @@ public class JMXBundleDeployer extends JMXLocalConnector {
 	 * @throws Exception
 	 */
 	public void uninstall(long id) throws Exception {
-		final ObjectName framework = _getFramework(mBeanServerConnection);
+		final ObjectName framework = _getFramework();
 
 		Object[] objects = {id};
 
 		String[] params = {"long"};
 
 		mBeanServerConnection.invoke(framework, "uninstallBundle", objects, params);
+
+		if (_bundleIds != null) {
+			Collection<Long> values = _bundleIds.values();
+
+			values.remove(id);
+		}
 	}
 
 	/**
@@ -169,31 +231,15 @@ public class JMXBundleDeployer extends JMXLocalConnector {
 	 * @throws Exception
 	 */
 	public void uninstall(String bsn) throws Exception {
-		for (BundleDTO osgiBundle : listBundles()) {
-			if (osgiBundle.symbolicName.equals(bsn)) {
-				uninstall(osgiBundle.id);
+		Map<String, Long> bundleIds = _getBundleIds();
 
-				return;
-			}
-		}
-
-		throw new IllegalStateException("Unable to uninstall " + bsn);
-	}
+		Long bundleId = bundleIds.get(bsn);
 
-	private static ObjectName _getFramework(MBeanServerConnection mBeanServerConnection)
-		throws IOException, MalformedObjectNameException {
-
-		final ObjectName objectName = new ObjectName(_NAME + ":type=" + _TYPE + ",*");
-
-		final Set<ObjectName> objectNames = mBeanServerConnection.queryNames(objectName, null);
-
-		if ((objectNames != null) && !objectNames.isEmpty()) {
-			Iterator<ObjectName> iterator = objectNames.iterator();
-
-			return iterator.next();
+		if (bundleId == null) {
+			throw new IllegalStateException("Unable to uninstall " + bsn);
 		}
 
-		return null;
+		uninstall(bundleId);
 	}
 
 	private static BundleDTO _newFromData(CompositeData cd) {
@@ -235,18 +281,144 @@ public class JMXBundleDeployer extends JMXLocalConnector {
 		return dto;
 	}
 
+	private static long[] _toArray(Collection<Long> values) {
+		long[] array = new long[values.size()];
+
+		int i = 0;
+
+		for (Long value : values) {
+			array[i++] = value;
+		}
+
+		return array;
+	}
+
+	private Map<String, Long> _deploy(Map<String, String> bundleUrls) throws Exception {
+		final ObjectName framework = _getFramework();
+
+		final Map<String, Long> bundleIds = _getBundleIds();
+
+		Map<String, Long> deployedIds = new LinkedHashMap<>();
+
+		List<String> updateUrls = new ArrayList<>();
+		List<String> installBsns = new ArrayList<>();
+		List<String> installUrls = new ArrayList<>();
+
+		for (Map.Entry<String, String> entry : bundleUrls.entrySet()) {
+			String bsn = entry.getKey();
+
+			Long bundleId = bundleIds.get(bsn);
+
+			if (bundleId != null) {
+				deployedIds.put(bsn, bundleId);
+				updateUrls.add(entry.getValue());
+			}
+			else {
+				installBsns.add(bsn);
+				installUrls.add(entry.getValue());
+			}
+		}
+
+		if (!deployedIds.isEmpty()) {
+			long[] updateIds = _toArray(deployedIds.values());
+
+			_invokeBatch(framework, "stopBundles", new Object[] {updateIds}, new String[] {_LONG_ARRAY});
+
+			_invokeBatch(
+				framework, "updateBundlesFromURL",
+				new Object[] {updateIds, updateUrls.toArray(new String[0])},
+				new String[] {_LONG_ARRAY, _STRING_ARRAY});
+
+			mBeanServerConnection.invoke(
+				framework, "refreshBundles", new Object[] {updateIds}, new String[] {_LONG_ARRAY});
+		}
+
+		if (!installBsns.isEmpty()) {
+			String[] locations = installUrls.toArray(new String[0]);
+
+			CompositeData result = _invokeBatch(
+				framework, "installBundlesFromURL", new Object[] {locations, locations},
+				new String[] {_STRING_ARRAY, _STRING_ARRAY});
+
+			Long[] installedIds = (Long[])result.get("Completed");
+
+			for (int i = 0; i < installedIds.length; i++) {
+				String bsn = installBsns.get(i);
+
+				bundleIds.put(bsn, installedIds[i]);
+				deployedIds.put(bsn, installedIds[i]);
+			}
+		}
+
+		_invokeBatch(
+			framework, "startBundles", new Object[] {_toArray(deployedIds.values())},
+			new String[] {_LONG_ARRAY});
+
+		return deployedIds;
+	}
+
+	private Map<String, Long> _getBundleIds() throws Exception {
+		if (_bundleIds == null) {
+			listBundles();
+		}
+
+		return _bundleIds;
+	}
+
 	private ObjectName _getBundleState() throws IOException, MalformedObjectNameException {
-		ObjectName objectName = new ObjectName(_NAME + ":type=bundleState,*");
+		if (_bundleState == null) {
+			ObjectName objectName = new ObjectName(_NAME + ":type=bundleState,*");
+
+			Set<ObjectName> queryNames = mBeanServerConnection.queryNames(objectName, null);
+
+			Iterator<ObjectName> iterator = queryNames.iterator();
+
+			_bundleState = iterator.next();
+		}
+
+		return _bundleState;
+	}
 
-		Set<ObjectName> queryNames = mBeanServerConnection.queryNames(objectName, null);
+	private ObjectName _getFramework() throws IOException, MalformedObjectNameException {
+		if (_framework == null) {
+			final ObjectName objectName = new ObjectName(_NAME + ":type=" + _TYPE + ",*");
 
-		Iterator<ObjectName> iterator = queryNames.iterator();
+			final Set<ObjectName> objectNames = mBeanServerConnection.queryNames(objectName, null);
 
-		return iterator.next();
+			if ((objectNames != null) && !objectNames.isEmpty()) {
+				Iterator<ObjectName> iterator = objectNames.iterator();
+
+				_framework = iterator.next();
+			}
+		}
+
+		return _framework;
 	}
 
+	private CompositeData _invokeBatch(ObjectName framework, String operation, Object[] params, String[] signature)
+		throws Exception {
+
+		CompositeData result = (CompositeData)mBeanServerConnection.invoke(framework, operation, params, signature);
+
+		if (!Boolean.TRUE.equals(result.get("Success"))) {
+			throw new IllegalStateException(
+				"Framework " + operation + " failed on bundle " + result.get("BundleInError") + ": " +
+					result.get("Error"));
+		}
+
+		return result;
+	}
+
+	private static final String _LONG_ARRAY = long[].class.getName();
+
 	private static final String _NAME = "osgi.core";
 
+	private static final String _STRING_ARRAY = String[].class.getName();
+
 	private static final String _TYPE = "framework";
 
+	private Map<String, Long> _bundleIds;
+	private ObjectName _bundleState;
+	private ObjectName _framework;
+
 }
\ No newline at end of file
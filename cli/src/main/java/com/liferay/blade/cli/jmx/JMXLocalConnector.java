@@ -29,9 +29,11 @@ import java.net.URLClassLoader;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import javax.management.MBeanServerConnection;
@@ -44,19 +46,108 @@ import javax.management.remote.JMXServiceURL;
 /**
  * @author Gregory Amerson
  */
-public class JMXLocalConnector {
+public class JMXLocalConnector implements AutoCloseable {
 
 	/**
 	 * Uses Oracle JDK's Attach API to try to search VMs on this machine looking
 	 * for the osgi.core MBeans. This will stop searching for VMs once the
 	 * MBeans are found. Beware if you have multiple JVMs with osgi.core MBeans
-	 * published.
+	 * published. Addresses that were found are remembered for the lifetime of
+	 * this process so later connections don't need to attach again.
 	 * @param logger
 	 *
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	public static String getLocalConnectorAddress(String objName, Consumer<String> logger) {
+		String localConnectorAddress = _localConnectorAddresses.get(objName);
+
+		if (localConnectorAddress != null) {
+			logger.accept("Using cached localConnectorAddress=" + localConnectorAddress);
+
+			return localConnectorAddress;
+		}
+
+		localConnectorAddress = _findLocalConnectorAddress(objName, logger);
+
+		if (localConnectorAddress != null) {
+			_localConnectorAddresses.put(objName, localConnectorAddress);
+		}
+
+		return localConnectorAddress;
+	}
+
+	public JMXLocalConnector(int port) throws MalformedURLException {
+		this(new JMXServiceURL("service:jmx:rmi:///jndi/rmi://:" + port + "/jmxrmi"));
+	}
+
+	public JMXLocalConnector(JMXServiceURL serviceUrl) {
+		try {
+			_jmxConnector = JMXConnectorFactory.connect(serviceUrl, null);
+
+			mBeanServerConnection = _jmxConnector.getMBeanServerConnection();
+		}
+		catch (Exception e) {
+			throw new IllegalArgumentException("Unable to get JMX connection", e);
+		}
+	}
+
+	public JMXLocalConnector(String objectName, Consumer<String> logger) throws MalformedURLException {
+		this(_connect(objectName, logger));
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (_jmxConnector != null) {
+			_jmxConnector.close();
+		}
+	}
+
+	protected MBeanServerConnection mBeanServerConnection;
+
+	private JMXLocalConnector(JMXConnector jmxConnector) {
+		_jmxConnector = jmxConnector;
+
+		try {
+			mBeanServerConnection = _jmxConnector.getMBeanServerConnection();
+		}
+		catch (Exception e) {
+			throw new IllegalArgumentException("Unable to get JMX connection", e);
+		}
+	}
+
+	private static JMXConnector _connect(String objectName, Consumer<String> logger) throws MalformedURLException {
+		String localConnectorAddress = getLocalConnectorAddress(objectName, logger);
+
+		try {
+			return _connect(localConnectorAddress);
+		}
+		catch (IllegalArgumentException iae) {
+
+			// the cached address may belong to a vm that has since exited
+
+			if (!_localConnectorAddresses.remove(objectName, localConnectorAddress)) {
+				throw iae;
+			}
+
+			logger.accept("Cached localConnectorAddress is no longer valid, searching again...");
+
+			return _connect(getLocalConnectorAddress(objectName, logger));
+		}
+	}
+
+	private static JMXConnector _connect(String localConnectorAddress) throws MalformedURLException {
+		JMXServiceURL jmxServiceURL = new JMXServiceURL(localConnectorAddress);
+
+		try {
+			return JMXConnectorFactory.connect(jmxServiceURL, null);
+		}
+		catch (Exception e) {
+			throw new IllegalArgumentException("Unable to get JMX connection", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String _findLocalConnectorAddress(String objName, Consumer<String> logger) {
 		Thread thread = Thread.currentThread();
 
 		ClassLoader cl = thread.getContextClassLoader();
@@ -138,27 +229,6 @@ public class JMXLocalConnector {
 		return null;
 	}
 
-	public JMXLocalConnector(int port) throws MalformedURLException {
-		this(new JMXServiceURL("service:jmx:rmi:///jndi/rmi://:" + port + "/jmxrmi"));
-	}
-
-	public JMXLocalConnector(JMXServiceURL serviceUrl) {
-		try {
-			final JMXConnector jmxConnector = JMXConnectorFactory.connect(serviceUrl, null);
-
-			mBeanServerConnection = jmxConnector.getMBeanServerConnection();
-		}
-		catch (Exception e) {
-			throw new IllegalArgumentException("Unable to get JMX connection", e);
-		}
-	}
-
-	public JMXLocalConnector(String objectName, Consumer<String> logger) throws MalformedURLException {
-		this(new JMXServiceURL(getLocalConnectorAddress(objectName, logger)));
-	}
-
-	protected MBeanServerConnection mBeanServerConnection;
-
 	private static String _attach(
 		ClassLoader toolsClassloader, Class<?> vmClass, Object vmd, String name, Consumer<String> logger) {
 
@@ -314,4 +384,8 @@ public class JMXLocalConnector {
 		throw new IOException("Could not find tools.jar in JDK at this location: " + toolsJar);
 	}
 
+	private static final Map<String, String> _localConnectorAddresses = new ConcurrentHashMap<>();
+
+	private JMXConnector _jmxConnector;
+
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.jmx;
+
+import java.io.IOException;
+
+import java.net.MalformedURLException;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Samples the platform MBeans of a running Liferay JVM, like the heap, the
+ * garbage collectors, the threads and the thread pools of the app server,
+ * together with the states of the bundles in the OSGi framework. A flight
+ * recording can be started and stopped through the diagnostic command MBean
+ * of the JVM when it supports Java Flight Recorder.
+ *
+ * @author agent
+ */
+public class JMXRuntimeProfiler extends JMXLocalConnector {
+
+	public JMXRuntimeProfiler(Consumer<String> logger) throws MalformedURLException {
+		super(_OSGI_CORE + ":type=framework,*", logger);
+	}
+
+	public JMXRuntimeProfiler(JMXServiceURL serviceUrl) {
+		super(serviceUrl);
+	}
+
+	/**
+	 * Returns whether the JVM can record with Java Flight Recorder through the
+	 * diagnostic command MBean.
+	 */
+	public boolean isRecordingSupported() {
+		try {
+			MBeanInfo mBeanInfo = mBeanServerConnection.getMBeanInfo(_getDiagnosticCommand());
+
+			for (MBeanOperationInfo mBeanOperationInfo : mBeanInfo.getOperations()) {
+				if (_JFR_START.equals(mBeanOperationInfo.getName())) {
+					return true;
+				}
+			}
+		}
+		catch (IOException | JMException e) {
+		}
+
+		return false;
+	}
+
+	public Sample sample() throws IOException, JMException {
+		Sample sample = new Sample();
+
+		CompositeData heapMemoryUsage = (CompositeData)mBeanServerConnection.getAttribute(
+			new ObjectName("java.lang:type=Memory"), "HeapMemoryUsage");
+
+		sample._heapCommitted = (Long)heapMemoryUsage.get("committed");
+		sample._heapMax = (Long)heapMemoryUsage.get("max");
+		sample._heapUsed = (Long)heapMemoryUsage.get("used");
+
+		for (ObjectName garbageCollector : _queryNames("java.lang:type=GarbageCollector,*")) {
+			Long collectionCount = (Long)mBeanServerConnection.getAttribute(garbageCollector, "CollectionCount");
+			Long collectionTime = (Long)mBeanServerConnection.getAttribute(garbageCollector, "CollectionTime");
+
+			sample._gcCount += Math.max(collectionCount, 0);
+			sample._gcTime += Math.max(collectionTime, 0);
+		}
+
+		ObjectName threading = new ObjectName("java.lang:type=Threading");
+
+		sample._threadCount = (Integer)mBeanServerConnection.getAttribute(threading, "ThreadCount");
+
+		for (ObjectName threadPool : _queryNames("Catalina:type=ThreadPool,*")) {
+			Object currentThreadsBusy = mBeanServerConnection.getAttribute(threadPool, "currentThreadsBusy");
+
+			String name = threadPool.getKeyProperty("name");
+
+			if (name.startsWith("\"")) {
+				name = ObjectName.unquote(name);
+			}
+
+			sample._threadPoolsBusy.put(name, ((Number)currentThreadsBusy).intValue());
+		}
+
+		for (ObjectName bundleState : _queryNames(_OSGI_CORE + ":type=bundleState,*")) {
+			TabularData tabularData = (TabularData)mBeanServerConnection.invoke(
+				bundleState, "listBundles", new Object[] {new String[] {"SymbolicName", "State"}},
+				new String[] {String[].class.getName()});
+
+			for (Object value : tabularData.values()) {
+				CompositeData compositeData = (CompositeData)value;
+
+				String state = String.valueOf(compositeData.get("State"));
+
+				sample._bundleStates.merge(state, 1, Integer::sum);
+
+				if (!_settledStates.contains(state)) {
+					sample._unsettledBundles.put(String.valueOf(compositeData.get("SymbolicName")), state);
+				}
+			}
+
+			break;
+		}
+
+		return sample;
+	}
+
+	/**
+	 * Starts a flight recording with the settings, like <code>profile</code>
+	 * or <code>default</code>, that keeps its data until it's stopped.
+	 */
+	public void startRecording(String name, String settings) throws IOException, JMException {
+		_invokeDiagnosticCommand(_JFR_START, "name=" + name, "settings=" + settings);
+	}
+
+	/**
+	 * Stops the flight recording and writes it to the file.
+	 */
+	public void stopRecording(String name, Path jfrPath) throws IOException, JMException {
+		Path absolutePath = jfrPath.toAbsolutePath();
+
+		_invokeDiagnosticCommand(_JFR_STOP, "name=" + name, "filename=" + absolutePath);
+	}
+
+	private static ObjectName _getDiagnosticCommand() throws JMException {
+		return new ObjectName("com.sun.management:type=DiagnosticCommand");
+	}
+
+	private void _invokeDiagnosticCommand(String operation, String... arguments) throws IOException, JMException {
+		Object result = mBeanServerConnection.invoke(
+			_getDiagnosticCommand(), operation, new Object[] {arguments}, new String[] {String[].class.getName()});
+
+		if (result == null) {
+			return;
+		}
+
+		String message = result.toString();
+
+		if (message.contains("Could not") || message.contains("not enabled") || message.contains("failed")) {
+			throw new IllegalStateException(message.trim());
+		}
+	}
+
+	private Set<ObjectName> _queryNames(String name) throws IOException, JMException {
+		return mBeanServerConnection.queryNames(new ObjectName(name), null);
+	}
+
+	private static final String _JFR_START = "jfrStart";
+
+	private static final String _JFR_STOP = "jfrStop";
+
+	private static final String _OSGI_CORE = "osgi.core";
+
+	private static final Collection<String> _settledStates = Arrays.asList("ACTIVE", "RESOLVED");
+
+	/**
+	 * The values of the MBeans at one point in time. Counters like the number
+	 * of collections are totals since the JVM started.
+	 */
+	public static class Sample {
+
+		public Map<String, Integer> getBundleStates() {
+			return Collections.unmodifiableMap(_bundleStates);
+		}
+
+		public long getGcCount() {
+			return _gcCount;
+		}
+
+		public long getGcTime() {
+			return _gcTime;
+		}
+
+		public long getHeapCommitted() {
+			return _heapCommitted;
+		}
+
+		public long getHeapMax() {
+			return _heapMax;
+		}
+
+		public long getHeapUsed() {
+			return _heapUsed;
+		}
+
+		public int getThreadCount() {
+			return _threadCount;
+		}
+
+		public Map<String, Integer> getThreadPoolsBusy() {
+			return Collections.unmodifiableMap(_threadPoolsBusy);
+		}
+
+		public long getTime() {
+			return _time;
+		}
+
+		/**
+		 * Returns the state of each bundle that is neither active nor resolved,
+		 * keyed by its symbolic name.
+		 */
+		public Map<String, String> getUnsettledBundles() {
+			return Collections.unmodifiableMap(_unsettledBundles);
+		}
+
+		private final Map<String, Integer> _bundleStates = new TreeMap<>();
+		private long _gcCount;
+		private long _gcTime;
+		private long _heapCommitted;
+		private long _heapMax;
+		private long _heapUsed;
+		private int _threadCount;
+		private final Map<String, Integer> _threadPoolsBusy = new TreeMap<>();
+		private final long _time = System.currentTimeMillis();
+		private final Map<String, String> _unsettledBundles = new TreeMap<>();
+
+	}
+
+}
\ No newline at end of file
@@ -29,7 +29,6 @@ import groovy.json.JsonSlurper;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,6 +43,7 @@ import java.net.URL;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import java.security.CodeSource;
 import java.security.ProtectionDomain;
@@ -103,17 +103,52 @@ public class BladeUtil {
 		return _canConnect(localAddress, remoteAddress);
 	}
 
+	/**
+	 * Copies the master archive of the GitHub project to the target. Archives
+	 * are cached, a cached archive is always revalidated with a conditional
+	 * request first, so an extension is never installed from an outdated
+	 * archive but an unchanged one isn't downloaded again.
+	 */
 	public static void downloadGithubProject(String url, Path target) throws IOException {
 		String zipUrl = url + "/archive/master.zip";
 
-		downloadLink(zipUrl, target);
+		Path bladeCachePath = getBladeCachePath();
+
+		Path cachedPath = bladeCachePath.resolve("github/" + zipUrl.replaceAll("[^\\w.-]+", "-"));
+
+		if (Files.exists(cachedPath) && !isZipValid(cachedPath.toFile())) {
+			Files.delete(cachedPath);
+		}
+
+		CachedDownload cachedDownload = new CachedDownload(zipUrl, cachedPath, 0);
+
+		cachedDownload.revalidate();
+
+		Files.copy(cachedDownload.getCachedPath(), target, StandardCopyOption.REPLACE_EXISTING);
 	}
 
 	public static void downloadLink(String link, Path target) throws IOException {
+		downloadLink(link, target, null, null);
+	}
+
+	/**
+	 * Downloads the link to the target and verifies the checksum of the
+	 * downloaded file when one is given. An interrupted download is resumed
+	 * the next time the same link is downloaded to the same target.
+	 */
+	public static void downloadLink(String link, Path target, String checksumAlgorithm, String checksum)
+		throws IOException {
+
 		if (_isURLAvailable(link)) {
 			LinkDownloader downloader = new LinkDownloader(link, target);
 
-			downloader.run();
+			if (checksum != null) {
+				downloader.setChecksum(checksumAlgorithm, checksum);
+			}
+
+			downloader.setConnections(_DOWNLOAD_CONNECTIONS);
+
+			downloader.download();
 		}
 		else {
 			throw new RuntimeException("url '" + link + "' is not accessible.");
@@ -562,28 +597,9 @@ public class BladeUtil {
 	}
 
 	public static void tail(Path path, PrintStream printStream) throws IOException {
-		try (BufferedReader input = new BufferedReader(new FileReader(path.toFile()))) {
-			String currentLine = null;
-
-			while (true) {
-				if ((currentLine = input.readLine()) != null) {
-					printStream.println(currentLine);
-
-					continue;
-				}
-
-				try {
-					Thread.sleep(1000);
-				}
-				catch (InterruptedException ie) {
-					Thread currentThread = Thread.currentThread();
+		LogFollower logFollower = new LogFollower(path, printStream);
 
-					currentThread.interrupt();
-
-					break;
-				}
-			}
-		}
+		logFollower.follow();
 	}
 
 	public static void writePropertyValue(File propertyFile, String key, String value) throws Exception {
@@ -681,6 +697,8 @@ public class BladeUtil {
 
 	private static final String _DEFAULT_WORKSPACE_CACHE_DIR_NAME = ".liferay/workspace";
 
+	private static final int _DOWNLOAD_CONNECTIONS = 4;
+
 	private static final String _GRADLEW_UNIX_FILE_NAME = "gradlew";
 
 	private static final String _GRADLEW_WINDOWS_FILE_NAME = "gradlew.bat";
@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A store of extracted Liferay bundles, one pristine copy per bundle archive.
+ * A Liferay home is materialized from the pristine copy by hard linking the
+ * large binary files and copying the rest, so initializing a server again
+ * doesn't need to extract the bundle archive again.
+ *
+ * @author agent
+ */
+public class BundleStore {
+
+	/**
+	 * Materializes the Liferay home from another Liferay home, like a Liferay
+	 * home of a server instance from the main one. Directories are skipped if
+	 * the predicate matches their path relative to the source, like the state
+	 * of the OSGi framework.
+	 */
+	public static int materialize(Path sourcePath, Path homePath, Predicate<Path> excludeDirPredicate)
+		throws IOException {
+
+		return _sync(sourcePath, homePath, true, excludeDirPredicate);
+	}
+
+	/**
+	 * Copies the files of the directory into the Liferay home, files that have
+	 * the same size and modification time in the Liferay home are skipped.
+	 * Returns the number of files that were copied.
+	 */
+	public static int overlay(Path dirPath, Path homePath) throws IOException {
+		if (Files.notExists(dirPath)) {
+			return 0;
+		}
+
+		return _sync(dirPath, homePath, false, relativePath -> false);
+	}
+
+	public BundleStore(Path storePath) {
+		_storePath = storePath;
+	}
+
+	/**
+	 * Returns the pristine copy of the bundle archive, extracting the archive
+	 * into the store the first time.
+	 */
+	public synchronized Path getBundle(Path archivePath) throws IOException {
+		String archiveName = String.valueOf(archivePath.getFileName());
+
+		String bundleName = archiveName.replaceAll("\\.(tar\\.gz|tgz|zip)$", "");
+
+		Path bundlePath = _storePath.resolve(bundleName);
+
+		if (Files.exists(bundlePath)) {
+			return _getRootPath(bundlePath);
+		}
+
+		Files.createDirectories(_storePath);
+
+		Path lockPath = _storePath.resolve(bundleName + ".lock");
+
+		try (FileChannel fileChannel = FileChannel.open(
+				lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			FileLock fileLock = fileChannel.lock()) {
+
+			if (Files.exists(bundlePath)) {
+				return _getRootPath(bundlePath);
+			}
+
+			Path tempPath = Files.createTempDirectory(_storePath, bundleName);
+
+			try {
+				FileUtil.unpack(archivePath, tempPath, 0);
+
+				_setExecutable(tempPath);
+
+				Files.move(tempPath, bundlePath, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				if (Files.exists(tempPath)) {
+					FileUtil.deleteDir(tempPath);
+				}
+			}
+		}
+
+		return _getRootPath(bundlePath);
+	}
+
+	/**
+	 * Replaces the Liferay home with the pristine bundle. Like the initBundle
+	 * task, everything but the data directory is deleted first, so no
+	 * framework state, deployed modules, logs or configs of an earlier
+	 * initialization are left behind. Returns the number of files that were
+	 * linked or copied.
+	 */
+	public int materialize(Path bundlePath, Path homePath) throws IOException {
+		if (Files.exists(homePath)) {
+			_clean(homePath);
+		}
+
+		return _sync(bundlePath, homePath, true, relativePath -> false);
+	}
+
+	/**
+	 * Deletes everything in the Liferay home but the data directory, which
+	 * holds the database and the document library.
+	 */
+	private static void _clean(Path homePath) throws IOException {
+		try (Stream<Path> paths = Files.list(homePath)) {
+			Object[] children = paths.toArray();
+
+			for (Object child : children) {
+				Path childPath = (Path)child;
+
+				if (_DATA_DIR.equals(String.valueOf(childPath.getFileName()))) {
+					continue;
+				}
+
+				if (Files.isDirectory(childPath)) {
+					FileUtil.deleteDir(childPath);
+				}
+				else {
+					Files.delete(childPath);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the directory of the bundle inside the extracted archive, the
+	 * archives of Liferay bundles have a single top level folder.
+	 */
+	private static Path _getRootPath(Path bundlePath) throws IOException {
+		try (Stream<Path> paths = Files.list(bundlePath)) {
+			Object[] children = paths.toArray();
+
+			if ((children.length == 1) && Files.isDirectory((Path)children[0])) {
+				return (Path)children[0];
+			}
+		}
+
+		return bundlePath;
+	}
+
+	private static boolean _isLinkable(Path path) {
+		String fileName = String.valueOf(path.getFileName());
+
+		int index = fileName.lastIndexOf('.');
+
+		if (index == -1) {
+			return false;
+		}
+
+		return _linkableExtensions.contains(fileName.substring(index + 1));
+	}
+
+	private static boolean _isUpToDate(Path sourcePath, BasicFileAttributes sourceAttributes, Path targetPath)
+		throws IOException {
+
+		if (Files.notExists(targetPath)) {
+			return false;
+		}
+
+		BasicFileAttributes targetAttributes = Files.readAttributes(targetPath, BasicFileAttributes.class);
+
+		if ((sourceAttributes.size() == targetAttributes.size()) &&
+			sourceAttributes.lastModifiedTime().equals(targetAttributes.lastModifiedTime())) {
+
+			return true;
+		}
+
+		return Files.isSameFile(sourcePath, targetPath);
+	}
+
+	private static void _setExecutable(Path dirPath) throws IOException {
+		if (OSDetector.isWindows()) {
+			return;
+		}
+
+		Files.walkFileTree(
+			dirPath,
+			new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes basicFileAttributes)
+					throws IOException {
+
+					String fileName = String.valueOf(path.getFileName());
+
+					if (fileName.endsWith(".sh")) {
+						Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+
+						permissions.add(PosixFilePermission.GROUP_EXECUTE);
+						permissions.add(PosixFilePermission.OWNER_EXECUTE);
+
+						Files.setPosixFilePermissions(path, permissions);
+					}
+
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+	}
+
+	/**
+	 * Replaces the files of the target that differ from the source. A file is
+	 * replaced instead of written to, so a hard link in the target never
+	 * changes the pristine copy it's linked to.
+	 */
+	private static int _sync(
+			Path sourcePath, Path targetPath, boolean link, Predicate<Path> excludeDirPredicate)
+		throws IOException {
+
+		int[] count = {0};
+
+		Files.walkFileTree(
+			sourcePath,
+			new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dirPath, BasicFileAttributes basicFileAttributes)
+					throws IOException {
+
+					Path relativePath = sourcePath.relativize(dirPath);
+
+					if (excludeDirPredicate.test(relativePath)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+
+					Files.createDirectories(targetPath.resolve(_relativize(dirPath)));
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path path, BasicFileAttributes basicFileAttributes)
+					throws IOException {
+
+					Path destinationPath = targetPath.resolve(_relativize(path));
+
+					if (_isUpToDate(path, basicFileAttributes, destinationPath)) {
+						return FileVisitResult.CONTINUE;
+					}
+
+					Files.deleteIfExists(destinationPath);
+
+					if (link && _isLinkable(path)) {
+						try {
+							Files.createLink(destinationPath, path);
+
+							count[0]++;
+
+							return FileVisitResult.CONTINUE;
+						}
+						catch (IOException | UnsupportedOperationException e) {
+						}
+					}
+
+					Files.copy(path, destinationPath, StandardCopyOption.COPY_ATTRIBUTES);
+
+					count[0]++;
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				private String _relativize(Path path) {
+					return String.valueOf(sourcePath.relativize(path));
+				}
+
+			});
+
+		return count[0];
+	}
+
+	private static final String _DATA_DIR = "data";
+
+	private static final Collection<String> _linkableExtensions = Arrays.asList(
+		"class", "dll", "jar", "lpkg", "so", "war", "zip");
+
+	private final Path _storePath;
+
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Properties;
+
+/**
+ * A downloaded file kept in the blade cache together with the HTTP validators
+ * (ETag and Last-Modified) it was served with. A stale copy is revalidated
+ * against the validators the server reports, so it's only downloaded again when
+ * it changed on the server, and the revalidation can run in the background
+ * while the cached copy is used. Downloads go through {@link LinkDownloader},
+ * so redirects are followed and interrupted downloads are resumed.
+ *
+ * @author agent
+ */
+public class CachedDownload {
+
+	public CachedDownload(String link, Path cachedPath, long maxAge) {
+		_link = link;
+		_cachedPath = cachedPath;
+		_maxAge = maxAge;
+
+		_validatorsPath = cachedPath.resolveSibling(cachedPath.getFileName() + ".validators");
+	}
+
+	/**
+	 * Returns the cached file. It's downloaded if there is no cached copy yet,
+	 * a stale copy is returned right away and revalidated in the background for
+	 * the next time.
+	 */
+	public Path get() throws IOException {
+		if (Files.notExists(_cachedPath)) {
+			revalidate();
+		}
+		else if (isStale()) {
+			revalidateInBackground();
+		}
+
+		return _cachedPath;
+	}
+
+	public Path getCachedPath() {
+		return _cachedPath;
+	}
+
+	/**
+	 * Returns <code>true</code> if the cached copy wasn't checked against the
+	 * server for longer than the max age.
+	 */
+	public boolean isStale() throws IOException {
+		if (Files.notExists(_cachedPath)) {
+			return true;
+		}
+
+		long checked = 0;
+
+		Properties validators = _loadValidators();
+
+		String checkedValue = validators.getProperty(_CHECKED);
+
+		if (checkedValue != null) {
+			checked = Long.parseLong(checkedValue);
+		}
+		else {
+			FileTime lastModifiedTime = Files.getLastModifiedTime(_cachedPath);
+
+			checked = lastModifiedTime.toMillis();
+		}
+
+		if ((System.currentTimeMillis() - checked) > _maxAge) {
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks the cached copy against the server and downloads the file if it
+	 * changed. Returns <code>true</code> if the file was downloaded.
+	 */
+	public synchronized boolean revalidate() throws IOException {
+		_deleteTempFiles();
+
+		Properties validators = _loadValidators();
+
+		LinkDownloader linkDownloader = new LinkDownloader(_link, _cachedPath);
+
+		if (Files.exists(_cachedPath) &&
+			!linkDownloader.isModified(validators.getProperty(_ETAG), validators.getProperty(_LAST_MODIFIED))) {
+
+			_saveValidators(validators);
+
+			return false;
+		}
+
+		Files.createDirectories(_cachedPath.getParent());
+
+		linkDownloader.download();
+
+		validators.clear();
+
+		String eTag = linkDownloader.getETag();
+
+		if (eTag != null) {
+			validators.setProperty(_ETAG, eTag);
+		}
+
+		String lastModified = linkDownloader.getLastModified();
+
+		if (lastModified != null) {
+			validators.setProperty(_LAST_MODIFIED, lastModified);
+		}
+
+		_saveValidators(validators);
+
+		return true;
+	}
+
+	/**
+	 * Revalidates the cached copy in a daemon thread, so blade doesn't wait
+	 * for it before exiting. A download that is cut short that way is resumed
+	 * from its part file the next time, failures are ignored since the cached
+	 * copy is still usable and the next run tries again.
+	 */
+	public Thread revalidateInBackground() {
+		Thread thread = new Thread(
+			() -> {
+				try {
+					revalidate();
+				}
+				catch (IOException ioe) {
+				}
+			},
+			"blade-revalidate-" + _cachedPath.getFileName());
+
+		thread.setDaemon(true);
+
+		thread.start();
+
+		return thread;
+	}
+
+	/**
+	 * Deletes the temporary files a process that exited while writing the
+	 * cached copy or its validators left behind. Files younger than a minute
+	 * are kept as another process may still be writing them.
+	 */
+	private void _deleteTempFiles() throws IOException {
+		Path parentPath = _cachedPath.getParent();
+
+		if (Files.notExists(parentPath)) {
+			return;
+		}
+
+		long deadline = System.currentTimeMillis() - _TEMP_FILE_MAX_AGE;
+
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(
+				parentPath, _cachedPath.getFileName() + "*.tmp")) {
+
+			for (Path tempPath : directoryStream) {
+				FileTime lastModifiedTime = Files.getLastModifiedTime(tempPath);
+
+				if (lastModifiedTime.toMillis() < deadline) {
+					Files.deleteIfExists(tempPath);
+				}
+			}
+		}
+	}
+
+	private Properties _loadValidators() throws IOException {
+		Properties validators = new Properties();
+
+		if (Files.exists(_validatorsPath)) {
+			try (InputStream inputStream = Files.newInputStream(_validatorsPath)) {
+				validators.load(inputStream);
+			}
+		}
+
+		return validators;
+	}
+
+	private void _saveValidators(Properties validators) throws IOException {
+		validators.setProperty(_CHECKED, String.valueOf(System.currentTimeMillis()));
+		validators.setProperty(_LINK, _link);
+
+		Path tempPath = Files.createTempFile(
+			_validatorsPath.getParent(), String.valueOf(_validatorsPath.getFileName()), ".tmp");
+
+		try (OutputStream outputStream = Files.newOutputStream(tempPath)) {
+			validators.store(outputStream, null);
+		}
+
+		Files.move(tempPath, _validatorsPath, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static final String _CHECKED = "checked";
+
+	private static final String _ETAG = "etag";
+
+	private static final String _LAST_MODIFIED = "last-modified";
+
+	private static final String _LINK = "link";
+
+	private static final long _TEMP_FILE_MAX_AGE = 60000;
+
+	private final Path _cachedPath;
+	private final String _link;
+	private final long _maxAge;
+	private final Path _validatorsPath;
+
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Remembers the size and last modified time of every file in a tree so the
+ * changes a WatchService lost (after an OVERFLOW) can be recovered by scanning
+ * the tree again and comparing it to what was remembered.
+ *
+ * @author agent
+ */
+public class DirectorySnapshot {
+
+	/**
+	 * @param dirFilter
+	 *            directories that don't match are neither remembered nor
+	 *            descended into
+	 */
+	public DirectorySnapshot(Predicate<Path> dirFilter) {
+		_dirFilter = dirFilter;
+	}
+
+	/**
+	 * Remembers the given file, or the given directory and everything below
+	 * it.
+	 */
+	public void add(Path path) throws IOException {
+		_scan(path, _entries);
+	}
+
+	/**
+	 * Scans the tree at the given path again and returns what changed since it
+	 * was remembered, as the watch event kind that would have been reported for
+	 * it. Directories are only reported when created or deleted.
+	 */
+	public Map<Path, WatchEvent.Kind<Path>> rescan(Path path) throws IOException {
+		Map<Path, Entry> currentEntries = new HashMap<>();
+
+		_scan(path, currentEntries);
+
+		Map<Path, WatchEvent.Kind<Path>> changes = new LinkedHashMap<>();
+
+		Set<Map.Entry<Path, Entry>> entrySet = _entries.entrySet();
+
+		Iterator<Map.Entry<Path, Entry>> iterator = entrySet.iterator();
+
+		while (iterator.hasNext()) {
+			Map.Entry<Path, Entry> mapEntry = iterator.next();
+
+			Path entryPath = mapEntry.getKey();
+
+			if (!entryPath.startsWith(path) || currentEntries.containsKey(entryPath)) {
+				continue;
+			}
+
+			changes.put(entryPath, StandardWatchEventKinds.ENTRY_DELETE);
+
+			iterator.remove();
+		}
+
+		for (Map.Entry<Path, Entry> mapEntry : currentEntries.entrySet()) {
+			Path entryPath = mapEntry.getKey();
+			Entry entry = mapEntry.getValue();
+
+			Entry previousEntry = _entries.put(entryPath, entry);
+
+			if (previousEntry == null) {
+				changes.put(entryPath, StandardWatchEventKinds.ENTRY_CREATE);
+			}
+			else if (!entry.directory && !entry.equals(previousEntry)) {
+				changes.put(entryPath, StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+		}
+
+		return changes;
+	}
+
+	public int size() {
+		return _entries.size();
+	}
+
+	/**
+	 * Refreshes what is remembered for a single path after a watch event was
+	 * handled for it, so a later rescan doesn't report it again.
+	 */
+	public void update(Path path) {
+		try {
+			BasicFileAttributes basicFileAttributes = Files.readAttributes(
+				path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+			if (basicFileAttributes.isDirectory()) {
+				if (!_entries.containsKey(path)) {
+					add(path);
+				}
+			}
+			else {
+				_entries.put(path, new Entry(basicFileAttributes));
+			}
+		}
+		catch (IOException ioe) {
+			Set<Path> entryPaths = _entries.keySet();
+
+			entryPaths.removeIf(entryPath -> entryPath.startsWith(path));
+		}
+	}
+
+	private void _scan(Path path, Map<Path, Entry> entries) throws IOException {
+		if (Files.notExists(path)) {
+			return;
+		}
+
+		Files.walkFileTree(
+			path,
+			new SimpleFileVisitor<Path>() {
+
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes basicFileAttributes) {
+					if (!_dirFilter.test(dir)) {
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+
+					entries.put(dir, new Entry(basicFileAttributes));
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes basicFileAttributes) {
+					entries.put(file, new Entry(basicFileAttributes));
+
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException ioe) {
+
+					// the file may have been deleted while walking
+
+					return FileVisitResult.CONTINUE;
+				}
+
+			});
+	}
+
+	private final Predicate<Path> _dirFilter;
+	private final Map<Path, Entry> _entries = new HashMap<>();
+
+	private static class Entry {
+
+		public Entry(BasicFileAttributes basicFileAttributes) {
+			directory = basicFileAttributes.isDirectory();
+			size = basicFileAttributes.size();
+
+			FileTime lastModifiedTime = basicFileAttributes.lastModifiedTime();
+
+			lastModified = lastModifiedTime.toMillis();
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (this == object) {
+				return true;
+			}
+
+			if (!(object instanceof Entry)) {
+				return false;
+			}
+
+			Entry entry = (Entry)object;
+
+			if ((directory == entry.directory) && (lastModified == entry.lastModified) && (size == entry.size)) {
+				return true;
+			}
+
+			return false;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(directory, lastModified, size);
+		}
+
+		public final boolean directory;
+		public final long lastModified;
+		public final long size;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,268 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves local files over HTTP so a runtime that doesn't share our file system
+ * (a container or a remote host) can fetch bundles from us instead of being
+ * handed <code>file:</code> URIs. Only files that were published are served,
+ * byte range requests are supported so interrupted transfers can be resumed
+ * and ETags are sent so clients can revalidate their cached copies. The server
+ * only listens on the address it is published under, not on all interfaces.
+ *
+ * @author agent
+ */
+public class FileServer implements AutoCloseable {
+
+	/**
+	 * Returns the address of this machine that is used to reach the given
+	 * remote host, which is usually also the address the remote host can use
+	 * to reach us.
+	 */
+	public static String getLocalAddress(String remoteHost, int remotePort) throws IOException {
+		try (DatagramSocket datagramSocket = new DatagramSocket()) {
+			datagramSocket.connect(InetAddress.getByName(remoteHost), remotePort);
+
+			InetAddress localAddress = datagramSocket.getLocalAddress();
+
+			return localAddress.getHostAddress();
+		}
+	}
+
+	public FileServer(String host) throws IOException {
+		this(host, 0);
+	}
+
+	public FileServer(String host, int port) throws IOException {
+		_host = host;
+
+		_httpServer = HttpServer.create(new InetSocketAddress(host, port), 0);
+
+		_executorService = Executors.newCachedThreadPool(
+			runnable -> {
+				Thread thread = new Thread(runnable, "blade-file-server");
+
+				thread.setDaemon(true);
+
+				return thread;
+			});
+
+		_httpServer.createContext("/", this::_handle);
+		_httpServer.setExecutor(_executorService);
+
+		_httpServer.start();
+	}
+
+	@Override
+	public void close() {
+		_httpServer.stop(0);
+
+		_executorService.shutdownNow();
+	}
+
+	public int getPort() {
+		InetSocketAddress address = _httpServer.getAddress();
+
+		return address.getPort();
+	}
+
+	/**
+	 * Makes the file available to remote runtimes. Publishing the same file
+	 * again returns the same URI, the current content of the file is served on
+	 * every request.
+	 */
+	public URI publish(Path path) {
+		Path absolutePath = path.toAbsolutePath();
+
+		String token = _tokens.computeIfAbsent(
+			absolutePath,
+			key -> {
+				String uuid = String.valueOf(UUID.randomUUID());
+
+				_files.put(uuid, key);
+
+				return uuid;
+			});
+
+		try {
+			return new URI(
+				"http", null, _host, getPort(), "/" + token + "/" + String.valueOf(absolutePath.getFileName()), null,
+				null);
+		}
+		catch (URISyntaxException urise) {
+			throw new IllegalArgumentException(urise);
+		}
+	}
+
+	private void _handle(HttpExchange httpExchange) throws IOException {
+		try {
+			String method = httpExchange.getRequestMethod();
+
+			if (!Objects.equals(method, "GET") && !Objects.equals(method, "HEAD")) {
+				httpExchange.sendResponseHeaders(405, -1);
+
+				return;
+			}
+
+			URI requestURI = httpExchange.getRequestURI();
+
+			String[] segments = requestURI.getPath().split("/");
+
+			Path path = null;
+
+			if (segments.length > 1) {
+				path = _files.get(segments[1]);
+			}
+
+			if ((path == null) || !Files.isRegularFile(path)) {
+				httpExchange.sendResponseHeaders(404, -1);
+
+				return;
+			}
+
+			Headers requestHeaders = httpExchange.getRequestHeaders();
+			Headers responseHeaders = httpExchange.getResponseHeaders();
+
+			responseHeaders.set("Accept-Ranges", "bytes");
+			responseHeaders.set("Content-Type", "application/octet-stream");
+
+			FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+
+			String eTag = "\"" + Files.size(path) + "-" + lastModifiedTime.toMillis() + "\"";
+
+			responseHeaders.set("ETag", eTag);
+
+			if (Objects.equals(eTag, requestHeaders.getFirst("If-None-Match"))) {
+				httpExchange.sendResponseHeaders(304, -1);
+
+				return;
+			}
+
+			try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+				long size = fileChannel.size();
+
+				long start = 0;
+				long end = size - 1;
+
+				String range = requestHeaders.getFirst("Range");
+
+				int status = 200;
+
+				if (range != null) {
+					Matcher matcher = _rangePattern.matcher(range.trim());
+
+					if (!matcher.matches()) {
+						responseHeaders.set("Content-Range", "bytes */" + size);
+
+						httpExchange.sendResponseHeaders(416, -1);
+
+						return;
+					}
+
+					start = Long.parseLong(matcher.group(1));
+
+					if (!matcher.group(2).isEmpty()) {
+						end = Math.min(end, Long.parseLong(matcher.group(2)));
+					}
+
+					if ((start >= size) || (start > end)) {
+						responseHeaders.set("Content-Range", "bytes */" + size);
+
+						httpExchange.sendResponseHeaders(416, -1);
+
+						return;
+					}
+
+					responseHeaders.set("Content-Range", "bytes " + start + "-" + end + "/" + size);
+
+					status = 206;
+				}
+
+				long length = end - start + 1;
+
+				if (Objects.equals(method, "HEAD")) {
+					responseHeaders.set("Content-Length", String.valueOf(length));
+
+					httpExchange.sendResponseHeaders(status, -1);
+
+					return;
+				}
+
+				httpExchange.sendResponseHeaders(status, (length == 0) ? -1 : length);
+
+				try (OutputStream outputStream = httpExchange.getResponseBody()) {
+					WritableByteChannel writableByteChannel = Channels.newChannel(outputStream);
+
+					long position = start;
+
+					while (position <= end) {
+						long transferred = fileChannel.transferTo(
+							position, end - position + 1, writableByteChannel);
+
+						if (transferred <= 0) {
+							break;
+						}
+
+						position += transferred;
+					}
+				}
+			}
+		}
+		finally {
+			httpExchange.close();
+		}
+	}
+
+	private static final Pattern _rangePattern = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+	private final ExecutorService _executorService;
+	private final Map<String, Path> _files = new ConcurrentHashMap<>();
+	private final String _host;
+	private final HttpServer _httpServer;
+	private final Map<Path, String> _tokens = new ConcurrentHashMap<>();
+
+}
\ No newline at end of file
@@ -48,10 +48,15 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Example to watch a directory (or tree) for changes to files.
@@ -69,36 +74,134 @@ public class FileWatcher {
 		this(baseDir, null, recursive, consumer);
 	}
 
+	/**
+	 * Watches only the given files. Instead of registering every directory
+	 * under the base dir only the directories that contain, or will contain,
+	 * one of the files are registered. Changes are handed to the consumer in
+	 * batches once no more events arrived for the settle interval.
+	 */
+	public FileWatcher(Path baseDir, Collection<Path> filesToWatch, long settleMillis, Consumer<Set<Path>> consumer)
+		throws IOException {
+
+		this(baseDir, false, filesToWatch, settleMillis);
+
+		_registerFilesToWatch();
+
+		for (Path fileToWatch : _filesToWatch) {
+			_snapshot.add(fileToWatch);
+		}
+
+		_processEvents(_filesToWatch::contains, consumer);
+	}
+
 	/**
 	 * Creates a WatchService and registers the given directory
 	 * @param runnable
 	 */
 	public FileWatcher(Path baseDir, Path fileToWatch, boolean recursive, Consumer<Path> consumer) throws IOException {
+		this(baseDir, recursive, null, 0);
+
+		System.out.format("Scanning %s\n", baseDir);
+
+		_registerBaseDir();
+
+		processEvents(fileToWatch, consumer);
+	}
+
+	/**
+	 * Process all events for keys queued to the watcher
+	 * @param fileToWatch
+	 * @param runnable
+	 * @throws IOException if the watched files can't be rescanned after events
+	 *         were lost
+	 */
+	public void processEvents(Path fileToWatch, Consumer<Path> consumer) throws IOException {
+		_processEvents(
+			child -> child.equals(fileToWatch) || (fileToWatch == null),
+			modifiedPaths -> {
+				for (Path modified : modifiedPaths) {
+					try {
+						consumer.consume(modified);
+					}
+					catch (Throwable t) {
+						//ignore
+					}
+				}
+			});
+	}
+
+	public interface Consumer<E> {
+
+		public void consume(E reference);
+
+	}
+
+	private FileWatcher(Path baseDir, boolean recursive, Collection<Path> filesToWatch, long settleMillis)
+		throws IOException {
+
 		FileSystem fileSystem = FileSystems.getDefault();
 
 		_watcher = fileSystem.newWatchService();
 
+		_baseDir = baseDir.toAbsolutePath();
 		_keys = new HashMap<>();
 		_recursive = recursive;
+		_settleMillis = settleMillis;
 
-		System.out.format("Scanning %s\n", baseDir);
+		if (filesToWatch != null) {
+			_filesToWatch = new HashSet<>();
+
+			for (Path fileToWatch : filesToWatch) {
+				fileToWatch = fileToWatch.toAbsolutePath();
 
-		if (recursive) {
-			_registerAll(baseDir);
+				_filesToWatch.add(fileToWatch.normalize());
+			}
 		}
 		else {
-			_register(baseDir);
+			_filesToWatch = null;
 		}
 
-		processEvents(fileToWatch, consumer);
+		_snapshot = new DirectorySnapshot(
+			dir -> {
+				if (dir.equals(_baseDir)) {
+					return true;
+				}
+
+				return _recursive;
+			});
+
+		if (settleMillis > 0) {
+			_watchKinds = _CREATE_AND_MODIFY_WATCH_KINDS;
+		}
+		else {
+			_watchKinds = _CREATE_WATCH_KINDS;
+		}
+	}
+
+	private void _deliver(Set<Path> modifiedPaths, Consumer<Set<Path>> consumer) {
+		try {
+			consumer.consume(modifiedPaths);
+		}
+		catch (Throwable t) {
+			//ignore
+		}
 	}
 
 	/**
-	 * Process all events for keys queued to the watcher
-	 * @param fileToWatch
-	 * @param runnable
+	 * Waits for events and hands every created or modified path accepted by
+	 * the filter to the consumer. With a settle interval the paths are
+	 * collected until the watcher was quiet for that long, but never longer
+	 * than ten intervals, so a burst of events (a jar being written, a build
+	 * replacing many files) results in one batch. Stops with the exception if
+	 * the watched files can't be rescanned after events were lost, as it's no
+	 * longer known what changed.
 	 */
-	public void processEvents(Path fileToWatch, Consumer<Path> consumer) {
+	private void _processEvents(Predicate<Path> filter, Consumer<Set<Path>> consumer) throws IOException {
+		Set<Path> pending = new LinkedHashSet<>();
+
+		long firstEventTime = 0;
+		long lastEventTime = 0;
+
 		while (true) {
 
 			// wait for key to be signalled
@@ -106,7 +209,28 @@ public class FileWatcher {
 			WatchKey key;
 
 			try {
-				key = _watcher.take();
+				if (pending.isEmpty()) {
+					key = _watcher.take();
+				}
+				else {
+					long now = System.currentTimeMillis();
+
+					long deadline = Math.min(lastEventTime + _settleMillis, firstEventTime + (_settleMillis * 10));
+
+					key = null;
+
+					if (deadline > now) {
+						key = _watcher.poll(deadline - now, TimeUnit.MILLISECONDS);
+					}
+
+					if (key == null) {
+						_deliver(pending, consumer);
+
+						pending = new LinkedHashSet<>();
+
+						continue;
+					}
+				}
 			}
 			catch (InterruptedException ie) {
 				return;
@@ -120,14 +244,17 @@ public class FileWatcher {
 				continue;
 			}
 
-			final Set<Path> reportModified = new HashSet<>();
+			final Set<Path> reportModified = new LinkedHashSet<>();
 
 			for (WatchEvent<?> event : key.pollEvents()) {
 				WatchEvent.Kind<?> kind = event.kind();
 
-				// TBD - provide example of how OVERFLOW event is handled
+				// events were lost, find out what changed by comparing the
+				// watched files to the last snapshot of them
 
 				if (kind == StandardWatchEventKinds.OVERFLOW) {
+					reportModified.addAll(_rescan(filter));
+
 					continue;
 				}
 
@@ -139,7 +266,9 @@ public class FileWatcher {
 
 				Path child = dir.resolve(name);
 
-				if ((child.equals(fileToWatch) || (fileToWatch == null)) &&
+				_snapshot.update(child);
+
+				if (filter.test(child) &&
 					((kind == StandardWatchEventKinds.ENTRY_CREATE) ||
 					 (kind == StandardWatchEventKinds.ENTRY_MODIFY))) {
 
@@ -149,10 +278,15 @@ public class FileWatcher {
 				// if directory is created, and watching recursively, then
 				// register it and its sub-directories
 
-				if (_recursive && (kind == StandardWatchEventKinds.ENTRY_CREATE)) {
+				if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
 					try {
 						if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
-							_registerAll(child);
+							if (_recursive) {
+								_registerAll(child);
+							}
+							else if (_filesToWatch != null) {
+								reportModified.addAll(_registerFilesToWatch());
+							}
 						}
 					}
 					catch (IOException ioe) {
@@ -164,13 +298,19 @@ public class FileWatcher {
 			}
 
 			if (!reportModified.isEmpty()) {
-				for (Path modified : reportModified) {
-					try {
-						consumer.consume(modified);
-					}
-					catch (Throwable t) {
-						//ignore
+				if (_settleMillis > 0) {
+					long now = System.currentTimeMillis();
+
+					if (pending.isEmpty()) {
+						firstEventTime = now;
 					}
+
+					lastEventTime = now;
+
+					pending.addAll(reportModified);
+				}
+				else {
+					_deliver(reportModified, consumer);
 				}
 			}
 
@@ -181,21 +321,30 @@ public class FileWatcher {
 			if (!valid) {
 				_keys.remove(key);
 
+				// a watched directory was deleted (e.g. by a clean), watch its
+				// nearest existing parent until it gets created again
+
+				if (_filesToWatch != null) {
+					try {
+						_registerFilesToWatch();
+					}
+					catch (IOException ioe) {
+					}
+				}
+
 				// all directories are inaccessible
 
 				if (_keys.isEmpty()) {
+					if (!pending.isEmpty()) {
+						_deliver(pending, consumer);
+					}
+
 					break;
 				}
 			}
 		}
 	}
 
-	public interface Consumer<E> {
-
-		public void consume(E reference);
-
-	}
-
 	/**
 	 * Register the given directory with the WatchService
 	 */
@@ -215,10 +364,10 @@ public class FileWatcher {
 		WatchKey key;
 
 		if (modifier != null) {
-			key = dir.register(_watcher, _WATCH_KINDS, modifier);
+			key = dir.register(_watcher, _watchKinds, modifier);
 		}
 		else {
-			key = dir.register(_watcher, _WATCH_KINDS);
+			key = dir.register(_watcher, _watchKinds);
 		}
 
 		_keys.put(key, dir);
@@ -246,11 +395,114 @@ public class FileWatcher {
 			});
 	}
 
+	private void _registerBaseDir() throws IOException {
+		if (_recursive) {
+			_registerAll(_baseDir);
+		}
+		else {
+			_register(_baseDir);
+		}
+
+		_snapshot.add(_baseDir);
+	}
+
+	/**
+	 * For every file to watch register the nearest existing directory on the
+	 * way from the base dir to the file. Once a missing directory gets
+	 * created this is called again, so the watch moves closer to the file.
+	 *
+	 * @return the files to watch that already exist in newly registered
+	 *         directories, as they may have been created before the directory
+	 *         was registered
+	 */
+	private Set<Path> _registerFilesToWatch() throws IOException {
+		Set<Path> existingFiles = new HashSet<>();
+
+		Collection<Path> registeredDirs = _keys.values();
+
+		for (Path fileToWatch : _filesToWatch) {
+			Path dir = fileToWatch.getParent();
+
+			while ((dir != null) && !Files.isDirectory(dir) && dir.startsWith(_baseDir)) {
+				dir = dir.getParent();
+			}
+
+			if ((dir == null) || !Files.isDirectory(dir) || registeredDirs.contains(dir)) {
+				continue;
+			}
+
+			_register(dir);
+
+			if (Files.exists(fileToWatch)) {
+				existingFiles.add(fileToWatch);
+			}
+		}
+
+		return existingFiles;
+	}
+
+	/**
+	 * Compares the watched files to the last snapshot, registers directories
+	 * that were created in the meantime and returns the created or modified
+	 * files accepted by the filter.
+	 */
+	private Set<Path> _rescan(Predicate<Path> filter) throws IOException {
+		Set<Path> modifiedPaths = new LinkedHashSet<>();
+
+		Map<Path, WatchEvent.Kind<Path>> changes = new LinkedHashMap<>();
+
+		if (_filesToWatch != null) {
+			for (Path fileToWatch : _filesToWatch) {
+				changes.putAll(_snapshot.rescan(fileToWatch));
+			}
+
+			modifiedPaths.addAll(_registerFilesToWatch());
+		}
+		else {
+			changes.putAll(_snapshot.rescan(_baseDir));
+		}
+
+		for (Map.Entry<Path, WatchEvent.Kind<Path>> entry : changes.entrySet()) {
+			Path path = entry.getKey();
+			WatchEvent.Kind<Path> kind = entry.getValue();
+
+			if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+				continue;
+			}
+
+			if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+				if (_recursive && (kind == StandardWatchEventKinds.ENTRY_CREATE)) {
+					_register(path);
+				}
+
+				continue;
+			}
+
+			if (filter.test(path)) {
+				modifiedPaths.add(path);
+			}
+		}
+
+		return modifiedPaths;
+	}
+
 	@SuppressWarnings("rawtypes")
-	private static final WatchEvent.Kind[] _WATCH_KINDS = {StandardWatchEventKinds.ENTRY_CREATE};
+	private static final WatchEvent.Kind[] _CREATE_AND_MODIFY_WATCH_KINDS = {
+		StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY
+	};
 
+	@SuppressWarnings("rawtypes")
+	private static final WatchEvent.Kind[] _CREATE_WATCH_KINDS = {StandardWatchEventKinds.ENTRY_CREATE};
+
+	private final Path _baseDir;
+	private final Set<Path> _filesToWatch;
 	private final Map<WatchKey, Path> _keys;
 	private final boolean _recursive;
+	private final long _settleMillis;
+	private final DirectorySnapshot _snapshot;
 	private final WatchService _watcher;
 
+	@SuppressWarnings("rawtypes")
+	private final WatchEvent.Kind[] _watchKinds;
+
 }
\ No newline at end of file
@@ -16,18 +16,44 @@
 
 package com.liferay.blade.cli.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import java.net.HttpURLConnection;
 import java.net.URL;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
+ * Downloads a link to a file. The content is written to a <code>.part</code>
+ * file next to the target that is moved in place once it's complete (and the
+ * checksum matches if one was given), so the target is never left half
+ * written. If the server supports byte ranges an interrupted download is
+ * resumed from the partial file, and large files can be fetched over several
+ * connections at once.
+ *
  * @author Christopher Bryan Boyd
  */
 public class LinkDownloader implements Runnable {
@@ -37,97 +63,521 @@ public class LinkDownloader implements Runnable {
 		_target = target;
 	}
 
+	/**
+	 * Downloads the link and returns the path of the downloaded file.
+	 */
+	public Path download() throws IOException {
+		Resource resource = _getResource();
+
+		Path savePath = _target;
+
+		if (Files.isDirectory(_target)) {
+			savePath = _target.resolve(_getFileName(resource.getURL()));
+		}
+
+		Path partPath = savePath.resolveSibling(savePath.getFileName() + _PART_EXTENSION);
+		Path validatorsPath = savePath.resolveSibling(savePath.getFileName() + _VALIDATORS_EXTENSION);
+
+		long length = resource.getLength();
+
+		boolean segmented = false;
+
+		if (resource.isResumable() && (_connections > 1) && (length >= (_MIN_SEGMENT_LENGTH * 2))) {
+			segmented = true;
+		}
+
+		Properties streamValidators = resource.getValidators(_MODE_STREAM);
+
+		long resumeFrom = 0;
+
+		// only a part file written by a single stream is a prefix of the file,
+		// the segments of a parallel download that was killed leave gaps
+
+		if (Files.exists(partPath) && resource.isResumable() &&
+			Objects.equals(streamValidators, _loadValidators(validatorsPath))) {
+
+			resumeFrom = Files.size(partPath);
+
+			segmented = false;
+		}
+		else {
+			Files.deleteIfExists(partPath);
+		}
+
+		if (segmented) {
+			_saveValidators(validatorsPath, resource.getValidators(_MODE_SEGMENTS));
+		}
+		else {
+			_saveValidators(validatorsPath, streamValidators);
+		}
+
+		try (FileChannel fileChannel = FileChannel.open(
+				partPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+			if (segmented) {
+				try {
+					_downloadSegments(resource, fileChannel);
+				}
+				catch (IOException ioe) {
+					fileChannel.close();
+
+					Files.deleteIfExists(partPath);
+
+					throw ioe;
+				}
+			}
+			else if ((length < 0) || (resumeFrom < length)) {
+				_downloadStream(resource, fileChannel, resumeFrom);
+			}
+		}
+
+		if (_checksum != null) {
+			String checksum = _digest(partPath, _checksumAlgorithm);
+
+			if (!_checksum.equalsIgnoreCase(checksum)) {
+				Files.deleteIfExists(partPath);
+				Files.deleteIfExists(validatorsPath);
+
+				throw new IOException(
+					"The " + _checksumAlgorithm + " checksum of " + _link + " is " + checksum + " but " + _checksum +
+						" was expected");
+			}
+		}
+
+		try {
+			Files.move(partPath, savePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException amnse) {
+			Files.move(partPath, savePath, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		Files.deleteIfExists(validatorsPath);
+
+		return savePath;
+	}
+
+	/**
+	 * Returns the ETag the link is served with, or <code>null</code> if the
+	 * server didn't send one or the link wasn't resolved yet.
+	 */
+	public String getETag() {
+		if (_resource == null) {
+			return null;
+		}
+
+		return _resource.getETag();
+	}
+
+	/**
+	 * Returns the Last-Modified date the link is served with, or
+	 * <code>null</code> if the server didn't send one or the link wasn't
+	 * resolved yet.
+	 */
+	public String getLastModified() {
+		if (_resource == null) {
+			return null;
+		}
+
+		return _resource.getLastModified();
+	}
+
+	/**
+	 * Returns <code>true</code> unless the server reports the same ETag or,
+	 * without ETags, the same Last-Modified date as given. The resolved link
+	 * is kept, so a following download doesn't need to resolve it again.
+	 */
+	public boolean isModified(String eTag, String lastModified) throws IOException {
+		Resource resource = _getResource();
+
+		if ((eTag != null) && (resource.getETag() != null)) {
+			return !eTag.equals(resource.getETag());
+		}
+
+		if ((lastModified != null) && (resource.getLastModified() != null)) {
+			return !lastModified.equals(resource.getLastModified());
+		}
+
+		return true;
+	}
+
 	@Override
 	public void run() {
-		Redirecter redirecter = new Redirecter(_link);
+		try {
+			download();
+		}
+		catch (IOException ioe) {
+			throw new RuntimeException(ioe);
+		}
+	}
 
-		redirecter.run();
+	/**
+	 * Sets the checksum the downloaded file must have, the download fails if
+	 * it doesn't match.
+	 */
+	public void setChecksum(String algorithm, String checksum) {
+		_checksumAlgorithm = algorithm;
+		_checksum = checksum;
+	}
 
-		_save(redirecter._httpURLConnection);
+	/**
+	 * Sets the number of connections that are used to download large files
+	 * from servers that support byte ranges.
+	 */
+	public void setConnections(int connections) {
+		_connections = Math.max(1, connections);
 	}
 
-	private String _getFileName(URL url) {
-		Path path = Paths.get(url.getFile());
+	private static long _copy(InputStream inputStream, FileChannel fileChannel, long position) throws IOException {
+		long start = position;
 
-		return String.valueOf(path.getFileName());
+		ByteBuffer byteBuffer = ByteBuffer.allocate(_BUFFER_SIZE);
+
+		try (ReadableByteChannel readableByteChannel = Channels.newChannel(inputStream)) {
+			while (readableByteChannel.read(byteBuffer) != -1) {
+				byteBuffer.flip();
+
+				while (byteBuffer.hasRemaining()) {
+					position += fileChannel.write(byteBuffer, position);
+				}
+
+				byteBuffer.clear();
+			}
+		}
+
+		return position - start;
 	}
 
-	private void _save(HttpURLConnection httpURLConnection) {
-		Path savePath = _target;
+	private static String _digest(Path path, String algorithm) throws IOException {
+		MessageDigest messageDigest;
 
 		try {
-			if (Files.isDirectory(_target)) {
-				savePath = _target.resolve(_getFileName(httpURLConnection.getURL()));
+			messageDigest = MessageDigest.getInstance(algorithm);
+		}
+		catch (NoSuchAlgorithmException nsae) {
+			throw new IOException(nsae);
+		}
+
+		ByteBuffer byteBuffer = ByteBuffer.allocate(_BUFFER_SIZE);
+
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+			while (fileChannel.read(byteBuffer) != -1) {
+				byteBuffer.flip();
+
+				messageDigest.update(byteBuffer);
+
+				byteBuffer.clear();
 			}
+		}
 
-			Files.copy(httpURLConnection.getInputStream(), savePath, StandardCopyOption.REPLACE_EXISTING);
+		StringBuilder sb = new StringBuilder();
+
+		for (byte b : messageDigest.digest()) {
+			sb.append(String.format("%02x", b));
+		}
+
+		return sb.toString();
+	}
+
+	private static String _getFileName(URL url) {
+		Path path = Paths.get(url.getPath());
+
+		return String.valueOf(path.getFileName());
+	}
+
+	private static Properties _loadValidators(Path validatorsPath) throws IOException {
+		Properties validators = new Properties();
+
+		if (Files.exists(validatorsPath)) {
+			try (InputStream inputStream = Files.newInputStream(validatorsPath)) {
+				validators.load(inputStream);
+			}
 		}
-		catch (Exception e) {
-			throw new RuntimeException(e);
+
+		return validators;
+	}
+
+	private static HttpURLConnection _openConnection(URL url, String method) throws IOException {
+		HttpURLConnection httpURLConnection = (HttpURLConnection)url.openConnection();
+
+		httpURLConnection.setConnectTimeout(_CONNECT_TIMEOUT);
+		httpURLConnection.setInstanceFollowRedirects(true);
+		httpURLConnection.setReadTimeout(_READ_TIMEOUT);
+		httpURLConnection.setRequestMethod(method);
+
+		return httpURLConnection;
+	}
+
+	private static void _saveValidators(Path validatorsPath, Properties validators) throws IOException {
+		try (OutputStream outputStream = Files.newOutputStream(validatorsPath)) {
+			validators.store(outputStream, null);
 		}
 	}
 
-	private String _link;
-	private Path _target;
+	private void _downloadSegments(Resource resource, FileChannel fileChannel) throws IOException {
+		long length = resource.getLength();
 
-	private static class Redirecter {
+		long segmentLength = (length + _connections - 1) / _connections;
 
-		public Redirecter(String link) {
-			try {
-				_link = link;
+		ExecutorService executorService = Executors.newFixedThreadPool(_connections);
+
+		try {
+			List<Future<Long>> futures = new ArrayList<>();
+
+			for (long start = 0; start < length; start += segmentLength) {
+				long end = Math.min(start + segmentLength, length) - 1;
+
+				long segmentStart = start;
 
-				_url = new URL(link);
+				futures.add(
+					executorService.submit(
+						() -> {
+							HttpURLConnection httpURLConnection = _openConnection(resource.getURL(), "GET");
 
-				_httpURLConnection = (HttpURLConnection)_url.openConnection();
+							httpURLConnection.setRequestProperty("Range", "bytes=" + segmentStart + "-" + end);
 
-				_headers = _httpURLConnection.getHeaderFields();
+							try {
+								if (httpURLConnection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+									throw new IOException(
+										"Unable to download bytes " + segmentStart + "-" + end + " of " + _link);
+								}
+
+								long copied = _copy(httpURLConnection.getInputStream(), fileChannel, segmentStart);
+
+								if (copied != (end - segmentStart + 1)) {
+									throw new IOException(
+										"Only " + copied + " bytes of segment " + segmentStart + "-" + end + " of " +
+											_link + " were received");
+								}
+
+								return copied;
+							}
+							finally {
+								httpURLConnection.disconnect();
+							}
+						}));
 			}
-			catch (Exception e) {
-				throw new RuntimeException(e);
+
+			for (Future<Long> future : futures) {
+				future.get();
 			}
 		}
+		catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
 
-		public Boolean get() {
-			for (String headerEntry : _headers.get(null)) {
-				if (headerEntry.contains(" " + _HTTP_FOUND + " ") || headerEntry.contains(" " + _HTTP_MOVED + " ")) {
-					return true;
-				}
+			if (cause instanceof IOException) {
+				throw (IOException)cause;
 			}
 
-			return false;
+			throw new IOException(cause);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+
+			throw new IOException(ie);
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private void _downloadStream(Resource resource, FileChannel fileChannel, long resumeFrom) throws IOException {
+		HttpURLConnection httpURLConnection = _openConnection(resource.getURL(), "GET");
+
+		if (resumeFrom > 0) {
+			httpURLConnection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+
+			String ifRange = resource.getIfRange();
+
+			if (ifRange != null) {
+				httpURLConnection.setRequestProperty("If-Range", ifRange);
+			}
 		}
 
-		public void run() {
+		try {
+			int responseCode = httpURLConnection.getResponseCode();
+
+			long position = resumeFrom;
+
+			if (responseCode == HttpURLConnection.HTTP_OK) {
+				position = 0;
+
+				fileChannel.truncate(0);
+			}
+			else if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+				throw new IOException("url '" + _link + "' is not accessible, the server returned " + responseCode);
+			}
+
+			position += _copy(httpURLConnection.getInputStream(), fileChannel, position);
+
+			long length = resource.getLength();
+
+			if ((length >= 0) && (position != length)) {
+				throw new IOException("Only " + position + " of " + length + " bytes of " + _link + " were received");
+			}
+		}
+		finally {
+			httpURLConnection.disconnect();
+		}
+	}
+
+	private Resource _getResource() throws IOException {
+		if (_resource == null) {
+			_resource = _resolve();
+		}
+
+		return _resource;
+	}
+
+	/**
+	 * Follows the redirects of the link and returns the final resource. Every
+	 * request made afterwards goes straight to the final URL.
+	 */
+	private Resource _resolve() throws IOException {
+		URL url = new URL(_link);
+
+		for (int i = 0; i < _MAX_REDIRECTS; i++) {
+			HttpURLConnection httpURLConnection = _openConnection(url, "HEAD");
+
+			httpURLConnection.setInstanceFollowRedirects(false);
+
 			try {
-				while (get()) {
-					List<String> headers = _headers.get("location");
+				int responseCode = httpURLConnection.getResponseCode();
 
-					if (headers == null) {
-						headers = _headers.get("Location");
-					}
+				if ((responseCode == HttpURLConnection.HTTP_MOVED_PERM) ||
+					(responseCode == HttpURLConnection.HTTP_MOVED_TEMP) ||
+					(responseCode == HttpURLConnection.HTTP_SEE_OTHER) || (responseCode == _HTTP_TEMPORARY_REDIRECT) ||
+					(responseCode == _HTTP_PERMANENT_REDIRECT)) {
 
-					_link = headers.get(0);
+					url = new URL(url, httpURLConnection.getHeaderField("Location"));
 
-					_url = new URL(_link);
+					continue;
+				}
+
+				if (responseCode != HttpURLConnection.HTTP_OK) {
 
-					_httpURLConnection = (HttpURLConnection)_url.openConnection();
+					// Some servers, like signed storage URLs, only answer GET requests
 
-					_headers = _httpURLConnection.getHeaderFields();
+					return new Resource(url, -1, false, null, null);
 				}
+
+				return new Resource(
+					url, httpURLConnection.getContentLengthLong(),
+					Objects.equals("bytes", httpURLConnection.getHeaderField("Accept-Ranges")),
+					httpURLConnection.getHeaderField("ETag"), httpURLConnection.getHeaderField("Last-Modified"));
+			}
+			finally {
+				httpURLConnection.disconnect();
+			}
+		}
+
+		throw new IOException("Too many redirects for " + _link);
+	}
+
+	private static final int _BUFFER_SIZE = 65536;
+
+	private static final int _CONNECT_TIMEOUT = 10000;
+
+	private static final int _HTTP_PERMANENT_REDIRECT = 308;
+
+	private static final int _HTTP_TEMPORARY_REDIRECT = 307;
+
+	private static final int _MAX_REDIRECTS = 10;
+
+	private static final long _MIN_SEGMENT_LENGTH = 4 * 1024 * 1024;
+
+	private static final String _MODE_SEGMENTS = "segments";
+
+	private static final String _MODE_STREAM = "stream";
+
+	private static final String _PART_EXTENSION = ".part";
+
+	private static final int _READ_TIMEOUT = 60000;
+
+	private static final String _VALIDATORS_EXTENSION = ".part.validators";
+
+	private String _checksum;
+	private String _checksumAlgorithm;
+	private int _connections = 1;
+	private final String _link;
+	private Resource _resource;
+	private final Path _target;
+
+	private static class Resource {
+
+		public Resource(URL url, long length, boolean acceptRanges, String eTag, String lastModified) {
+			_url = url;
+			_length = length;
+			_acceptRanges = acceptRanges;
+			_eTag = eTag;
+			_lastModified = lastModified;
+		}
+
+		public String getETag() {
+			return _eTag;
+		}
+
+		/**
+		 * Returns the validator that is sent with a range request, so the
+		 * server sends the whole file again if it changed.
+		 */
+		public String getIfRange() {
+			if (_eTag != null) {
+				return _eTag;
 			}
-			catch (Exception e) {
-				throw new RuntimeException(e);
+
+			return _lastModified;
+		}
+
+		public String getLastModified() {
+			return _lastModified;
+		}
+
+		public long getLength() {
+			return _length;
+		}
+
+		public URL getURL() {
+			return _url;
+		}
+
+		/**
+		 * Returns the validators of the resource together with the mode the
+		 * part file is written in.
+		 */
+		public Properties getValidators(String mode) {
+			Properties validators = new Properties();
+
+			validators.setProperty("length", String.valueOf(_length));
+			validators.setProperty("mode", mode);
+
+			if (_eTag != null) {
+				validators.setProperty("etag", _eTag);
 			}
+
+			if (_lastModified != null) {
+				validators.setProperty("last-modified", _lastModified);
+			}
+
+			return validators;
 		}
 
-		private static final String _HTTP_FOUND = "302";
+		/**
+		 * Returns <code>true</code> if a partial download of the resource can
+		 * be continued with a range request.
+		 */
+		public boolean isResumable() {
+			if (_acceptRanges && (_length > 0)) {
+				return true;
+			}
 
-		private static final String _HTTP_MOVED = "301";
+			return false;
+		}
 
-		private Map<String, List<String>> _headers;
-		private HttpURLConnection _httpURLConnection;
-		private String _link;
-		private URL _url;
+		private final boolean _acceptRanges;
+		private final String _eTag;
+		private final String _lastModified;
+		private final long _length;
+		private final URL _url;
 
 	}
 
@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Follows a log file like <code>tail -f</code>. New content is read from the
+ * position of a file channel when the directory of the log reports a change,
+ * and printed in batches of whole lines. A log that is truncated is followed
+ * from its start again and a log that is rotated is followed in the new file
+ * once the rest of the old one was printed.
+ *
+ * @author agent
+ */
+public class LogFollower {
+
+	public LogFollower(Path path, PrintStream printStream) {
+		this(path, printStream, 0);
+	}
+
+	/**
+	 * Creates a follower that starts reading the log at the position, the
+	 * print stream may be <code>null</code> if only the line consumer should
+	 * see the log.
+	 */
+	public LogFollower(Path path, PrintStream printStream, long position) {
+		_path = path.toAbsolutePath();
+		_printStream = printStream;
+		_position = position;
+	}
+
+	/**
+	 * Prints the log and its new content until the current thread is
+	 * interrupted.
+	 */
+	public void follow() throws IOException {
+		Path dirPath = _path.getParent();
+
+		FileSystem fileSystem = dirPath.getFileSystem();
+
+		Thread currentThread = Thread.currentThread();
+
+		try (WatchService watchService = fileSystem.newWatchService()) {
+			dirPath.register(
+				watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+				StandardWatchEventKinds.ENTRY_MODIFY);
+
+			while (!currentThread.isInterrupted()) {
+				_follow();
+
+				WatchKey watchKey = watchService.poll(_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+
+				if (watchKey != null) {
+					watchKey.pollEvents();
+
+					watchKey.reset();
+				}
+			}
+		}
+		catch (ClosedByInterruptException cbie) {
+		}
+		catch (InterruptedException ie) {
+			currentThread.interrupt();
+		}
+		finally {
+			_close();
+		}
+	}
+
+	/**
+	 * Sets a consumer that is called with every complete line of the log, from
+	 * the thread that follows the log.
+	 */
+	public void setLineConsumer(Consumer<String> lineConsumer) {
+		_lineConsumer = lineConsumer;
+	}
+
+	private void _close() throws IOException {
+		if (_fileChannel != null) {
+			_fileChannel.close();
+
+			_fileChannel = null;
+		}
+
+		_fileKey = null;
+		_lineLength = 0;
+	}
+
+	/**
+	 * Prints what was appended to the log since the last call and switches to
+	 * the new file if the log was rotated.
+	 */
+	private void _follow() throws IOException {
+		if (_fileChannel == null) {
+			_open();
+
+			if (_fileChannel == null) {
+				return;
+			}
+		}
+
+		_read();
+
+		if (_fileChannel.size() < _fileChannel.position()) {
+			_fileChannel.position(0);
+
+			_lineLength = 0;
+
+			_read();
+		}
+
+		if (!Objects.equals(_fileKey, _getFileKey(_path))) {
+			_read();
+
+			_flushPartialLine();
+
+			_close();
+
+			_open();
+
+			if (_fileChannel != null) {
+				_read();
+			}
+		}
+	}
+
+	private void _consumeLine() {
+		if (_lineConsumer == null) {
+			return;
+		}
+
+		int length = _lineLength;
+
+		while ((length > 0) && ((_line[length - 1] == '\n') || (_line[length - 1] == '\r'))) {
+			length--;
+		}
+
+		_lineConsumer.accept(new String(_line, 0, length, StandardCharsets.UTF_8));
+	}
+
+	private void _flushPartialLine() {
+		if (_lineLength > 0) {
+			_consumeLine();
+
+			if (_printStream != null) {
+				_printStream.write(_line, 0, _lineLength);
+				_printStream.println();
+			}
+
+			_lineLength = 0;
+		}
+	}
+
+	/**
+	 * Returns the identity of the file at the path, which changes when the log
+	 * is rotated, or <code>null</code> if there is no file.
+	 */
+	private Object _getFileKey(Path path) throws IOException {
+		try {
+			BasicFileAttributes basicFileAttributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+			Object fileKey = basicFileAttributes.fileKey();
+
+			if (fileKey == null) {
+				fileKey = basicFileAttributes.creationTime();
+			}
+
+			return fileKey;
+		}
+		catch (NoSuchFileException nsfe) {
+			return null;
+		}
+	}
+
+	private void _open() throws IOException {
+		try {
+			_fileChannel = FileChannel.open(_path, StandardOpenOption.READ);
+		}
+		catch (NoSuchFileException nsfe) {
+			return;
+		}
+
+		_fileKey = _getFileKey(_path);
+
+		if ((_position > 0) && (_position <= _fileChannel.size())) {
+			_fileChannel.position(_position);
+		}
+
+		_position = 0;
+	}
+
+	/**
+	 * Reads the channel to its end and prints the complete lines. Lines are
+	 * collected in a buffer and written with one call per batch, a line that
+	 * isn't complete yet is kept until the rest of it is written to the log.
+	 */
+	private void _read() throws IOException {
+		boolean printed = false;
+
+		while (_fileChannel.read(_readBuffer) > 0) {
+			_readBuffer.flip();
+
+			while (_readBuffer.hasRemaining()) {
+				byte b = _readBuffer.get();
+
+				if (_lineLength == _line.length) {
+					byte[] line = new byte[_line.length * 2];
+
+					System.arraycopy(_line, 0, line, 0, _lineLength);
+
+					_line = line;
+				}
+
+				_line[_lineLength++] = b;
+
+				if (b != '\n') {
+					continue;
+				}
+
+				_consumeLine();
+
+				if (_printStream != null) {
+					if ((_batch.length - _batchLength) < _lineLength) {
+						_printBatch();
+					}
+
+					if (_lineLength > _batch.length) {
+						_printStream.write(_line, 0, _lineLength);
+					}
+					else {
+						System.arraycopy(_line, 0, _batch, _batchLength, _lineLength);
+
+						_batchLength += _lineLength;
+					}
+
+					printed = true;
+				}
+
+				_lineLength = 0;
+
+				if (_line.length > _BUFFER_SIZE) {
+					_line = new byte[_BUFFER_SIZE];
+				}
+			}
+
+			_readBuffer.clear();
+		}
+
+		_printBatch();
+
+		if (printed) {
+			_printStream.flush();
+		}
+	}
+
+	private void _printBatch() {
+		if (_batchLength > 0) {
+			_printStream.write(_batch, 0, _batchLength);
+
+			_batchLength = 0;
+		}
+	}
+
+	private static final int _BUFFER_SIZE = 64 * 1024;
+
+	private static final long _POLL_TIMEOUT = 1000;
+
+	private final byte[] _batch = new byte[_BUFFER_SIZE];
+	private int _batchLength;
+	private FileChannel _fileChannel;
+	private Object _fileKey;
+	private byte[] _line = new byte[_BUFFER_SIZE];
+	private Consumer<String> _lineConsumer;
+	private int _lineLength;
+	private final Path _path;
+	private long _position;
+	private final PrintStream _printStream;
+	private final ByteBuffer _readBuffer = ByteBuffer.allocate(_BUFFER_SIZE);
+
+}
\ No newline at end of file
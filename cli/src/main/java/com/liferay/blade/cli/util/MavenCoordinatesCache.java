@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Remembers the Maven coordinates found in the <code>pom.properties</code> of
+ * jars. Jars are identified by a hash of the name, size and CRC of every entry,
+ * which are all read from the central directory, so the same jar is only
+ * searched for its <code>pom.properties</code> once no matter how many plugins
+ * bundle a copy of it.
+ *
+ * @author agent
+ */
+public class MavenCoordinatesCache {
+
+	public MavenCoordinatesCache(Path cacheFile) {
+		_cacheFile = cacheFile;
+
+		if (Files.exists(cacheFile)) {
+			try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+				Properties properties = new Properties();
+
+				properties.load(inputStream);
+
+				for (String key : properties.stringPropertyNames()) {
+					_coordinates.put(key, properties.getProperty(key));
+				}
+			}
+			catch (IOException ioe) {
+
+				// the cache will be rebuilt
+
+			}
+		}
+	}
+
+	/**
+	 * Returns the coordinates of the jar as
+	 * <code>groupId:artifactId:version</code>, or <code>null</code> if the jar
+	 * doesn't contain a <code>pom.properties</code>.
+	 */
+	public String get(Path jarPath) throws IOException {
+		try (JarFile jarFile = new JarFile(jarPath.toFile())) {
+			MessageDigest messageDigest = _newMessageDigest();
+
+			JarEntry pomPropertiesJarEntry = null;
+
+			Enumeration<JarEntry> jarEntries = jarFile.entries();
+
+			while (jarEntries.hasMoreElements()) {
+				JarEntry jarEntry = jarEntries.nextElement();
+
+				String name = jarEntry.getName();
+
+				String entry = name + "\n" + jarEntry.getSize() + "\n" + jarEntry.getCrc() + "\n";
+
+				messageDigest.update(entry.getBytes(StandardCharsets.UTF_8));
+
+				if ((pomPropertiesJarEntry == null) && name.startsWith("META-INF/maven") &&
+					name.endsWith("pom.properties")) {
+
+					pomPropertiesJarEntry = jarEntry;
+				}
+			}
+
+			String hash = _toHex(messageDigest.digest());
+
+			String coordinates = _coordinates.get(hash);
+
+			if (coordinates == null) {
+				coordinates = _readCoordinates(jarFile, pomPropertiesJarEntry);
+
+				_coordinates.put(hash, coordinates);
+
+				_modified = true;
+			}
+
+			if (coordinates.isEmpty()) {
+				return null;
+			}
+
+			return coordinates;
+		}
+	}
+
+	public synchronized void save() throws IOException {
+		if (!_modified) {
+			return;
+		}
+
+		Properties properties = new Properties();
+
+		properties.putAll(_coordinates);
+
+		Path cacheDir = _cacheFile.getParent();
+
+		Files.createDirectories(cacheDir);
+
+		Path tempFile = Files.createTempFile(cacheDir, String.valueOf(_cacheFile.getFileName()), ".tmp");
+
+		try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+			properties.store(outputStream, null);
+		}
+
+		Files.move(tempFile, _cacheFile, StandardCopyOption.REPLACE_EXISTING);
+
+		_modified = false;
+	}
+
+	private static MessageDigest _newMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException(nsae);
+		}
+	}
+
+	private static String _readCoordinates(JarFile jarFile, JarEntry pomPropertiesJarEntry) throws IOException {
+		if (pomPropertiesJarEntry == null) {
+			return "";
+		}
+
+		Properties properties = new Properties();
+
+		try (InputStream inputStream = jarFile.getInputStream(pomPropertiesJarEntry)) {
+			properties.load(inputStream);
+		}
+
+		String groupId = properties.getProperty("groupId");
+		String artifactId = properties.getProperty("artifactId");
+		String version = properties.getProperty("version");
+
+		if ((groupId == null) || (artifactId == null) || (version == null)) {
+			return "";
+		}
+
+		return groupId + ":" + artifactId + ":" + version;
+	}
+
+	private static String _toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+
+		for (byte b : bytes) {
+			sb.append(String.format("%02x", b & 0xFF));
+		}
+
+		return sb.toString();
+	}
+
+	private final Path _cacheFile;
+	private final Map<String, String> _coordinates = new ConcurrentHashMap<>();
+	private volatile boolean _modified;
+
+}
\ No newline at end of file
@@ -16,23 +16,29 @@
 
 package com.liferay.blade.cli.util;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.PosixFilePermissions;
 
+import java.security.MessageDigest;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
-import org.apache.commons.io.FileUtils;
-
 /**
  * @author David Truong
  */
@@ -44,56 +50,28 @@ public class NodeUtil {
 
 	public static final String YO_GENERATOR_10_VERSION = "10.x";
 
+	/**
+	 * Returns the directory of the Node distribution blade uses, it's
+	 * downloaded and installed into the toolchain store the first time.
+	 */
 	public static Path downloadNode() throws IOException {
-		Path bladeCachePath = BladeUtil.getBladeCachePath();
-
-		Path nodeDirPath = bladeCachePath.resolve("node");
-
-		if (!Files.exists(nodeDirPath) || !_containsFiles(nodeDirPath)) {
-			Files.createDirectories(nodeDirPath);
-
-			String nodeURL = _getNodeURL();
-
-			Path downloadPath = bladeCachePath.resolve(nodeURL.substring(nodeURL.lastIndexOf("/") + 1));
-
-			if (!Files.exists(downloadPath)) {
-				BladeUtil.downloadLink(nodeURL, downloadPath);
-			}
-
-			FileUtil.unpack(downloadPath, nodeDirPath, 1);
+		String nodeURL = _getNodeURL();
 
-			if (OSDetector.isWindows()) {
-				Path nodePath;
+		String nodeArchiveName = nodeURL.substring(nodeURL.lastIndexOf("/") + 1);
 
-				try (Stream<Path> paths = Files.list(nodeDirPath)) {
-					nodePath = paths.findFirst(
-					).get();
-				}
+		String nodeName = nodeArchiveName.replaceAll("\\.(tar\\.gz|zip)$", "");
 
-				try (Stream<Path> nodePaths = Files.list(nodePath)) {
-					nodePaths.forEach(
-						x -> {
-							try {
-								Files.move(
-									x, nodeDirPath.resolve(x.getFileName()), StandardCopyOption.REPLACE_EXISTING);
-							}
-							catch (IOException ioe) {
-								throw new RuntimeException(ioe);
-							}
-						});
-				}
+		try {
+			ToolchainStore toolchainStore = _getToolchainStore();
 
-				Files.delete(nodePath);
-			}
-			else {
-				Files.setPosixFilePermissions(
-					nodeDirPath.resolve("bin/node"), PosixFilePermissions.fromString("rwxrwxr--"));
-				Files.setPosixFilePermissions(
-					nodeDirPath.resolve("bin/npm"), PosixFilePermissions.fromString("rwxrwxr--"));
-			}
+			return toolchainStore.install(nodeName, nodeDirPath -> _installNode(nodeURL, nodeArchiveName, nodeDirPath));
+		}
+		catch (IOException ioe) {
+			throw ioe;
+		}
+		catch (Exception e) {
+			throw new IOException("Unable to install " + nodeName, e);
 		}
-
-		return nodeDirPath;
 	}
 
 	public static int runYo(String liferayVersion, File dir, String[] args) throws Exception {
@@ -103,7 +81,7 @@ public class NodeUtil {
 	public static int runYo(String liferayVersion, File dir, String[] args, boolean isQuiet) throws Exception {
 		Path nodeDirPath = downloadNode();
 
-		Path yoDirPath = _installYo(liferayVersion);
+		Path yoDirPath = _installYo(liferayVersion, nodeDirPath);
 
 		ProcessBuilder processBuilder = new ProcessBuilder();
 
@@ -174,18 +152,37 @@ public class NodeUtil {
 		return process.waitFor();
 	}
 
-	private static boolean _containsFiles(Path path) throws IOException {
-		try (Stream<Path> files = Files.list(path)) {
-			if (files.count() > 0) {
-				return true;
-			}
+	/**
+	 * Returns the SHA-256 checksum nodejs.org publishes for the archive, or
+	 * <code>null</code> if it can't be retrieved.
+	 */
+	private static String _getNodeChecksum(String nodeURL, String nodeArchiveName) {
+		URL url;
 
-			return false;
+		try {
+			url = new URL(nodeURL.substring(0, nodeURL.lastIndexOf("/") + 1) + "SHASUMS256.txt");
 		}
-	}
+		catch (MalformedURLException murle) {
+			return null;
+		}
+
+		try (InputStream inputStream = url.openStream();
+			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream))) {
+
+			String line = null;
 
-	private static boolean _contentEquals(Path path1, Path path2) throws Exception {
-		return FileUtils.contentEqualsIgnoreEOL(path1.toFile(), path2.toFile(), "UTF-8");
+			while ((line = bufferedReader.readLine()) != null) {
+				String[] parts = line.trim().split("\\s+");
+
+				if ((parts.length == 2) && parts[1].equals(nodeArchiveName)) {
+					return parts[0];
+				}
+			}
+		}
+		catch (IOException ioe) {
+		}
+
+		return null;
 	}
 
 	private static String _getNodeURL() {
@@ -247,71 +244,130 @@ public class NodeUtil {
 		return new File(nodeModulesDir, "npm");
 	}
 
-	private static Path _installYo(String liferayVersion) throws Exception {
-		Path bladeCachePath = BladeUtil.getBladeCachePath();
+	private static synchronized ToolchainStore _getToolchainStore() {
+		if (_toolchainStore == null) {
+			Path bladeCachePath = BladeUtil.getBladeCachePath();
+
+			_toolchainStore = new ToolchainStore(bladeCachePath.resolve("toolchains"));
+		}
+
+		return _toolchainStore;
+	}
+
+	private static void _installNode(String nodeURL, String nodeArchiveName, Path nodeDirPath) throws Exception {
+		Path downloadPath = nodeDirPath.resolveSibling(nodeDirPath.getFileName() + "-" + nodeArchiveName);
+
+		try {
+			BladeUtil.downloadLink(
+				nodeURL, downloadPath, "SHA-256", _getNodeChecksum(nodeURL, nodeArchiveName));
+
+			FileUtil.unpack(downloadPath, nodeDirPath, 1);
+		}
+		finally {
+			Files.deleteIfExists(downloadPath);
+		}
+
+		if (OSDetector.isWindows()) {
+			Path nodePath;
+
+			try (Stream<Path> paths = Files.list(nodeDirPath)) {
+				nodePath = paths.findFirst(
+				).get();
+			}
 
-		Path nodeDirPath = bladeCachePath.resolve("node");
+			try (Stream<Path> nodePaths = Files.list(nodePath)) {
+				nodePaths.forEach(
+					x -> {
+						try {
+							Files.move(x, nodeDirPath.resolve(x.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+						}
+						catch (IOException ioe) {
+							throw new RuntimeException(ioe);
+						}
+					});
+			}
 
+			Files.delete(nodePath);
+		}
+		else {
+			Files.setPosixFilePermissions(
+				nodeDirPath.resolve("bin/node"), PosixFilePermissions.fromString("rwxrwxr--"));
+			Files.setPosixFilePermissions(
+				nodeDirPath.resolve("bin/npm"), PosixFilePermissions.fromString("rwxrwxr--"));
+		}
+	}
+
+	/**
+	 * Installs the yo generators for the Liferay version. The toolchain is
+	 * named after the Node distribution and a hash of the package.json, so a
+	 * different generator set gets its own directory instead of replacing the
+	 * one other blade processes may be using.
+	 */
+	private static Path _installYo(String liferayVersion, Path nodeDirPath) throws Exception {
 		String yoGeneratorVersion = NodeUtil.YO_GENERATOR_10_VERSION;
 
 		if (liferayVersion.equals("7.0") || liferayVersion.equals("7.1")) {
 			yoGeneratorVersion = NodeUtil.YO_GENERATOR_8_VERSION;
 		}
 
-		Path yoDirPath = bladeCachePath.resolve("yo-" + yoGeneratorVersion);
-
-		Files.createDirectories(yoDirPath);
+		byte[] packageJson;
 
-		Path newPackageJsonPath = yoDirPath.resolve("new_package.json");
+		try (InputStream inputStream = NodeUtil.class.getResourceAsStream(
+				"dependencies/yo-" + yoGeneratorVersion + ".json")) {
 
-		InputStream inputStream = NodeUtil.class.getResourceAsStream("dependencies/yo-" + yoGeneratorVersion + ".json");
+			packageJson = FileUtil.collect(
+				inputStream
+			).getBytes(
+				StandardCharsets.UTF_8
+			);
+		}
 
-		Files.copy(inputStream, newPackageJsonPath, StandardCopyOption.REPLACE_EXISTING);
+		MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
 
-		Path packageJsonPath = yoDirPath.resolve("package.json");
+		messageDigest.update(String.valueOf(nodeDirPath.getFileName()).getBytes(StandardCharsets.UTF_8));
+		messageDigest.update(packageJson);
 
-		boolean skipInstall = false;
+		StringBuilder sb = new StringBuilder();
 
-		if (Files.exists(packageJsonPath)) {
-			skipInstall = _contentEquals(packageJsonPath, newPackageJsonPath);
+		for (byte b : messageDigest.digest()) {
+			sb.append(String.format("%02x", b));
 		}
 
-		Path nodeModulesDirPath = yoDirPath.resolve("node_modules");
+		String yoName = "yo-" + yoGeneratorVersion + "-" + sb.substring(0, 12);
 
-		skipInstall = skipInstall && Files.exists(nodeModulesDirPath);
+		ToolchainStore toolchainStore = _getToolchainStore();
 
-		if (!skipInstall) {
-			FileUtils.deleteQuietly(nodeModulesDirPath.toFile());
+		return toolchainStore.install(yoName, yoDirPath -> _npmInstall(nodeDirPath, packageJson, yoDirPath));
+	}
 
-			Files.move(newPackageJsonPath, packageJsonPath, StandardCopyOption.REPLACE_EXISTING);
+	private static void _npmInstall(Path nodeDirPath, byte[] packageJson, Path yoDirPath) throws Exception {
+		Files.write(yoDirPath.resolve("package.json"), packageJson);
 
-			File npmDir = _getNpmDir(nodeDirPath.toFile());
+		File npmDir = _getNpmDir(nodeDirPath.toFile());
 
-			Process process;
+		Process process;
 
-			if (OSDetector.isWindows()) {
-				process = BladeUtil.startProcess(
-					nodeDirPath.toString() + File.separator + "node.exe " + npmDir + File.separator + "bin" +
-						File.separator + "npm-cli.js install --scripts-prepend-node-path",
-					yoDirPath.toFile());
-			}
-			else {
-				process = BladeUtil.startProcess(
-					nodeDirPath.toString() + File.separator + "bin" + File.separator + "node " + npmDir +
-						File.separator + "bin" + File.separator + "npm-cli.js install",
-					yoDirPath.toFile());
-			}
+		if (OSDetector.isWindows()) {
+			process = BladeUtil.startProcess(
+				nodeDirPath.toString() + File.separator + "node.exe " + npmDir + File.separator + "bin" +
+					File.separator + "npm-cli.js install --scripts-prepend-node-path",
+				yoDirPath.toFile());
+		}
+		else {
+			process = BladeUtil.startProcess(
+				nodeDirPath.toString() + File.separator + "bin" + File.separator + "node " + npmDir + File.separator +
+					"bin" + File.separator + "npm-cli.js install",
+				yoDirPath.toFile());
+		}
 
-			int returnCode = process.waitFor();
+		int returnCode = process.waitFor();
 
-			if (returnCode != 0) {
-				throw new RuntimeException("Problem occurred while downloading yo");
-			}
+		if (returnCode != 0) {
+			throw new RuntimeException("Problem occurred while downloading yo");
 		}
-
-		return yoDirPath;
 	}
 
 	private static String _nodeVersion = "8.4.0";
+	private static ToolchainStore _toolchainStore;
 
 }
\ No newline at end of file
@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Finds the project directories of a workspace, which are the directories
+ * that contain one of the project markers, like <code>src</code>, and
+ * remembers every directory that was looked at together with its modification
+ * time. The modification time of a directory changes whenever a child is
+ * created, deleted or renamed, so on the next run only the directories that
+ * changed have to be listed again and everything else is taken from the cache.
+ *
+ * @author agent
+ */
+public class ProjectPathsCache {
+
+	public ProjectPathsCache(Path cacheFile, List<String> projectPaths, List<String> ignorePaths) {
+		_cacheFile = cacheFile;
+		_projectPaths = projectPaths;
+		_ignorePathMatcher = _getPathMatcher(ignorePaths);
+		_key = String.valueOf(projectPaths) + String.valueOf(ignorePaths);
+
+		if (Files.exists(cacheFile)) {
+			try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+				Properties properties = new Properties();
+
+				properties.load(inputStream);
+
+				for (String key : properties.stringPropertyNames()) {
+					_cachedDirs.put(key, properties.getProperty(key));
+				}
+			}
+			catch (IOException ioe) {
+
+				// the cache will be rebuilt
+
+			}
+		}
+	}
+
+	/**
+	 * Returns the project directories under the watch path, directories that
+	 * match an ignore path are skipped and so are the directories inside a
+	 * project.
+	 */
+	public List<Path> find(Path watchPath) throws IOException {
+		boolean valid = false;
+
+		long cacheTime = 0;
+
+		if (_key.equals(_cachedDirs.get(_KEY)) && String.valueOf(watchPath).equals(_cachedDirs.get(_WATCH_PATH))) {
+			valid = true;
+
+			cacheTime = Long.parseLong(_cachedDirs.getOrDefault(_TIME, "0"));
+		}
+
+		Map<String, List<String>> cachedChildren = new HashMap<>();
+
+		if (valid) {
+			for (String dir : _cachedDirs.keySet()) {
+				if (dir.isEmpty() || dir.startsWith(":")) {
+					continue;
+				}
+
+				Path dirPath = watchPath.resolve(dir);
+
+				String parent = String.valueOf(watchPath.relativize(dirPath.getParent()));
+
+				List<String> children = cachedChildren.computeIfAbsent(parent, key -> new ArrayList<>());
+
+				children.add(dir);
+			}
+		}
+
+		long time = System.currentTimeMillis();
+
+		Map<String, String> dirs = new HashMap<>();
+
+		List<Path> foundProjectPaths = new ArrayList<>();
+
+		Deque<Path> dirPaths = new ArrayDeque<>();
+
+		dirPaths.add(watchPath);
+
+		while (!dirPaths.isEmpty()) {
+			Path dirPath = dirPaths.poll();
+
+			if (_ignorePathMatcher.matches(dirPath)) {
+				continue;
+			}
+
+			long lastModified;
+
+			try {
+				FileTime fileTime = Files.getLastModifiedTime(dirPath, LinkOption.NOFOLLOW_LINKS);
+
+				lastModified = fileTime.toMillis();
+			}
+			catch (NoSuchFileException nsfe) {
+				continue;
+			}
+
+			String dir = String.valueOf(watchPath.relativize(dirPath));
+
+			String cachedDir = null;
+
+			if (valid) {
+				cachedDir = _cachedDirs.get(dir);
+			}
+
+			String value = null;
+
+			if ((cachedDir != null) && (lastModified < (cacheTime - _MODIFIED_TIME_RESOLUTION)) &&
+				cachedDir.startsWith(lastModified + ",")) {
+
+				value = cachedDir;
+
+				if (cachedDir.endsWith(_PROJECT)) {
+					foundProjectPaths.add(dirPath);
+				}
+				else {
+					for (String child : cachedChildren.getOrDefault(dir, Collections.emptyList())) {
+						dirPaths.add(watchPath.resolve(child));
+					}
+				}
+			}
+			else {
+				_modified = true;
+
+				List<Path> childDirPaths = new ArrayList<>();
+
+				boolean project = _list(dirPath, childDirPaths);
+
+				if (project) {
+					foundProjectPaths.add(dirPath);
+
+					value = lastModified + _PROJECT;
+				}
+				else {
+					dirPaths.addAll(childDirPaths);
+
+					value = lastModified + _DIR;
+				}
+			}
+
+			dirs.put(dir, value);
+		}
+
+		// directories that are gone are only noticed by the number of entries
+
+		if (!valid || (dirs.size() != (_cachedDirs.size() - 3))) {
+			_modified = true;
+		}
+
+		if (_modified) {
+			_cachedDirs.clear();
+			_cachedDirs.putAll(dirs);
+			_cachedDirs.put(_KEY, _key);
+			_cachedDirs.put(_TIME, String.valueOf(time));
+			_cachedDirs.put(_WATCH_PATH, String.valueOf(watchPath));
+		}
+
+		return foundProjectPaths;
+	}
+
+	public synchronized void save() throws IOException {
+		if (!_modified) {
+			return;
+		}
+
+		Properties properties = new Properties();
+
+		properties.putAll(_cachedDirs);
+
+		Path cacheDir = _cacheFile.getParent();
+
+		Files.createDirectories(cacheDir);
+
+		Path tempFile = Files.createTempFile(cacheDir, String.valueOf(_cacheFile.getFileName()), ".tmp");
+
+		try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+			properties.store(outputStream, null);
+		}
+
+		Files.move(tempFile, _cacheFile, StandardCopyOption.REPLACE_EXISTING);
+
+		_modified = false;
+	}
+
+	/**
+	 * Returns one matcher for all the glob patterns. The patterns are combined
+	 * into a single glob group unless one of them uses a group itself, since
+	 * groups can't be nested.
+	 */
+	private static PathMatcher _getPathMatcher(List<String> patterns) {
+		FileSystem fileSystem = FileSystems.getDefault();
+
+		if (patterns.isEmpty()) {
+			return path -> false;
+		}
+
+		boolean combinable = true;
+
+		for (String pattern : patterns) {
+			if (pattern.contains("{") || pattern.contains("}") || pattern.contains(",")) {
+				combinable = false;
+
+				break;
+			}
+		}
+
+		if (combinable) {
+			return fileSystem.getPathMatcher("glob:{" + String.join(",", patterns) + "}");
+		}
+
+		List<PathMatcher> pathMatchers = new ArrayList<>();
+
+		for (String pattern : patterns) {
+			pathMatchers.add(fileSystem.getPathMatcher("glob:" + pattern));
+		}
+
+		return path -> {
+			for (PathMatcher pathMatcher : pathMatchers) {
+				if (pathMatcher.matches(path)) {
+					return true;
+				}
+			}
+
+			return false;
+		};
+	}
+
+	/**
+	 * Lists the directory and returns whether it contains a project marker
+	 * that isn't ignored, otherwise adds the child directories that aren't
+	 * ignored.
+	 */
+	private boolean _list(Path dirPath, List<Path> childDirPaths) throws IOException {
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(dirPath)) {
+			for (Path childPath : directoryStream) {
+				if (_ignorePathMatcher.matches(childPath)) {
+					continue;
+				}
+
+				if (_projectPaths.contains(String.valueOf(childPath.getFileName()))) {
+					childDirPaths.clear();
+
+					return true;
+				}
+
+				if (Files.isDirectory(childPath, LinkOption.NOFOLLOW_LINKS)) {
+					childDirPaths.add(childPath);
+				}
+			}
+		}
+		catch (NoSuchFileException nsfe) {
+		}
+
+		return false;
+	}
+
+	private static final String _DIR = ",dir";
+
+	private static final String _KEY = ":key";
+
+	private static final long _MODIFIED_TIME_RESOLUTION = 2000;
+
+	private static final String _PROJECT = ",project";
+
+	private static final String _TIME = ":time";
+
+	private static final String _WATCH_PATH = ":watchPath";
+
+	private final Path _cacheFile;
+	private final Map<String, String> _cachedDirs = new HashMap<>();
+	private final PathMatcher _ignorePathMatcher;
+	private final String _key;
+	private boolean _modified;
+	private final List<String> _projectPaths;
+
+}
\ No newline at end of file
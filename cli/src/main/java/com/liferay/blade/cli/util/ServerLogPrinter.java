@@ -0,0 +1,536 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Prints the output of a server. Lines are parsed into level, logger and
+ * message so they can be filtered, a stack trace that was printed in the last
+ * minute is collapsed to its first lines and a summary of errors, warnings and
+ * the slowest bundles to start can be printed periodically.
+ *
+ * <p>
+ * The threads reading the server output hand lines to the printing thread
+ * through a bounded queue without waiting, if the console can't keep up lines
+ * are dropped and counted instead of blocking the server.
+ * </p>
+ *
+ * @author agent
+ */
+public class ServerLogPrinter {
+
+	/**
+	 * Reads the lines of the stream in a separate thread and prints them to
+	 * the print stream. The summary is printed to the print stream of the first
+	 * stream that is read.
+	 */
+	public synchronized Thread read(InputStream inputStream, PrintStream printStream) {
+		if (_summaryPrintStream == null) {
+			_summaryPrintStream = printStream;
+		}
+
+		_readers.incrementAndGet();
+
+		Thread thread = new Thread(
+			() -> {
+				try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream))) {
+					String line = null;
+
+					while ((line = bufferedReader.readLine()) != null) {
+						if (!_queue.offer(new Line(line, printStream))) {
+							_droppedLines.incrementAndGet();
+						}
+					}
+				}
+				catch (IOException ioe) {
+				}
+				finally {
+					_readers.decrementAndGet();
+				}
+			},
+			"blade-server-log-reader");
+
+		thread.setDaemon(true);
+
+		thread.start();
+
+		if (_printerThread == null) {
+			_printerThread = new Thread(this::_print, "blade-server-log-printer");
+
+			_printerThread.setDaemon(true);
+
+			_printerThread.start();
+		}
+
+		return thread;
+	}
+
+	/**
+	 * Enables collapsing of stack traces that were already printed in the last
+	 * minute.
+	 */
+	public void setCollapseStackTraces(boolean collapseStackTraces) {
+		_collapseStackTraces = collapseStackTraces;
+	}
+
+	/**
+	 * Sets the lowest level of the entries to print, like <code>WARN</code>.
+	 */
+	public void setLevel(String level) {
+		_level = _getLevelRank(level);
+
+		if (_level < 0) {
+			throw new IllegalArgumentException("Unknown log level " + level);
+		}
+	}
+
+	/**
+	 * Sets the loggers to print entries of. A logger matches if its name or
+	 * simple name starts with one of the given names.
+	 */
+	public void setLoggers(Collection<String> loggers) {
+		_loggers = new ArrayList<>(loggers);
+	}
+
+	/**
+	 * Sets the milliseconds between summaries, summaries aren't printed if the
+	 * interval is <code>0</code>.
+	 */
+	public void setSummaryInterval(long summaryInterval) {
+		_summaryInterval = summaryInterval;
+	}
+
+	/**
+	 * Waits until the streams were read and their lines were printed.
+	 */
+	public void waitFor() throws InterruptedException {
+		Thread printerThread = null;
+
+		synchronized (this) {
+			printerThread = _printerThread;
+		}
+
+		if (printerThread != null) {
+			printerThread.join();
+		}
+	}
+
+	private static int _getLevelRank(String level) {
+		switch (level.toUpperCase(Locale.ROOT)) {
+			case "FINEST":
+			case "FINER":
+			case "FINE":
+			case "TRACE":
+				return 0;
+			case "DEBUG":
+				return 1;
+			case "INFO":
+				return 2;
+			case "WARN":
+			case "WARNING":
+				return 3;
+			case "ERROR":
+			case "SEVERE":
+				return 4;
+			case "FATAL":
+				return 5;
+			default:
+				return -1;
+		}
+	}
+
+	private static boolean _isStackTrace(List<String> lines) {
+		for (String line : lines) {
+			Matcher matcher = _stackTraceElementPattern.matcher(line);
+
+			if (matcher.find()) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private boolean _accept(Entry entry) {
+		if (entry.getLevel() < _level) {
+			return false;
+		}
+
+		if (_loggers.isEmpty()) {
+			return true;
+		}
+
+		String logger = entry.getLogger();
+
+		int index = logger.lastIndexOf('.');
+
+		String simpleName = logger.substring(index + 1);
+
+		for (String name : _loggers) {
+			if (logger.startsWith(name) || simpleName.startsWith(name)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void _count(Entry entry) {
+		if (entry.getLevel() >= _ERROR) {
+			_errors++;
+		}
+		else if (entry.getLevel() == _WARN) {
+			_warnings++;
+		}
+
+		Matcher matcher = _bundleStartedPattern.matcher(entry.getMessage());
+
+		if (matcher.find()) {
+			long now = System.currentTimeMillis();
+
+			if (_lastBundleStartedTime > 0) {
+				_bundleStartTimes.merge(matcher.group(1), now - _lastBundleStartedTime, Math::max);
+			}
+
+			_lastBundleStartedTime = now;
+		}
+	}
+
+	private void _flush() {
+		if (_entry == null) {
+			return;
+		}
+
+		Entry entry = _entry;
+
+		_entry = null;
+
+		_count(entry);
+
+		if (!_accept(entry)) {
+			return;
+		}
+
+		PrintStream printStream = entry.getPrintStream();
+
+		AnsiLinePrinter.println(printStream, entry.getHeader());
+
+		List<String> lines = entry.getLines();
+
+		if (lines.isEmpty()) {
+			return;
+		}
+
+		if (_collapseStackTraces && _isStackTrace(lines)) {
+			String key = String.join("\n", lines);
+
+			long now = System.currentTimeMillis();
+
+			Long printed = _stackTraces.get(key);
+
+			if ((printed != null) && ((now - printed) < _STACK_TRACE_WINDOW)) {
+				int repeated = _repeatedStackTraces.merge(key, 1, Integer::sum);
+
+				printStream.println(lines.get(0));
+				printStream.println(
+					"\t... the same stack trace was printed in the last minute, repeated " + repeated + " times");
+
+				return;
+			}
+
+			_repeatedStackTraces.remove(key);
+			_stackTraces.put(key, now);
+		}
+
+		for (String line : lines) {
+			AnsiLinePrinter.println(printStream, line);
+		}
+	}
+
+	private Entry _parse(Line line) {
+		Matcher matcher = _entryPattern.matcher(line.getText());
+
+		if (!matcher.matches()) {
+			return null;
+		}
+
+		String logger = matcher.group(3);
+		String message = matcher.group(4);
+
+		if (logger == null) {
+			logger = matcher.group(2);
+
+			if (logger.indexOf('.') == -1) {
+				int index = message.indexOf(' ');
+
+				if (index > 0) {
+					logger = message.substring(0, index);
+					message = message.substring(index + 1);
+				}
+			}
+		}
+
+		return new Entry(line, _getLevelRank(matcher.group(1)), logger, message);
+	}
+
+	private void _print() {
+		long summaryTime = System.currentTimeMillis();
+
+		try {
+			while (true) {
+				Line line = _queue.poll(_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+
+				long dropped = _droppedLines.getAndSet(0);
+
+				if (dropped > 0) {
+					_flush();
+
+					_summaryPrintStream.println(
+						"[blade] " + dropped + " server output lines were dropped, the console couldn't keep up");
+				}
+
+				if (line == null) {
+					_flush();
+
+					if ((_readers.get() == 0) && _queue.isEmpty()) {
+						break;
+					}
+				}
+				else {
+					_process(line);
+				}
+
+				long now = System.currentTimeMillis();
+
+				if ((_summaryInterval > 0) && ((now - summaryTime) >= _summaryInterval)) {
+					_flush();
+
+					_printSummary(now - summaryTime);
+
+					summaryTime = now;
+				}
+			}
+		}
+		catch (InterruptedException ie) {
+			Thread currentThread = Thread.currentThread();
+
+			currentThread.interrupt();
+		}
+
+		synchronized (this) {
+			_printerThread = null;
+		}
+	}
+
+	private void _printSummary(long elapsed) {
+		double minutes = Math.max(elapsed, 1) / 60000.0;
+
+		StringBuilder sb = new StringBuilder("[blade] ");
+
+		sb.append(String.format("%.1f errors/min, %.1f warnings/min", _errors / minutes, _warnings / minutes));
+
+		if (!_bundleStartTimes.isEmpty()) {
+			List<Map.Entry<String, Long>> bundleStartTimes = new ArrayList<>(_bundleStartTimes.entrySet());
+
+			bundleStartTimes.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+
+			String slowestBundles = bundleStartTimes.stream(
+			).limit(
+				_SLOWEST_BUNDLES
+			).map(
+				bundleStartTime -> bundleStartTime.getKey() + " (" + bundleStartTime.getValue() + " ms)"
+			).collect(
+				Collectors.joining(", ")
+			);
+
+			sb.append(", slowest bundles to start: ");
+			sb.append(slowestBundles);
+		}
+
+		_summaryPrintStream.println(sb);
+
+		_bundleStartTimes.clear();
+		_errors = 0;
+		_warnings = 0;
+	}
+
+	/**
+	 * Starts a new entry if the line has a header, any other line like the
+	 * lines of a stack trace belongs to the current entry.
+	 */
+	private void _process(Line line) {
+		Entry entry = _parse(line);
+
+		if ((entry == null) && (_entry != null) && (_entry.getPrintStream() == line.getPrintStream())) {
+			List<String> lines = _entry.getLines();
+
+			lines.add(line.getText());
+
+			return;
+		}
+
+		_flush();
+
+		if (entry == null) {
+			entry = new Entry(line, _INFO, "", line.getText());
+		}
+
+		_entry = entry;
+	}
+
+	private static final int _ERROR = 4;
+
+	private static final long _IDLE_TIMEOUT = 100;
+
+	private static final int _INFO = 2;
+
+	private static final int _QUEUE_CAPACITY = 8192;
+
+	private static final int _SLOWEST_BUNDLES = 5;
+
+	private static final long _STACK_TRACE_WINDOW = 60000;
+
+	private static final int _STACK_TRACES_MAX_SIZE = 256;
+
+	private static final int _WARN = 3;
+
+	private static final Pattern _bundleStartedPattern = Pattern.compile("^STARTED (\\S+)");
+	private static final Pattern _entryPattern = Pattern.compile(
+		"^(?:\\S+\\s+)?\\S+\\s+(TRACE|DEBUG|INFO|WARN|WARNING|ERROR|FATAL|SEVERE|FINE|FINER|FINEST)\\s+" +
+			"\\[([^\\]]*)\\](?:\\[([^\\]:]*)(?::\\d+)?\\])?\\s*(?:\\([^)]*\\)\\s*)?(.*)$");
+	private static final Pattern _stackTraceElementPattern = Pattern.compile("^\\s+at \\S");
+
+	private final Map<String, Long> _bundleStartTimes = new HashMap<>();
+	private volatile boolean _collapseStackTraces;
+	private final AtomicLong _droppedLines = new AtomicLong();
+	private Entry _entry;
+	private int _errors;
+	private long _lastBundleStartedTime;
+	private volatile int _level;
+	private volatile List<String> _loggers = Collections.emptyList();
+	private Thread _printerThread;
+	private final BlockingQueue<Line> _queue = new ArrayBlockingQueue<>(_QUEUE_CAPACITY);
+	private final AtomicInteger _readers = new AtomicInteger();
+	private final Map<String, Integer> _repeatedStackTraces = new HashMap<>();
+	private final Map<String, Long> _stackTraces = new LinkedHashMap<String, Long>(16, 0.75F, true) {
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+			if (size() > _STACK_TRACES_MAX_SIZE) {
+				_repeatedStackTraces.remove(eldest.getKey());
+
+				return true;
+			}
+
+			return false;
+		}
+
+	};
+	private volatile long _summaryInterval;
+	private volatile PrintStream _summaryPrintStream;
+	private int _warnings;
+
+	private static class Entry {
+
+		public Entry(Line line, int level, String logger, String message) {
+			_level = level;
+			_logger = logger;
+			_message = message;
+
+			_header = line.getText();
+			_printStream = line.getPrintStream();
+		}
+
+		public String getHeader() {
+			return _header;
+		}
+
+		public int getLevel() {
+			return _level;
+		}
+
+		/**
+		 * Returns the lines that follow the header, like a stack trace.
+		 */
+		public List<String> getLines() {
+			return _lines;
+		}
+
+		public String getLogger() {
+			return _logger;
+		}
+
+		public String getMessage() {
+			return _message;
+		}
+
+		public PrintStream getPrintStream() {
+			return _printStream;
+		}
+
+		private final String _header;
+		private final int _level;
+		private final List<String> _lines = new ArrayList<>();
+		private final String _logger;
+		private final String _message;
+		private final PrintStream _printStream;
+
+	}
+
+	private static class Line {
+
+		public Line(String text, PrintStream printStream) {
+			_text = text;
+			_printStream = printStream;
+		}
+
+		public PrintStream getPrintStream() {
+			return _printStream;
+		}
+
+		public String getText() {
+			return _text;
+		}
+
+		private final PrintStream _printStream;
+		private final String _text;
+
+	}
+
+}
\ No newline at end of file
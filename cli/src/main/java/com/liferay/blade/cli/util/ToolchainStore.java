@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.liferay.blade.cli.util;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A directory of toolchains, like Node distributions and npm packages, that
+ * are installed once and shared by all blade processes. Toolchains are
+ * installed into a temporary directory that is moved in place when the install
+ * succeeded, so an installed toolchain is always complete and never changes. A
+ * file lock keeps concurrent blade processes from installing the same
+ * toolchain twice.
+ *
+ * @author agent
+ */
+public class ToolchainStore {
+
+	public ToolchainStore(Path storePath) {
+		_storePath = storePath;
+	}
+
+	/**
+	 * Installs the toolchain unless it's already in the store and returns its
+	 * directory.
+	 */
+	public Path install(String name, Installer installer) throws Exception {
+		Path toolchainPath = _storePath.resolve(name);
+
+		if (Files.exists(toolchainPath)) {
+			return toolchainPath;
+		}
+
+		Files.createDirectories(_storePath);
+
+		Path lockPath = _storePath.resolve(name + ".lock");
+
+		// a file lock is held by the whole JVM, threads of this process have
+		// to wait for each other before they try to get it
+
+		Object monitor = _monitors.computeIfAbsent(lockPath.toAbsolutePath(), key -> new Object());
+
+		synchronized (monitor) {
+			try (FileChannel fileChannel = FileChannel.open(
+					lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				FileLock fileLock = fileChannel.lock()) {
+
+				if (Files.exists(toolchainPath)) {
+					return toolchainPath;
+				}
+
+				Path tempPath = Files.createTempDirectory(_storePath, name + ".tmp");
+
+				try {
+					installer.install(tempPath);
+
+					Files.move(tempPath, toolchainPath, StandardCopyOption.ATOMIC_MOVE);
+				}
+				finally {
+					if (Files.exists(tempPath)) {
+						FileUtil.deleteDir(tempPath);
+					}
+				}
+			}
+		}
+
+		return toolchainPath;
+	}
+
+	public interface Installer {
+
+		public void install(Path path) throws Exception;
+
+	}
+
+	private static final Map<Path, Object> _monitors = new ConcurrentHashMap<>();
+
+	private final Path _storePath;
+
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.BundleStore;
+
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class BundleStoreTest {
+
+	@Test
+	public void testMaterialize() throws Exception {
+		Path rootPath = temporaryFolder.getRoot().toPath();
+
+		Path archivePath = rootPath.resolve("liferay-portal-tomcat.zip");
+
+		try (OutputStream outputStream = Files.newOutputStream(archivePath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+
+			_addEntry(zipOutputStream, "liferay-portal/osgi/marketplace/core.lpkg", "lpkg");
+			_addEntry(zipOutputStream, "liferay-portal/portal-ext.properties", "bundle");
+			_addEntry(zipOutputStream, "liferay-portal/tomcat/bin/catalina.sh", "#!/bin/sh");
+		}
+
+		BundleStore bundleStore = new BundleStore(rootPath.resolve("store"));
+
+		Path bundlePath = bundleStore.getBundle(archivePath);
+
+		Assert.assertEquals(Paths.get("liferay-portal"), bundlePath.getFileName());
+		Assert.assertEquals(bundlePath, bundleStore.getBundle(archivePath));
+
+		Path homePath = rootPath.resolve("bundles");
+
+		Assert.assertEquals(3, bundleStore.materialize(bundlePath, homePath));
+		Assert.assertEquals(3, bundleStore.materialize(bundlePath, homePath));
+
+		Path lpkgPath = homePath.resolve("osgi/marketplace/core.lpkg");
+
+		Assert.assertTrue(Files.isSameFile(bundlePath.resolve("osgi/marketplace/core.lpkg"), lpkgPath));
+
+		Path configsPath = rootPath.resolve("configs/local");
+
+		Files.createDirectories(configsPath);
+
+		Files.write(configsPath.resolve("portal-ext.properties"), "local".getBytes());
+
+		Assert.assertEquals(1, BundleStore.overlay(configsPath, homePath));
+		Assert.assertEquals(0, BundleStore.overlay(configsPath, homePath));
+
+		Path propertiesPath = homePath.resolve("portal-ext.properties");
+
+		Assert.assertEquals("local", new String(Files.readAllBytes(propertiesPath)));
+		Assert.assertEquals("bundle", new String(Files.readAllBytes(bundlePath.resolve("portal-ext.properties"))));
+
+		Assert.assertEquals(3, bundleStore.materialize(bundlePath, homePath));
+		Assert.assertEquals("bundle", new String(Files.readAllBytes(propertiesPath)));
+	}
+
+	@Test
+	public void testMaterializeOtherEnvironment() throws Exception {
+		Path rootPath = temporaryFolder.getRoot().toPath();
+
+		Path archivePath = rootPath.resolve("liferay-portal-tomcat.zip");
+
+		try (OutputStream outputStream = Files.newOutputStream(archivePath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+
+			_addEntry(zipOutputStream, "liferay-portal/osgi/marketplace/core.lpkg", "lpkg");
+			_addEntry(zipOutputStream, "liferay-portal/portal-ext.properties", "bundle");
+		}
+
+		Path configsPath = rootPath.resolve("configs");
+
+		_writeFile(configsPath.resolve("common/portal-common.properties"), "common");
+		_writeFile(configsPath.resolve("local/portal-ext.properties"), "local");
+		_writeFile(configsPath.resolve("local/osgi/configs/local.config"), "local");
+		_writeFile(configsPath.resolve("dev/portal-ext.properties"), "dev");
+
+		BundleStore bundleStore = new BundleStore(rootPath.resolve("store"));
+
+		Path bundlePath = bundleStore.getBundle(archivePath);
+
+		Path homePath = rootPath.resolve("bundles");
+
+		bundleStore.materialize(bundlePath, homePath);
+
+		BundleStore.overlay(configsPath.resolve("common"), homePath);
+		BundleStore.overlay(configsPath.resolve("local"), homePath);
+
+		Assert.assertTrue(Files.exists(homePath.resolve("osgi/configs/local.config")));
+
+		// what the server writes while it runs
+
+		_writeFile(homePath.resolve("osgi/state/bundle.state"), "state");
+		_writeFile(homePath.resolve("osgi/modules/sample.jar"), "module");
+		_writeFile(homePath.resolve("logs/liferay.log"), "log");
+		_writeFile(homePath.resolve("data/hypersonic/lportal.script"), "data");
+
+		bundleStore.materialize(bundlePath, homePath);
+
+		BundleStore.overlay(configsPath.resolve("common"), homePath);
+		BundleStore.overlay(configsPath.resolve("dev"), homePath);
+
+		Assert.assertEquals("dev", new String(Files.readAllBytes(homePath.resolve("portal-ext.properties"))));
+		Assert.assertTrue(Files.exists(homePath.resolve("portal-common.properties")));
+		Assert.assertTrue(Files.exists(homePath.resolve("osgi/marketplace/core.lpkg")));
+		Assert.assertTrue(Files.exists(homePath.resolve("data/hypersonic/lportal.script")));
+
+		Assert.assertFalse(Files.exists(homePath.resolve("osgi/configs/local.config")));
+		Assert.assertFalse(Files.exists(homePath.resolve("osgi/modules/sample.jar")));
+		Assert.assertFalse(Files.exists(homePath.resolve("osgi/state")));
+		Assert.assertFalse(Files.exists(homePath.resolve("logs")));
+	}
+
+	@Test
+	public void testMaterializeOtherBundle() throws Exception {
+		Path rootPath = temporaryFolder.getRoot().toPath();
+
+		Path archivePath = rootPath.resolve("liferay-portal-tomcat-1.zip");
+
+		try (OutputStream outputStream = Files.newOutputStream(archivePath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+
+			_addEntry(zipOutputStream, "liferay-portal/osgi/marketplace/core-1.lpkg", "lpkg");
+		}
+
+		Path otherArchivePath = rootPath.resolve("liferay-portal-tomcat-2.zip");
+
+		try (OutputStream outputStream = Files.newOutputStream(otherArchivePath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+
+			_addEntry(zipOutputStream, "liferay-portal/osgi/marketplace/core-2.lpkg", "lpkg");
+		}
+
+		BundleStore bundleStore = new BundleStore(rootPath.resolve("store"));
+
+		Path homePath = rootPath.resolve("bundles");
+
+		Assert.assertEquals(1, bundleStore.materialize(bundleStore.getBundle(archivePath), homePath));
+
+		Path statePath = homePath.resolve("osgi/state");
+
+		Files.createDirectories(statePath);
+
+		Path dataPath = homePath.resolve("data/hypersonic");
+
+		Files.createDirectories(dataPath);
+
+		Assert.assertEquals(1, bundleStore.materialize(bundleStore.getBundle(otherArchivePath), homePath));
+
+		Assert.assertTrue(Files.exists(homePath.resolve("osgi/marketplace/core-2.lpkg")));
+		Assert.assertFalse(Files.exists(homePath.resolve("osgi/marketplace/core-1.lpkg")));
+		Assert.assertFalse(Files.exists(statePath));
+		Assert.assertTrue(Files.exists(dataPath));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static void _addEntry(ZipOutputStream zipOutputStream, String name, String content) throws Exception {
+		zipOutputStream.putNextEntry(new ZipEntry(name));
+
+		zipOutputStream.write(content.getBytes());
+
+		zipOutputStream.closeEntry();
+	}
+
+	private static void _writeFile(Path path, String content) throws Exception {
+		Files.createDirectories(path.getParent());
+
+		Files.write(path, content.getBytes());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.CachedDownload;
+import com.liferay.blade.cli.util.FileServer;
+
+import java.io.File;
+
+import java.net.URI;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class CachedDownloadTest {
+
+	@Test
+	public void testRevalidate() throws Exception {
+		File file = temporaryFolder.newFile("samples.zip");
+
+		Path path = file.toPath();
+
+		Files.write(path, "version 1".getBytes());
+
+		File cacheDir = temporaryFolder.newFolder("cache");
+
+		Path cachedPath = cacheDir.toPath().resolve("samples.zip");
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			CachedDownload cachedDownload = new CachedDownload(uri.toString(), cachedPath, 60000);
+
+			Assert.assertTrue(cachedDownload.isStale());
+
+			Assert.assertEquals(cachedPath, cachedDownload.get());
+			Assert.assertEquals("version 1", new String(Files.readAllBytes(cachedPath)));
+			Assert.assertFalse(cachedDownload.isStale());
+
+			Assert.assertFalse(cachedDownload.revalidate());
+
+			Files.write(path, "version 2".getBytes());
+
+			Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+			Assert.assertTrue(cachedDownload.revalidate());
+			Assert.assertEquals("version 2", new String(Files.readAllBytes(cachedPath)));
+		}
+	}
+
+	@Test
+	public void testStaleCopyIsUsedWhileRevalidating() throws Exception {
+		File file = temporaryFolder.newFile("samples.zip");
+
+		Path path = file.toPath();
+
+		Files.write(path, "version 2".getBytes());
+
+		File cacheDir = temporaryFolder.newFolder("cache");
+
+		Path cachedPath = cacheDir.toPath().resolve("samples.zip");
+
+		Files.write(cachedPath, "version 1".getBytes());
+
+		Files.setLastModifiedTime(cachedPath, FileTime.fromMillis(0));
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			CachedDownload cachedDownload = new CachedDownload(uri.toString(), cachedPath, 60000);
+
+			Assert.assertTrue(cachedDownload.isStale());
+
+			Thread thread = cachedDownload.revalidateInBackground();
+
+			Assert.assertTrue(thread.isDaemon());
+
+			thread.join();
+
+			Assert.assertEquals("version 2", new String(Files.readAllBytes(cachedPath)));
+			Assert.assertFalse(cachedDownload.isStale());
+		}
+	}
+
+	@Test
+	public void testStrayTempFilesAreDeleted() throws Exception {
+		File file = temporaryFolder.newFile("samples.zip");
+
+		Path path = file.toPath();
+
+		Files.write(path, "version 1".getBytes());
+
+		File cacheDir = temporaryFolder.newFolder("cache");
+
+		Path cachedPath = cacheDir.toPath().resolve("samples.zip");
+
+		Path strayTempPath = Files.createTempFile(cacheDir.toPath(), "samples.zip", ".tmp");
+
+		Files.setLastModifiedTime(strayTempPath, FileTime.fromMillis(0));
+
+		Path recentTempPath = Files.createTempFile(cacheDir.toPath(), "samples.zip", ".tmp");
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			CachedDownload cachedDownload = new CachedDownload(uri.toString(), cachedPath, 60000);
+
+			Assert.assertTrue(cachedDownload.revalidate());
+		}
+
+		Assert.assertFalse(Files.exists(strayTempPath));
+		Assert.assertTrue(Files.exists(recentTempPath));
+		Assert.assertEquals("version 1", new String(Files.readAllBytes(cachedPath)));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.DirectorySnapshot;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class DirectorySnapshotTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File testDir = temporaryFolder.newFolder("snapshot");
+
+		_testDir = testDir.toPath();
+
+		Files.createDirectories(_testDir.resolve("src"));
+		Files.createDirectories(_testDir.resolve("node_modules"));
+
+		Files.write(_testDir.resolve("src/deleted.txt"), "deleted".getBytes());
+		Files.write(_testDir.resolve("src/modified.txt"), "modified".getBytes());
+		Files.write(_testDir.resolve("src/unchanged.txt"), "unchanged".getBytes());
+		Files.write(_testDir.resolve("node_modules/ignored.js"), "ignored".getBytes());
+	}
+
+	@Test
+	public void testRescanReportsChanges() throws Exception {
+		DirectorySnapshot directorySnapshot = new DirectorySnapshot(
+			dir -> !String.valueOf(dir.getFileName()).equals("node_modules"));
+
+		directorySnapshot.add(_testDir);
+
+		Assert.assertTrue(directorySnapshot.rescan(_testDir).isEmpty());
+
+		Path modified = _testDir.resolve("src/modified.txt");
+
+		Files.write(modified, "modified with a different size".getBytes());
+
+		Files.setLastModifiedTime(modified, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+
+		Files.delete(_testDir.resolve("src/deleted.txt"));
+
+		Files.createDirectories(_testDir.resolve("src/created"));
+		Files.write(_testDir.resolve("src/created/created.txt"), "created".getBytes());
+		Files.write(_testDir.resolve("node_modules/other.js"), "ignored".getBytes());
+
+		Map<Path, WatchEvent.Kind<Path>> changes = directorySnapshot.rescan(_testDir);
+
+		Assert.assertEquals(changes.toString(), 4, changes.size());
+
+		Assert.assertEquals(StandardWatchEventKinds.ENTRY_MODIFY, changes.get(modified));
+		Assert.assertEquals(
+			StandardWatchEventKinds.ENTRY_DELETE, changes.get(_testDir.resolve("src/deleted.txt")));
+		Assert.assertEquals(StandardWatchEventKinds.ENTRY_CREATE, changes.get(_testDir.resolve("src/created")));
+		Assert.assertEquals(
+			StandardWatchEventKinds.ENTRY_CREATE, changes.get(_testDir.resolve("src/created/created.txt")));
+
+		Assert.assertTrue(directorySnapshot.rescan(_testDir).isEmpty());
+	}
+
+	@Test
+	public void testUpdatedPathIsNotReportedAgain() throws Exception {
+		DirectorySnapshot directorySnapshot = new DirectorySnapshot(dir -> true);
+
+		directorySnapshot.add(_testDir);
+
+		Path created = _testDir.resolve("src/created.txt");
+
+		Files.write(created, "created".getBytes());
+
+		directorySnapshot.update(created);
+
+		Path deleted = _testDir.resolve("src/deleted.txt");
+
+		Files.delete(deleted);
+
+		directorySnapshot.update(deleted);
+
+		Assert.assertTrue(directorySnapshot.rescan(_testDir).isEmpty());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _testDir = null;
+
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.FileServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class FileServerTest {
+
+	@Test
+	public void testPublishedFileIsServed() throws Exception {
+		Path path = _createFile();
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			Assert.assertEquals(uri, fileServer.publish(path));
+
+			HttpURLConnection httpURLConnection = _openConnection(uri);
+
+			Assert.assertEquals(200, httpURLConnection.getResponseCode());
+			Assert.assertArrayEquals(Files.readAllBytes(path), _read(httpURLConnection));
+		}
+	}
+
+	@Test
+	public void testRangeRequest() throws Exception {
+		Path path = _createFile();
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			HttpURLConnection httpURLConnection = _openConnection(fileServer.publish(path));
+
+			httpURLConnection.setRequestProperty("Range", "bytes=6-");
+
+			Assert.assertEquals(206, httpURLConnection.getResponseCode());
+			Assert.assertEquals("bytes 6-10/11", httpURLConnection.getHeaderField("Content-Range"));
+			Assert.assertEquals("world", new String(_read(httpURLConnection), "UTF-8"));
+		}
+	}
+
+	@Test
+	public void testUnpublishedFileIsNotServed() throws Exception {
+		Path path = _createFile();
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			fileServer.publish(path);
+
+			URI unpublishedURI = new URI("http", null, "localhost", fileServer.getPort(), "/unknown/test.jar", null, null);
+
+			HttpURLConnection httpURLConnection = _openConnection(unpublishedURI);
+
+			Assert.assertEquals(404, httpURLConnection.getResponseCode());
+		}
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static HttpURLConnection _openConnection(URI uri) throws Exception {
+		URL url = uri.toURL();
+
+		return (HttpURLConnection)url.openConnection();
+	}
+
+	private static byte[] _read(HttpURLConnection httpURLConnection) throws Exception {
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		try (InputStream inputStream = httpURLConnection.getInputStream()) {
+			byte[] buffer = new byte[1024];
+
+			int read;
+
+			while ((read = inputStream.read(buffer)) != -1) {
+				byteArrayOutputStream.write(buffer, 0, read);
+			}
+		}
+
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	private Path _createFile() throws Exception {
+		File file = temporaryFolder.newFile("test.jar");
+
+		Path path = file.toPath();
+
+		Files.write(path, "hello world".getBytes("UTF-8"));
+
+		return path;
+	}
+
+}
\ No newline at end of file
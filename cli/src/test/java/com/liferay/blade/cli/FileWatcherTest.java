@@ -25,9 +25,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -163,6 +168,59 @@ public class FileWatcherTest {
 		Assert.assertTrue(changed[0]);
 	}
 
+	@Test
+	public void testFileWatcherBatchesFilesToWatch() throws Exception {
+		Path libsDir = _testDir.resolve("libs");
+
+		Path jarFile = libsDir.resolve("foo.jar");
+		Path otherFile = libsDir.resolve("other.txt");
+
+		final Set<Path> changed = Collections.synchronizedSet(new HashSet<>());
+		final CountDownLatch latch = new CountDownLatch(1);
+
+		final FileWatcher.Consumer<Set<Path>> consumer = new FileWatcher.Consumer<Set<Path>>() {
+
+			@Override
+			public void consume(Set<Path> modified) {
+				changed.addAll(modified);
+				latch.countDown();
+			}
+
+		};
+
+		Thread t = new Thread() {
+
+			@Override
+			public void run() {
+				try {
+					new FileWatcher(_testDir, Arrays.asList(jarFile), 200, consumer);
+				}
+				catch (IOException ioe) {
+				}
+			}
+
+		};
+
+		t.setDaemon(true);
+		t.start();
+
+		// let the file watcher get all registered before we touch the file
+
+		Thread.sleep(1000);
+
+		Files.createDirectories(libsDir);
+
+		Thread.sleep(1000);
+
+		Files.write(jarFile, "first".getBytes());
+		Files.write(jarFile, "second".getBytes());
+		Files.write(otherFile, "other".getBytes());
+
+		Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+		Assert.assertEquals(Collections.singleton(jarFile), changed);
+	}
+
 	@Rule
 	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
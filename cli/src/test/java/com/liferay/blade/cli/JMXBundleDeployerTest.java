@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.jmx.JMXBundleDeployer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.openmbean.ArrayType;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class JMXBundleDeployerTest {
+
+	@Before
+	public void setUp() throws Exception {
+		_framework = new Framework();
+
+		_framework.bundles.put(1L, "a");
+
+		MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+
+		mBeanServer.registerMBean(
+			new StandardMBean(_framework, FrameworkMBean.class),
+			new ObjectName("osgi.core:type=framework,version=1.7"));
+		mBeanServer.registerMBean(
+			new StandardMBean(_framework, BundleStateMBean.class),
+			new ObjectName("osgi.core:type=bundleState,version=1.7"));
+
+		_jmxConnectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+			new JMXServiceURL("service:jmx:rmi://"), null, mBeanServer);
+
+		_jmxConnectorServer.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		_jmxConnectorServer.stop();
+	}
+
+	@Test
+	public void testDeployBatch() throws Exception {
+		Map<String, String> bundleUrls = new LinkedHashMap<>();
+
+		bundleUrls.put("a", "file:/a.jar");
+		bundleUrls.put("b", "file:/b.jar");
+
+		try (JMXBundleDeployer jmxBundleDeployer = new JMXBundleDeployer(_jmxConnectorServer.getAddress())) {
+			Map<String, Long> bundleIds = jmxBundleDeployer.deploy(bundleUrls);
+
+			Assert.assertEquals(Long.valueOf(1), bundleIds.get("a"));
+			Assert.assertEquals(Long.valueOf(2), bundleIds.get("b"));
+
+			Assert.assertEquals(
+				Arrays.asList(
+					"listBundles", "stopBundles [1]", "updateBundlesFromURL [1]", "refreshBundles [1]",
+					"installBundlesFromURL [file:/b.jar]", "startBundles [1, 2]"),
+				_framework.operations);
+
+			_framework.operations.clear();
+
+			Assert.assertEquals(2, jmxBundleDeployer.deploy("b", "file:/b.jar"));
+
+			Assert.assertEquals(
+				Arrays.asList(
+					"stopBundles [2]", "updateBundlesFromURL [2]", "refreshBundles [2]", "startBundles [2]"),
+				_framework.operations);
+		}
+	}
+
+	@Test
+	public void testDeployFailsAfterRetry() throws Exception {
+		_framework.failStart = true;
+
+		try (JMXBundleDeployer jmxBundleDeployer = new JMXBundleDeployer(_jmxConnectorServer.getAddress())) {
+			jmxBundleDeployer.deploy("a", "file:/a.jar");
+
+			Assert.fail("Deploy should have failed");
+		}
+		catch (IllegalStateException ise) {
+			Throwable[] suppressed = ise.getSuppressed();
+
+			Assert.assertEquals(1, suppressed.length);
+		}
+
+		Assert.assertEquals(2, _countOperations("listBundles"));
+		Assert.assertEquals(2, _countOperations("startBundles [1]"));
+	}
+
+	@Test
+	public void testDeployRetriesWithStaleBundleIds() throws Exception {
+		try (JMXBundleDeployer jmxBundleDeployer = new JMXBundleDeployer(_jmxConnectorServer.getAddress())) {
+			Assert.assertEquals(1, jmxBundleDeployer.deploy("a", "file:/a.jar"));
+
+			_framework.bundles.remove(1L);
+			_framework.bundles.put(7L, "a");
+
+			Assert.assertEquals(7, jmxBundleDeployer.deploy("a", "file:/a.jar"));
+		}
+
+		Assert.assertEquals(2, _countOperations("listBundles"));
+		Assert.assertEquals(2, _countOperations("stopBundles [1]"));
+		Assert.assertEquals(1, _countOperations("stopBundles [7]"));
+		Assert.assertEquals(1, _countOperations("startBundles [7]"));
+	}
+
+	public interface BundleStateMBean {
+
+		public TabularData listBundles(String[] items) throws OpenDataException;
+
+	}
+
+	public interface FrameworkMBean {
+
+		public CompositeData installBundlesFromURL(String[] locations, String[] urls) throws OpenDataException;
+
+		public void refreshBundles(long[] bundleIdentifiers);
+
+		public CompositeData startBundles(long[] bundleIdentifiers) throws OpenDataException;
+
+		public CompositeData stopBundles(long[] bundleIdentifiers) throws OpenDataException;
+
+		public CompositeData updateBundlesFromURL(long[] bundleIdentifiers, String[] urls) throws OpenDataException;
+
+	}
+
+	private static CompositeData _batchResult(Long[] completed, Long bundleInError) throws OpenDataException {
+		CompositeType compositeType = new CompositeType(
+			"BatchActionResult", "BatchActionResult", new String[] {"BundleInError", "Completed", "Error", "Success"},
+			new String[] {"BundleInError", "Completed", "Error", "Success"},
+			new OpenType<?>[] {
+				SimpleType.LONG, new ArrayType<Long[]>(1, SimpleType.LONG), SimpleType.STRING, SimpleType.BOOLEAN
+			});
+
+		String error = null;
+
+		if (bundleInError != null) {
+			error = "Unknown bundle " + bundleInError;
+		}
+
+		return new CompositeDataSupport(
+			compositeType, new String[] {"BundleInError", "Completed", "Error", "Success"},
+			new Object[] {bundleInError, completed, error, bundleInError == null});
+	}
+
+	private int _countOperations(String operation) {
+		int count = 0;
+
+		for (String recorded : _framework.operations) {
+			if (recorded.equals(operation)) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private Framework _framework;
+	private JMXConnectorServer _jmxConnectorServer;
+
+	private static class Framework implements BundleStateMBean, FrameworkMBean {
+
+		@Override
+		public CompositeData installBundlesFromURL(String[] locations, String[] urls) throws OpenDataException {
+			operations.add("installBundlesFromURL " + Arrays.toString(urls));
+
+			Long[] installedIds = new Long[urls.length];
+
+			for (int i = 0; i < urls.length; i++) {
+				long id = bundles.lastKey() + 1;
+
+				String url = urls[i];
+
+				bundles.put(id, url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.')));
+
+				installedIds[i] = id;
+			}
+
+			return _batchResult(installedIds, null);
+		}
+
+		@Override
+		public TabularData listBundles(String[] items) throws OpenDataException {
+			operations.add("listBundles");
+
+			CompositeType compositeType = new CompositeType(
+				"Bundle", "Bundle", new String[] {"Identifier", "State", "SymbolicName", "Version"},
+				new String[] {"Identifier", "State", "SymbolicName", "Version"},
+				new OpenType<?>[] {SimpleType.LONG, SimpleType.STRING, SimpleType.STRING, SimpleType.STRING});
+
+			TabularData tabularData = new TabularDataSupport(
+				new TabularType("Bundles", "Bundles", compositeType, new String[] {"Identifier"}));
+
+			for (Map.Entry<Long, String> entry : bundles.entrySet()) {
+				tabularData.put(
+					new CompositeDataSupport(
+						compositeType, new String[] {"Identifier", "State", "SymbolicName", "Version"},
+						new Object[] {entry.getKey(), "ACTIVE", entry.getValue(), "1.0.0"}));
+			}
+
+			return tabularData;
+		}
+
+		@Override
+		public void refreshBundles(long[] bundleIdentifiers) {
+			operations.add("refreshBundles " + Arrays.toString(bundleIdentifiers));
+		}
+
+		@Override
+		public CompositeData startBundles(long[] bundleIdentifiers) throws OpenDataException {
+			operations.add("startBundles " + Arrays.toString(bundleIdentifiers));
+
+			if (failStart) {
+				return _batchResult(new Long[0], bundleIdentifiers[0]);
+			}
+
+			return _check(bundleIdentifiers);
+		}
+
+		@Override
+		public CompositeData stopBundles(long[] bundleIdentifiers) throws OpenDataException {
+			operations.add("stopBundles " + Arrays.toString(bundleIdentifiers));
+
+			return _check(bundleIdentifiers);
+		}
+
+		@Override
+		public CompositeData updateBundlesFromURL(long[] bundleIdentifiers, String[] urls) throws OpenDataException {
+			operations.add("updateBundlesFromURL " + Arrays.toString(bundleIdentifiers));
+
+			return _check(bundleIdentifiers);
+		}
+
+		public final TreeMap<Long, String> bundles = new TreeMap<>();
+		public volatile boolean failStart;
+		public final List<String> operations = new ArrayList<>();
+
+		private CompositeData _check(long[] bundleIdentifiers) throws OpenDataException {
+			List<Long> completed = new ArrayList<>();
+
+			for (long bundleIdentifier : bundleIdentifiers) {
+				if (!bundles.containsKey(bundleIdentifier)) {
+					return _batchResult(completed.toArray(new Long[0]), bundleIdentifier);
+				}
+
+				completed.add(bundleIdentifier);
+			}
+
+			return _batchResult(completed.toArray(new Long[0]), null);
+		}
+
+	}
+
+}
\ No newline at end of file
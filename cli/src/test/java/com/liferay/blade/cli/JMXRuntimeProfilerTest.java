@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.jmx.JMXRuntimeProfiler;
+
+import java.lang.management.ManagementFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Map;
+
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class JMXRuntimeProfilerTest {
+
+	@Before
+	public void setUp() throws Exception {
+		_jmxConnectorServer = JMXConnectorServerFactory.newJMXConnectorServer(
+			new JMXServiceURL("service:jmx:rmi://"), null, ManagementFactory.getPlatformMBeanServer());
+
+		_jmxConnectorServer.start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		_jmxConnectorServer.stop();
+	}
+
+	@Test
+	public void testRecording() throws Exception {
+		Path jfrPath = temporaryFolder.getRoot().toPath().resolve("test.jfr");
+
+		try (JMXRuntimeProfiler jmxRuntimeProfiler = new JMXRuntimeProfiler(_jmxConnectorServer.getAddress())) {
+			Assume.assumeTrue(jmxRuntimeProfiler.isRecordingSupported());
+
+			jmxRuntimeProfiler.startRecording("test", "default");
+
+			jmxRuntimeProfiler.stopRecording("test", jfrPath);
+		}
+
+		Assert.assertTrue(Files.exists(jfrPath));
+	}
+
+	@Test
+	public void testSample() throws Exception {
+		try (JMXRuntimeProfiler jmxRuntimeProfiler = new JMXRuntimeProfiler(_jmxConnectorServer.getAddress())) {
+			JMXRuntimeProfiler.Sample sample = jmxRuntimeProfiler.sample();
+
+			Assert.assertTrue(sample.getHeapUsed() > 0);
+			Assert.assertTrue(sample.getHeapCommitted() >= sample.getHeapUsed());
+			Assert.assertTrue(sample.getThreadCount() > 0);
+
+			Map<String, Integer> bundleStates = sample.getBundleStates();
+
+			Assert.assertTrue(bundleStates.isEmpty());
+		}
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private JMXConnectorServer _jmxConnectorServer;
+
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.FileServer;
+import com.liferay.blade.cli.util.LinkDownloader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class LinkDownloaderTest {
+
+	@Test
+	public void testChecksumMismatch() throws Exception {
+		Path path = _createFile("test.zip", "hello world".getBytes());
+
+		Path targetPath = _getTargetPath("test.zip");
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			LinkDownloader linkDownloader = new LinkDownloader(uri.toString(), targetPath);
+
+			linkDownloader.setChecksum("SHA-256", "0000");
+
+			try {
+				linkDownloader.download();
+
+				Assert.fail();
+			}
+			catch (IOException ioe) {
+			}
+
+			Assert.assertFalse(Files.exists(targetPath));
+			Assert.assertFalse(Files.exists(targetPath.resolveSibling("test.zip.part")));
+
+			linkDownloader.setChecksum(
+				"SHA-256", "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9");
+
+			Assert.assertEquals(targetPath, linkDownloader.download());
+		}
+	}
+
+	@Test
+	public void testParallelDownload() throws Exception {
+		byte[] bytes = new byte[9 * 1024 * 1024 + 7];
+
+		Random random = new Random(1);
+
+		random.nextBytes(bytes);
+
+		Path path = _createFile("bundle.tar.gz", bytes);
+
+		Path targetPath = _getTargetPath("bundle.tar.gz");
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			LinkDownloader linkDownloader = new LinkDownloader(uri.toString(), targetPath);
+
+			linkDownloader.setConnections(4);
+
+			linkDownloader.download();
+
+			Assert.assertArrayEquals(bytes, Files.readAllBytes(targetPath));
+		}
+	}
+
+	@Test
+	public void testParallelDownloadIsNotResumed() throws Exception {
+		byte[] bytes = new byte[9 * 1024 * 1024 + 7];
+
+		Random random = new Random(1);
+
+		random.nextBytes(bytes);
+
+		Path path = _createFile("bundle.tar.gz", bytes);
+
+		Path targetPath = _getTargetPath("bundle.tar.gz");
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			// a killed parallel download leaves a part file of the full length
+			// with gaps where the segments that didn't finish should be, with
+			// validators written before the mode was recorded or with the mode
+
+			Path partPath = targetPath.resolveSibling("bundle.tar.gz.part");
+
+			byte[] partBytes = new byte[bytes.length];
+
+			System.arraycopy(bytes, bytes.length / 2, partBytes, bytes.length / 2, bytes.length - (bytes.length / 2));
+
+			Files.write(partPath, partBytes);
+
+			_writeValidators(uri, path, targetPath.resolveSibling("bundle.tar.gz.part.validators"), null);
+
+			LinkDownloader linkDownloader = new LinkDownloader(uri.toString(), targetPath);
+
+			linkDownloader.setConnections(4);
+
+			linkDownloader.download();
+
+			Assert.assertArrayEquals(bytes, Files.readAllBytes(targetPath));
+
+			Files.write(partPath, partBytes);
+
+			_writeValidators(uri, path, targetPath.resolveSibling("bundle.tar.gz.part.validators"), "segments");
+
+			linkDownloader = new LinkDownloader(uri.toString(), targetPath);
+
+			linkDownloader.download();
+
+			Assert.assertArrayEquals(bytes, Files.readAllBytes(targetPath));
+		}
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		Path path = _createFile("test.zip", "hello world".getBytes());
+
+		Path targetPath = _getTargetPath("test.zip");
+
+		try (FileServer fileServer = new FileServer("localhost")) {
+			URI uri = fileServer.publish(path);
+
+			LinkDownloader linkDownloader = new LinkDownloader(uri.toString(), targetPath);
+
+			linkDownloader.download();
+
+			Path partPath = targetPath.resolveSibling("test.zip.part");
+
+			Files.write(partPath, "HELLO".getBytes());
+
+			_writeValidators(uri, path, targetPath.resolveSibling("test.zip.part.validators"), "stream");
+
+			linkDownloader.download();
+
+			Assert.assertEquals("HELLO world", new String(Files.readAllBytes(targetPath)));
+			Assert.assertFalse(Files.exists(partPath));
+		}
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _createFile(String name, byte[] bytes) throws Exception {
+		File dir = temporaryFolder.newFolder("server");
+
+		Path path = dir.toPath().resolve(name);
+
+		Files.write(path, bytes);
+
+		return path;
+	}
+
+	private Path _getTargetPath(String name) throws Exception {
+		File dir = temporaryFolder.newFolder("downloads");
+
+		return dir.toPath().resolve(name);
+	}
+
+	private void _writeValidators(URI uri, Path path, Path validatorsPath, String mode) throws Exception {
+		URL url = uri.toURL();
+
+		HttpURLConnection httpURLConnection = (HttpURLConnection)url.openConnection();
+
+		httpURLConnection.setRequestMethod("HEAD");
+
+		Properties validators = new Properties();
+
+		validators.setProperty("etag", httpURLConnection.getHeaderField("ETag"));
+		validators.setProperty("length", String.valueOf(Files.size(path)));
+
+		if (mode != null) {
+			validators.setProperty("mode", mode);
+		}
+
+		try (OutputStream outputStream = Files.newOutputStream(validatorsPath)) {
+			validators.store(outputStream, null);
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.LogFollower;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class LogFollowerTest {
+
+	@Test
+	public void testFollowRotatedLog() throws Exception {
+		Path logPath = temporaryFolder.getRoot().toPath().resolve("liferay.log");
+
+		Files.write(logPath, "first\n".getBytes());
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		Thread thread = _follow(logPath, byteArrayOutputStream);
+
+		try {
+			_waitFor(byteArrayOutputStream, "first\n");
+
+			Files.write(logPath, "second\n".getBytes(), StandardOpenOption.APPEND);
+
+			Files.move(logPath, logPath.resolveSibling("liferay.log.1"));
+
+			Files.write(logPath, "third\n".getBytes());
+
+			_waitFor(byteArrayOutputStream, "first\nsecond\nthird\n");
+		}
+		finally {
+			thread.interrupt();
+
+			thread.join();
+		}
+	}
+
+	@Test
+	public void testFollowTruncatedLog() throws Exception {
+		Path logPath = temporaryFolder.getRoot().toPath().resolve("catalina.out");
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		Thread thread = _follow(logPath, byteArrayOutputStream);
+
+		try {
+			Files.write(logPath, "first line\nsecond ".getBytes());
+
+			_waitFor(byteArrayOutputStream, "first line\n");
+
+			Files.write(logPath, "line\n".getBytes(), StandardOpenOption.APPEND);
+
+			_waitFor(byteArrayOutputStream, "first line\nsecond line\n");
+
+			Files.write(logPath, "new\n".getBytes(), StandardOpenOption.TRUNCATE_EXISTING);
+
+			_waitFor(byteArrayOutputStream, "first line\nsecond line\nnew\n");
+		}
+		finally {
+			thread.interrupt();
+
+			thread.join();
+		}
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Thread _follow(Path logPath, ByteArrayOutputStream byteArrayOutputStream) {
+		LogFollower logFollower = new LogFollower(logPath, new PrintStream(byteArrayOutputStream, true));
+
+		Thread thread = new Thread(
+			() -> {
+				try {
+					logFollower.follow();
+				}
+				catch (Exception e) {
+					e.printStackTrace();
+				}
+			});
+
+		thread.start();
+
+		return thread;
+	}
+
+	private static void _waitFor(ByteArrayOutputStream byteArrayOutputStream, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 10000;
+
+		while (!expected.equals(byteArrayOutputStream.toString()) && (System.currentTimeMillis() < deadline)) {
+			Thread.sleep(50);
+		}
+
+		Assert.assertEquals(expected, byteArrayOutputStream.toString());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.MavenCoordinatesCache;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class MavenCoordinatesCacheTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File testDir = temporaryFolder.newFolder("jars");
+
+		_testDir = testDir.toPath();
+
+		_cacheFile = _testDir.resolve("cache/maven-coordinates.properties");
+	}
+
+	@Test
+	public void testCoordinatesArePersisted() throws Exception {
+		Path jarPath = _createJar("commons-lang.jar", "commons-lang", "commons-lang", "2.6");
+
+		MavenCoordinatesCache mavenCoordinatesCache = new MavenCoordinatesCache(_cacheFile);
+
+		Assert.assertEquals("commons-lang:commons-lang:2.6", mavenCoordinatesCache.get(jarPath));
+
+		mavenCoordinatesCache.save();
+
+		String cacheContent = new String(Files.readAllBytes(_cacheFile));
+
+		Assert.assertTrue(cacheContent, cacheContent.contains("commons-lang\\:commons-lang\\:2.6"));
+
+		Path copyPath = _testDir.resolve("copy/commons-lang-2.6.jar");
+
+		Files.createDirectories(copyPath.getParent());
+
+		Files.copy(jarPath, copyPath);
+
+		Files.delete(jarPath);
+
+		mavenCoordinatesCache = new MavenCoordinatesCache(_cacheFile);
+
+		Assert.assertEquals("commons-lang:commons-lang:2.6", mavenCoordinatesCache.get(copyPath));
+	}
+
+	@Test
+	public void testJarWithoutPomProperties() throws Exception {
+		Path jarPath = _createJar("unknown.jar", null, null, null);
+
+		MavenCoordinatesCache mavenCoordinatesCache = new MavenCoordinatesCache(_cacheFile);
+
+		Assert.assertNull(mavenCoordinatesCache.get(jarPath));
+		Assert.assertNull(mavenCoordinatesCache.get(jarPath));
+	}
+
+	@Test
+	public void testZip64Jar() throws Exception {
+		Path jarPath = _testDir.resolve("zip64.jar");
+
+		try (OutputStream outputStream = Files.newOutputStream(jarPath);
+			JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+
+			// more entries than the end of central directory record can count
+
+			for (int i = 0; i < 70000; i++) {
+				jarOutputStream.putNextEntry(new JarEntry("com/example/Example" + i + ".class"));
+
+				jarOutputStream.closeEntry();
+			}
+
+			jarOutputStream.putNextEntry(new JarEntry("META-INF/maven/com.example/example/pom.properties"));
+
+			jarOutputStream.write("groupId=com.example\nartifactId=example\nversion=1.0".getBytes());
+
+			jarOutputStream.closeEntry();
+		}
+
+		MavenCoordinatesCache mavenCoordinatesCache = new MavenCoordinatesCache(_cacheFile);
+
+		Assert.assertEquals("com.example:example:1.0", mavenCoordinatesCache.get(jarPath));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _createJar(String name, String groupId, String artifactId, String version) throws Exception {
+		Path jarPath = _testDir.resolve(name);
+
+		try (OutputStream outputStream = Files.newOutputStream(jarPath);
+			JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+
+			jarOutputStream.putNextEntry(new JarEntry("com/example/Example.class"));
+
+			jarOutputStream.write(new byte[] {(byte)0xCA, (byte)0xFE, (byte)0xBA, (byte)0xBE});
+
+			jarOutputStream.closeEntry();
+
+			if (groupId != null) {
+				jarOutputStream.putNextEntry(
+					new JarEntry("META-INF/maven/" + groupId + "/" + artifactId + "/pom.properties"));
+
+				String pomProperties = "groupId=" + groupId + "\nartifactId=" + artifactId + "\nversion=" + version;
+
+				jarOutputStream.write(pomProperties.getBytes());
+
+				jarOutputStream.closeEntry();
+			}
+		}
+
+		return jarPath;
+	}
+
+	private Path _cacheFile;
+	private Path _testDir;
+
+}
\ No newline at end of file
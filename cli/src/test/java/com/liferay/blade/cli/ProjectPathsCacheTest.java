@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.ProjectPathsCache;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ProjectPathsCacheTest {
+
+	@Test
+	public void testFindProjectPaths() throws Exception {
+		Path workspacePath = _createWorkspace();
+
+		ProjectPathsCache projectPathsCache = _newProjectPathsCache();
+
+		Set<Path> projectPaths = new HashSet<>(projectPathsCache.find(workspacePath));
+
+		Assert.assertEquals(
+			new HashSet<>(
+				Arrays.asList(workspacePath.resolve("modules/foo"), workspacePath.resolve("modules/nested/bar"))),
+			projectPaths);
+	}
+
+	@Test
+	public void testFindProjectPathsFromCache() throws Exception {
+		Path workspacePath = _createWorkspace();
+
+		_setOld(workspacePath);
+
+		ProjectPathsCache projectPathsCache = _newProjectPathsCache();
+
+		Assert.assertEquals(2, projectPathsCache.find(workspacePath).size());
+
+		projectPathsCache.save();
+
+		Path bazPath = workspacePath.resolve("modules/nested/baz/src");
+
+		Files.createDirectories(bazPath);
+
+		projectPathsCache = _newProjectPathsCache();
+
+		List<Path> projectPaths = projectPathsCache.find(workspacePath);
+
+		Assert.assertEquals(projectPaths.toString(), 3, projectPaths.size());
+		Assert.assertTrue(projectPaths.contains(bazPath.getParent()));
+
+	}
+
+	@Test
+	public void testUnchangedDirectoriesAreNotListed() throws Exception {
+		Path workspacePath = _createWorkspace();
+
+		_setOld(workspacePath);
+
+		ProjectPathsCache projectPathsCache = _newProjectPathsCache();
+
+		projectPathsCache.find(workspacePath);
+
+		projectPathsCache.save();
+
+		Path fooPath = workspacePath.resolve("modules/foo");
+
+		FileTime fileTime = Files.getLastModifiedTime(fooPath);
+
+		Files.move(fooPath.resolve("src"), fooPath.resolve("source"));
+
+		Files.setLastModifiedTime(fooPath, fileTime);
+
+		projectPathsCache = _newProjectPathsCache();
+
+		Assert.assertTrue(projectPathsCache.find(workspacePath).contains(fooPath));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _createWorkspace() throws Exception {
+		Path workspacePath = temporaryFolder.newFolder("workspace").toPath();
+
+		Files.createDirectories(workspacePath.resolve("modules/foo/src/main/java"));
+		Files.createDirectories(workspacePath.resolve("modules/nested/bar/src"));
+		Files.createDirectories(workspacePath.resolve("modules/foo/node_modules/dep/src"));
+		Files.createDirectories(workspacePath.resolve("themes/theme/node_modules/dep/src"));
+		Files.createDirectories(workspacePath.resolve("themes/theme/build/src"));
+
+		return workspacePath;
+	}
+
+	private ProjectPathsCache _newProjectPathsCache() throws Exception {
+		Path cachePath = temporaryFolder.getRoot().toPath().resolve("cache/project-paths.properties");
+
+		return new ProjectPathsCache(
+			cachePath, Collections.singletonList("src"), Arrays.asList("**/build", "**/node_modules"));
+	}
+
+	/**
+	 * Moves the modification times of the directories back, so the cache
+	 * trusts them even though they were just created.
+	 */
+	private void _setOld(Path workspacePath) throws Exception {
+		FileTime fileTime = FileTime.fromMillis(System.currentTimeMillis() - 60000);
+
+		try (Stream<Path> paths = Files.walk(workspacePath)) {
+			paths.forEach(
+				path -> {
+					try {
+						Files.setLastModifiedTime(path, fileTime);
+					}
+					catch (IOException ioe) {
+						throw new RuntimeException(ioe);
+					}
+				});
+		}
+	}
+
+}
\ No newline at end of file
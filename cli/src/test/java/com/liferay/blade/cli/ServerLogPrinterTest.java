@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.ServerLogPrinter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class ServerLogPrinterTest {
+
+	@Test
+	public void testCollapseStackTraces() throws Exception {
+		String stackTrace = String.join(
+			"\n", "java.lang.NullPointerException", "\tat com.liferay.Foo.bar(Foo.java:10)",
+			"\tat com.liferay.Foo.baz(Foo.java:20)");
+
+		String output = _print(
+			new ServerLogPrinter(), true, "2019-05-02 17:32:12.345 ERROR [main][Foo:10] First", stackTrace,
+			"2019-05-02 17:32:13.345 ERROR [main][Foo:10] Second", stackTrace);
+
+		Assert.assertTrue(output, output.contains("First"));
+		Assert.assertTrue(output, output.contains("Second"));
+		Assert.assertEquals(output, 1, _count(output, "Foo.baz"));
+		Assert.assertTrue(output, output.contains("repeated 1 times"));
+	}
+
+	@Test
+	public void testFilter() throws Exception {
+		ServerLogPrinter serverLogPrinter = new ServerLogPrinter();
+
+		serverLogPrinter.setLevel("WARN");
+		serverLogPrinter.setLoggers(Collections.singleton("com.liferay.portal"));
+
+		String output = _print(
+			serverLogPrinter, false, "2019-05-02 17:32:12.345 INFO  [main][PortalImpl:1] Info message",
+			"17:32:12,345 WARN  [com.liferay.portal.kernel.Foo] (main) Portal warning",
+			"17:32:12,345 WARN  [org.jboss.as] (main) Other warning",
+			"02-May-2019 17:32:12.345 SEVERE [main] com.liferay.portal.Bar.start Portal error",
+			"\tat com.liferay.portal.Bar.start(Bar.java:1)");
+
+		Assert.assertFalse(output, output.contains("Info message"));
+		Assert.assertTrue(output, output.contains("Portal warning"));
+		Assert.assertFalse(output, output.contains("Other warning"));
+		Assert.assertTrue(output, output.contains("Portal error"));
+		Assert.assertTrue(output, output.contains("Bar.java:1"));
+	}
+
+	private static int _count(String s, String part) {
+		int count = 0;
+
+		int index = s.indexOf(part);
+
+		while (index != -1) {
+			count++;
+
+			index = s.indexOf(part, index + 1);
+		}
+
+		return count;
+	}
+
+	private static String _print(ServerLogPrinter serverLogPrinter, boolean collapseStackTraces, String... lines)
+		throws Exception {
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+		serverLogPrinter.setCollapseStackTraces(collapseStackTraces);
+
+		String log = String.join("\n", Arrays.asList(lines));
+
+		serverLogPrinter.read(new ByteArrayInputStream(log.getBytes()), new PrintStream(byteArrayOutputStream));
+
+		serverLogPrinter.waitFor();
+
+		return byteArrayOutputStream.toString();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.liferay.blade.cli;
+
+import com.liferay.blade.cli.util.ToolchainStore;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ToolchainStoreTest {
+
+	@Before
+	public void setUp() throws Exception {
+		Path rootPath = temporaryFolder.getRoot().toPath();
+
+		_storePath = rootPath.resolve("toolchains");
+	}
+
+	@Test
+	public void testConcurrentInstalls() throws Exception {
+		ToolchainStore toolchainStore = new ToolchainStore(_storePath);
+
+		AtomicInteger installs = new AtomicInteger();
+
+		Callable<Path> callable = () -> toolchainStore.install(
+			"node",
+			path -> {
+				installs.incrementAndGet();
+
+				Thread.sleep(200);
+
+				Files.write(path.resolve("node"), "node".getBytes());
+			});
+
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+		try {
+			List<Future<Path>> futures = new ArrayList<>();
+
+			for (int i = 0; i < 8; i++) {
+				futures.add(executorService.submit(callable));
+			}
+
+			for (Future<Path> future : futures) {
+				Path toolchainPath = future.get();
+
+				Assert.assertEquals(_storePath.resolve("node"), toolchainPath);
+				Assert.assertTrue(Files.exists(toolchainPath.resolve("node")));
+			}
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+
+		Assert.assertEquals(1, installs.get());
+	}
+
+	@Test
+	public void testExistingToolchainIsReused() throws Exception {
+		Path toolchainPath = Files.createDirectories(_storePath.resolve("node"));
+
+		ToolchainStore toolchainStore = new ToolchainStore(_storePath);
+
+		Path installedPath = toolchainStore.install(
+			"node",
+			path -> {
+				throw new AssertionError("An installed toolchain must not be installed again");
+			});
+
+		Assert.assertEquals(toolchainPath, installedPath);
+	}
+
+	@Test
+	public void testFailedInstallIsCleanedUp() throws Exception {
+		ToolchainStore toolchainStore = new ToolchainStore(_storePath);
+
+		try {
+			toolchainStore.install(
+				"node",
+				path -> {
+					Files.write(path.resolve("node"), "half installed".getBytes());
+
+					throw new IOException("Download failed");
+				});
+
+			Assert.fail("The install should have failed");
+		}
+		catch (IOException ioe) {
+			Assert.assertEquals("Download failed", ioe.getMessage());
+		}
+
+		Assert.assertEquals(Collections.singletonList("node.lock"), _listStore());
+
+		Path toolchainPath = toolchainStore.install(
+			"node", path -> Files.write(path.resolve("node"), "node".getBytes()));
+
+		Assert.assertTrue(Files.exists(toolchainPath.resolve("node")));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private List<String> _listStore() throws IOException {
+		try (Stream<Path> files = Files.list(_storePath)) {
+			return files.map(
+				path -> String.valueOf(path.getFileName())
+			).collect(
+				Collectors.toList()
+			);
+		}
+	}
+
+	private Path _storePath;
+
+}
\ No newline at end of file
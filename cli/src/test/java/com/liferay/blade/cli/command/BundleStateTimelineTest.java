@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.dto.BundleDTO;
+
+/**
+ * @author agent
+ */
+public class BundleStateTimelineTest {
+
+	@Test
+	public void testInactiveBundles() throws Exception {
+		BundleStateTimeline bundleStateTimeline = new BundleStateTimeline(0);
+
+		bundleStateTimeline.record(
+			100,
+			new BundleDTO[] {
+				_newBundleDTO(1, "fast", Bundle.ACTIVE), _newBundleDTO(2, "fragment", Bundle.RESOLVED),
+				_newBundleDTO(3, "unresolved", Bundle.INSTALLED), _newBundleDTO(4, "lazy", Bundle.STARTING)
+			});
+
+		Map<String, String> inactiveBundles = bundleStateTimeline.getInactiveBundles(Collections.singleton(2L));
+
+		Assert.assertEquals(inactiveBundles.toString(), 2, inactiveBundles.size());
+		Assert.assertEquals("INSTALLED", inactiveBundles.get("unresolved"));
+		Assert.assertEquals("STARTING", inactiveBundles.get("lazy"));
+	}
+
+	@Test
+	public void testSlowestActivations() throws Exception {
+		BundleStateTimeline bundleStateTimeline = new BundleStateTimeline(0);
+
+		Assert.assertFalse(
+			bundleStateTimeline.record(
+				100,
+				new BundleDTO[] {
+					_newBundleDTO(1, "fast", Bundle.RESOLVED), _newBundleDTO(2, "slow", Bundle.RESOLVED)
+				}));
+
+		Assert.assertTrue(
+			bundleStateTimeline.record(
+				200,
+				new BundleDTO[] {
+					_newBundleDTO(1, "fast", Bundle.STARTING), _newBundleDTO(2, "slow", Bundle.STARTING)
+				}));
+
+		bundleStateTimeline.record(
+			300, new BundleDTO[] {_newBundleDTO(1, "fast", Bundle.ACTIVE), _newBundleDTO(2, "slow", Bundle.STARTING)});
+
+		bundleStateTimeline.record(
+			900,
+			new BundleDTO[] {
+				_newBundleDTO(1, "fast", Bundle.ACTIVE), _newBundleDTO(2, "slow", Bundle.ACTIVE),
+				_newBundleDTO(3, "installed", Bundle.INSTALLED)
+			});
+
+		Assert.assertFalse(
+			bundleStateTimeline.record(
+				1000,
+				new BundleDTO[] {
+					_newBundleDTO(1, "fast", Bundle.ACTIVE), _newBundleDTO(2, "slow", Bundle.ACTIVE),
+					_newBundleDTO(3, "installed", Bundle.INSTALLED)
+				}));
+
+		Assert.assertEquals(900, bundleStateTimeline.getLastChangeTime());
+
+		List<BundleStateTimeline.Transition> activations = bundleStateTimeline.getActivations();
+
+		Assert.assertEquals(activations.toString(), 2, activations.size());
+
+		BundleStateTimeline.Transition slowest = activations.get(0);
+
+		Assert.assertEquals("slow", slowest.getSymbolicName());
+		Assert.assertEquals(700, slowest.getDuration());
+		Assert.assertEquals(900, slowest.getTime());
+
+		List<BundleStateTimeline.Transition> transitions = bundleStateTimeline.getTransitions();
+
+		Assert.assertEquals(transitions.toString(), 5, transitions.size());
+	}
+
+	private static BundleDTO _newBundleDTO(long id, String symbolicName, int state) {
+		BundleDTO bundleDTO = new BundleDTO();
+
+		bundleDTO.id = id;
+		bundleDTO.state = state;
+		bundleDTO.symbolicName = symbolicName;
+
+		return bundleDTO;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.util.FileUtil;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ConvertJournalTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File workspaceDir = temporaryFolder.newFolder("workspace");
+
+		_workspacePath = workspaceDir.toPath();
+
+		_journalPath = _workspacePath.resolve(".blade-convert.properties");
+	}
+
+	@Test
+	public void testCompletedPluginsAreRemembered() throws Exception {
+		ConvertJournal convertJournal = new ConvertJournal(_journalPath);
+
+		Assert.assertFalse(convertJournal.isConverted("portlets/sample-portlet"));
+		Assert.assertFalse(convertJournal.isUpToDate("portlets/sample-portlet", "abc"));
+
+		List<Path> convertedPaths = Arrays.asList(
+			_workspacePath.resolve("modules/sample-api"), _workspacePath.resolve("modules/sample-service"));
+
+		for (Path convertedPath : convertedPaths) {
+			Files.createDirectories(convertedPath);
+		}
+
+		convertJournal.complete("portlets/sample-portlet", "abc", convertedPaths);
+
+		convertJournal = new ConvertJournal(_journalPath);
+
+		Assert.assertTrue(convertJournal.isConverted("portlets/sample-portlet"));
+		Assert.assertTrue(convertJournal.isUpToDate("portlets/sample-portlet", "abc"));
+		Assert.assertFalse(convertJournal.isUpToDate("portlets/sample-portlet", "def"));
+		Assert.assertFalse(convertJournal.isUpToDate("portlets/sample-portlet", ""));
+
+		Assert.assertEquals(convertedPaths, convertJournal.getConvertedPaths("portlets/sample-portlet"));
+	}
+
+	@Test
+	public void testMissingConvertedPathsAreNotUpToDate() throws Exception {
+		ConvertJournal convertJournal = new ConvertJournal(_journalPath);
+
+		Path apiPath = _workspacePath.resolve("modules/sample-api");
+		Path servicePath = _workspacePath.resolve("modules/sample-service");
+
+		Files.createDirectories(apiPath);
+		Files.createDirectories(servicePath);
+
+		convertJournal.complete("portlets/sample-portlet", "abc", Arrays.asList(apiPath, servicePath));
+
+		Assert.assertTrue(convertJournal.isUpToDate("portlets/sample-portlet", "abc"));
+
+		FileUtil.deleteDir(servicePath);
+
+		Assert.assertTrue(convertJournal.isConverted("portlets/sample-portlet"));
+		Assert.assertFalse(convertJournal.isUpToDate("portlets/sample-portlet", "abc"));
+	}
+
+	@Test
+	public void testRemovedPluginsAreForgotten() throws Exception {
+		ConvertJournal convertJournal = new ConvertJournal(_journalPath);
+
+		convertJournal.complete(
+			"hooks/sample-hook", "abc", Arrays.asList(_workspacePath.resolve("modules/sample-hook")));
+
+		convertJournal.remove("hooks/sample-hook");
+
+		convertJournal = new ConvertJournal(_journalPath);
+
+		Assert.assertFalse(convertJournal.isConverted("hooks/sample-hook"));
+		Assert.assertTrue(convertJournal.getConvertedPaths("hooks/sample-hook").isEmpty());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _journalPath;
+	private Path _workspacePath;
+
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.liferay.blade.cli.command;
+
+import java.nio.file.Paths;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class LocalServerTest {
+
+	@Test
+	public void testIsStateDir() throws Exception {
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("data")));
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("logs")));
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("osgi", "state")));
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("work")));
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("tomcat-9.0.17", "logs")));
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("tomcat-9.0.17", "temp")));
+		Assert.assertTrue(LocalServer.isStateDir(Paths.get("tomcat-9.0.17", "work")));
+
+		Assert.assertFalse(LocalServer.isStateDir(Paths.get("")));
+		Assert.assertFalse(LocalServer.isStateDir(Paths.get("osgi")));
+		Assert.assertFalse(LocalServer.isStateDir(Paths.get("osgi", "modules")));
+		Assert.assertFalse(LocalServer.isStateDir(Paths.get("tomcat-9.0.17", "webapps")));
+		Assert.assertFalse(LocalServer.isStateDir(Paths.get("tomcat-9.0.17", "webapps", "ROOT", "temp")));
+	}
+
+	@Test
+	public void testSetOsgiConsole() throws Exception {
+		List<String> lines = Arrays.asList(
+			"include-and-override=portal-developer.properties",
+			"module.framework.properties.osgi.console=localhost:11311", "setup.wizard.enabled=false");
+
+		Assert.assertEquals(
+			Arrays.asList(
+				"include-and-override=portal-developer.properties", "setup.wizard.enabled=false",
+				"module.framework.properties.osgi.console=localhost:11411"),
+			LocalServer.setOsgiConsole(lines, 11411));
+
+		Assert.assertEquals(
+			Collections.singletonList("module.framework.properties.osgi.console=localhost:11511"),
+			LocalServer.setOsgiConsole(Collections.emptyList(), 11511));
+	}
+
+	@Test
+	public void testShiftPorts() throws Exception {
+		String serverXml =
+			"<Server port=\"8005\" shutdown=\"SHUTDOWN\">\n" +
+				"<Connector port=\"8080\" protocol=\"HTTP/1.1\" redirectPort=\"8443\" />\n" +
+					"<Connector port=\"8009\" protocol=\"AJP/1.3\" sslPort=\"8443\" />\n" +
+						"<Connector port=\"-1\" />\n</Server>";
+
+		Assert.assertEquals(
+			"<Server port=\"8105\" shutdown=\"SHUTDOWN\">\n" +
+				"<Connector port=\"8180\" protocol=\"HTTP/1.1\" redirectPort=\"8543\" />\n" +
+					"<Connector port=\"8109\" protocol=\"AJP/1.3\" sslPort=\"8443\" />\n" +
+						"<Connector port=\"-1\" />\n</Server>",
+			LocalServer.shiftPorts(serverXml, 100));
+
+		Assert.assertEquals(serverXml, LocalServer.shiftPorts(serverXml, 0));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.command.PluginDescriptors.IvyDependency;
+
+import java.io.File;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class PluginDescriptorsTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File pluginDir = temporaryFolder.newFolder("sample-portlet");
+
+		_pluginPath = pluginDir.toPath();
+	}
+
+	@Test
+	public void testIvyDependencies() throws Exception {
+		Path ivyXmlPath = _pluginPath.resolve("ivy.xml");
+
+		_write(
+			ivyXmlPath,
+			"<?xml version=\"1.0\"?>\n<ivy-module version=\"2.0\">\n\t<dependencies defaultconf=\"default\">\n" +
+				"\t\t<dependency name=\"commons-io\" org=\"commons-io\" rev=\"2.4\" />\n" +
+					"\t\t<dependency name=\"guava\" org=\"com.google.guava\" rev=\"19.0\" />\n\t</dependencies>\n" +
+						"</ivy-module>");
+
+		PluginDescriptors pluginDescriptors = new PluginDescriptors();
+
+		List<IvyDependency> ivyDependencies = pluginDescriptors.getIvyDependencies(ivyXmlPath);
+
+		Assert.assertEquals(ivyDependencies.toString(), 2, ivyDependencies.size());
+
+		IvyDependency ivyDependency = ivyDependencies.get(1);
+
+		Assert.assertEquals("com.google.guava", ivyDependency.getOrg());
+		Assert.assertEquals("guava", ivyDependency.getName());
+		Assert.assertEquals("19.0", ivyDependency.getRev());
+
+		Assert.assertSame(ivyDependencies, pluginDescriptors.getIvyDependencies(ivyXmlPath));
+	}
+
+	@Test
+	public void testServiceBuilderPackagePath() throws Exception {
+		Path serviceXmlPath = _pluginPath.resolve("docroot/WEB-INF/service.xml");
+
+		Files.createDirectories(serviceXmlPath.getParent());
+
+		_write(
+			serviceXmlPath,
+			"<?xml version=\"1.0\"?>\n<!DOCTYPE service-builder PUBLIC \"-//Liferay//DTD Service Builder 6.2.0//EN\" " +
+				"\"http://www.liferay.com/dtd/liferay-service-builder_6_2_0.dtd\">\n\n" +
+					"<service-builder package-path=\"com.example.sample\">\n\t<namespace>sample</namespace>\n" +
+						"\t<entity local-service=\"true\" name=\"Foo\" />\n</service-builder>");
+
+		PluginDescriptors pluginDescriptors = new PluginDescriptors();
+
+		Assert.assertEquals("com.example.sample", pluginDescriptors.getServiceBuilderPackagePath(serviceXmlPath));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private void _write(Path path, String content) throws Exception {
+		Files.write(path, content.getBytes());
+	}
+
+	private Path _pluginPath;
+
+}
\ No newline at end of file
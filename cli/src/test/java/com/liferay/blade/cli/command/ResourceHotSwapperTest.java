@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ResourceHotSwapperTest {
+
+	@Test
+	public void testHotSwapResource() throws Exception {
+		Path rootPath = temporaryFolder.getRoot().toPath();
+
+		Path projectPath = rootPath.resolve("modules/foo-web");
+
+		Files.createDirectories(projectPath);
+
+		Files.write(projectPath.resolve("bnd.bnd"), "Bundle-SymbolicName: com.foo.web;singleton:=true\n".getBytes());
+
+		Path jspPath = _writeResource(projectPath, "view.jsp", "<p>changed</p>");
+
+		Path liferayHomePath = rootPath.resolve("bundles");
+
+		ResourceHotSwapper resourceHotSwapper = new ResourceHotSwapper(liferayHomePath);
+
+		Assert.assertNull(resourceHotSwapper.hotSwap(projectPath, jspPath));
+
+		Path moduleWorkPath = liferayHomePath.resolve("work/com.foo.web-1.0.0");
+
+		Files.createDirectories(moduleWorkPath);
+		Files.createDirectories(liferayHomePath.resolve("work/com.foo.web.api-1.0.0"));
+
+		Path hotSwappedPath = resourceHotSwapper.hotSwap(projectPath, jspPath);
+
+		Assert.assertEquals(moduleWorkPath.resolve("view.jsp"), hotSwappedPath);
+		Assert.assertEquals("<p>changed</p>", new String(Files.readAllBytes(hotSwappedPath)));
+
+		Path cssPath = _writeResource(projectPath, "css/main.css", "a {}");
+
+		Assert.assertEquals(moduleWorkPath.resolve("css/main.css"), resourceHotSwapper.hotSwap(projectPath, cssPath));
+	}
+
+	@Test
+	public void testResourcesThatNeedABuild() throws Exception {
+		Path rootPath = temporaryFolder.getRoot().toPath();
+
+		Path projectPath = rootPath.resolve("modules/foo-web");
+
+		Path liferayHomePath = rootPath.resolve("bundles");
+
+		Files.createDirectories(liferayHomePath.resolve("work/foo-web-1.0.0"));
+
+		ResourceHotSwapper resourceHotSwapper = new ResourceHotSwapper(liferayHomePath);
+
+		Path scssPath = _writeResource(projectPath, "css/main.scss", "a {}");
+
+		Assert.assertNull(resourceHotSwapper.hotSwap(projectPath, scssPath));
+
+		Path jsPath = _writeResource(projectPath, "js/main.js", "");
+
+		Assert.assertNotNull(resourceHotSwapper.hotSwap(projectPath, jsPath));
+
+		Files.write(projectPath.resolve("package.json"), "{}".getBytes());
+
+		Assert.assertNull(resourceHotSwapper.hotSwap(projectPath, jsPath));
+
+		Path javaPath = projectPath.resolve("src/main/java/Foo.java");
+
+		Files.createDirectories(javaPath.getParent());
+
+		Files.write(javaPath, "class Foo {}".getBytes());
+
+		Assert.assertNull(resourceHotSwapper.hotSwap(projectPath, javaPath));
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path _writeResource(Path projectPath, String name, String content) throws Exception {
+		Path path = projectPath.resolve("src/main/resources/META-INF/resources/" + name);
+
+		Files.createDirectories(path.getParent());
+
+		Files.write(path, content.getBytes());
+
+		return path;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.command.SamplesIndex.Sample;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class SamplesIndexTest {
+
+	@Before
+	public void setUp() throws Exception {
+		File cacheDir = temporaryFolder.newFolder("samples");
+
+		_archivePath = cacheDir.toPath().resolve("liferay-blade-samples-7.3.zip");
+
+		try (OutputStream outputStream = Files.newOutputStream(_archivePath);
+			ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+
+			_putEntry(zipOutputStream, "liferay-blade-samples-7.3/", null);
+			_putEntry(zipOutputStream, "liferay-blade-samples-7.3/gradle/build.gradle", "subprojects {\n}");
+			_putEntry(
+				zipOutputStream, "liferay-blade-samples-7.3/gradle/apps/ds-portlet/README.markdown",
+				"# DS Portlet\n\nThe DS Portlet sample shows a portlet. It uses declarative services.");
+			_putEntry(
+				zipOutputStream, "liferay-blade-samples-7.3/gradle/apps/ds-portlet/build.gradle", "dependencies {\n}");
+			_putEntry(
+				zipOutputStream,
+				"liferay-blade-samples-7.3/gradle/apps/ds-portlet/src/main/java/com/liferay/blade/Portlet.java",
+				"class Portlet {}");
+			_putEntry(
+				zipOutputStream, "liferay-blade-samples-7.3/gradle/apps/service-builder/basic/basic-api/src/Api.java",
+				"class Api {}");
+			_putEntry(
+				zipOutputStream,
+				"liferay-blade-samples-7.3/gradle/apps/service-builder/basic/basic-api/nested/src/X.java",
+				"class X {}");
+			_putEntry(
+				zipOutputStream, "liferay-blade-samples-7.3/maven/apps/ds-portlet/src/main/java/Portlet.java",
+				"class Portlet {}");
+			_putEntry(zipOutputStream, "liferay-blade-samples-7.3/gradle/docs/other/src/Other.java", "class Other {}");
+		}
+	}
+
+	@Test
+	public void testExtractSample() throws Exception {
+		SamplesIndex samplesIndex = SamplesIndex.load(_archivePath);
+
+		Sample sample = samplesIndex.getSample("gradle", "ds-portlet");
+
+		Assert.assertNotNull(sample);
+
+		File destinationDir = temporaryFolder.newFolder("ds-portlet");
+
+		Path destinationPath = destinationDir.toPath();
+
+		samplesIndex.extract(sample, destinationPath);
+
+		Assert.assertTrue(Files.exists(destinationPath.resolve("build.gradle")));
+		Assert.assertTrue(Files.exists(destinationPath.resolve("src/main/java/com/liferay/blade/Portlet.java")));
+		Assert.assertFalse(Files.exists(destinationPath.resolve("basic-api")));
+
+		Assert.assertEquals("subprojects {\n}", samplesIndex.read("gradle/build.gradle"));
+	}
+
+	@Test
+	public void testListSamples() throws Exception {
+		SamplesIndex samplesIndex = SamplesIndex.load(_archivePath);
+
+		List<Sample> samples = samplesIndex.getSamples("gradle");
+
+		Assert.assertEquals(2, samples.size());
+
+		Sample basicApiSample = samples.get(0);
+
+		Assert.assertEquals("basic-api", basicApiSample.getName());
+		Assert.assertEquals("apps", basicApiSample.getCategory());
+		Assert.assertEquals(
+			"liferay-blade-samples-7.3/gradle/apps/service-builder/basic/basic-api", basicApiSample.getPath());
+
+		Sample dsPortletSample = samples.get(1);
+
+		Assert.assertEquals("ds-portlet", dsPortletSample.getName());
+		Assert.assertEquals("The DS Portlet sample shows a portlet.", dsPortletSample.getDescription());
+
+		Assert.assertEquals(1, samplesIndex.getSamples("maven").size());
+
+		Assert.assertTrue(Files.exists(_archivePath.resolveSibling("liferay-blade-samples-7.3.zip.index")));
+
+		samplesIndex = SamplesIndex.load(_archivePath);
+
+		samples = samplesIndex.getSamples("gradle");
+
+		Assert.assertEquals(2, samples.size());
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private void _putEntry(ZipOutputStream zipOutputStream, String name, String content) throws Exception {
+		zipOutputStream.putNextEntry(new ZipEntry(name));
+
+		if (content != null) {
+			zipOutputStream.write(content.getBytes());
+		}
+
+		zipOutputStream.closeEntry();
+	}
+
+	private Path _archivePath;
+
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ServerStartupMonitorTest {
+
+	@Test
+	public void testTimeout() throws Exception {
+		Path logPath = temporaryFolder.getRoot().toPath().resolve("catalina.out");
+
+		String log = "INFO [main] org.apache.catalina.startup.Catalina.start Server startup in 10 ms\n";
+
+		Files.write(logPath, log.getBytes());
+
+		try (ServerSocket httpServerSocket = _newServerSocket();
+			ServerSocket gogoServerSocket = _newServerSocket()) {
+
+			ServerStartupMonitor serverStartupMonitor = new ServerStartupMonitor(
+				logPath, "localhost", httpServerSocket.getLocalPort(), gogoServerSocket.getLocalPort());
+
+			try {
+				serverStartupMonitor.waitForStartup(1, TimeUnit.SECONDS);
+
+				Assert.fail("The startup of a previous run was detected");
+			}
+			catch (TimeoutException te) {
+			}
+		}
+	}
+
+	@Test
+	public void testWaitForStartup() throws Exception {
+		Path logPath = temporaryFolder.getRoot().toPath().resolve("catalina.out");
+
+		Files.createFile(logPath);
+
+		try (ServerSocket httpServerSocket = _newServerSocket();
+			ServerSocket gogoServerSocket = _newServerSocket()) {
+
+			ServerStartupMonitor serverStartupMonitor = new ServerStartupMonitor(
+				logPath, "localhost", httpServerSocket.getLocalPort(), gogoServerSocket.getLocalPort());
+
+			Files.write(
+				logPath,
+				Arrays.asList(
+					"INFO [main] org.apache.catalina.startup.VersionLoggerListener.log Server version name",
+					"INFO [main][ModuleFrameworkImpl:1] Starting dynamic bundles",
+					"INFO [main] org.apache.catalina.startup.Catalina.start Server startup in 1000 ms"),
+				StandardOpenOption.APPEND);
+
+			serverStartupMonitor.waitForStartup(10, TimeUnit.SECONDS);
+
+			Map<String, Long> phaseTimes = serverStartupMonitor.getPhaseTimes();
+
+			Assert.assertEquals(
+				Arrays.asList(
+					ServerStartupMonitor.PHASE_JVM_STARTED, ServerStartupMonitor.PHASE_FRAMEWORK_STARTED,
+					ServerStartupMonitor.PHASE_PORTAL_STARTED, ServerStartupMonitor.PHASE_READY),
+				Arrays.asList(phaseTimes.keySet().toArray()));
+		}
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static ServerSocket _newServerSocket() throws Exception {
+		return new ServerSocket(0, 50, InetAddress.getByName("localhost"));
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.liferay.blade.cli.command;
+
+import com.liferay.blade.cli.BladeTestResults;
+import com.liferay.blade.cli.TestUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class ShellCommandTest {
+
+	@Test
+	public void testEverySessionFails() throws Exception {
+		try (StubGogoServer stubGogoServer = new StubGogoServer(true)) {
+			BladeTestResults bladeTestResults = _runCommands(
+				stubGogoServer, "2", "echo 1", "echo 2", "echo 3", "echo 4");
+
+			String errors = bladeTestResults.getErrors();
+
+			for (int i = 1; i <= 4; i++) {
+				Assert.assertTrue(errors, errors.contains("Unable to execute echo " + i));
+			}
+
+			Assert.assertEquals(
+				"g! echo 1\ng! echo 2\ng! echo 3\ng! echo 4\n", _normalize(bladeTestResults.getOutput()));
+		}
+	}
+
+	@Test
+	public void testFailedSessionCommandsArePickedUp() throws Exception {
+		try (StubGogoServer stubGogoServer = new StubGogoServer(false)) {
+			BladeTestResults bladeTestResults = _runCommands(
+				stubGogoServer, "2", "echo 1", "drop", "echo 3", "echo 4", "echo 5", "echo 6");
+
+			String errors = bladeTestResults.getErrors();
+
+			Assert.assertTrue(errors, errors.contains("Unable to execute drop"));
+			Assert.assertFalse(errors, errors.contains("Unable to execute echo"));
+
+			Assert.assertEquals(
+				"g! echo 1\n1\ng! drop\ng! echo 3\n3\ng! echo 4\n4\ng! echo 5\n5\ng! echo 6\n6\n",
+				_normalize(bladeTestResults.getOutput()));
+
+			Map<String, Integer> sessions = stubGogoServer.getSessions();
+
+			int dropSession = sessions.get("drop");
+
+			for (int i = 3; i <= 6; i++) {
+				Assert.assertNotEquals(dropSession, (int)sessions.get("echo " + i));
+			}
+		}
+	}
+
+	@Test
+	public void testOutputIsInCommandOrder() throws Exception {
+		try (StubGogoServer stubGogoServer = new StubGogoServer(false)) {
+			BladeTestResults bladeTestResults = _runCommands(
+				stubGogoServer, "3", "echo 600", "echo 400", "echo 200", "echo 0");
+
+			Assert.assertEquals("", bladeTestResults.getErrors());
+
+			Assert.assertEquals(
+				"g! echo 600\n600\ng! echo 400\n400\ng! echo 200\n200\ng! echo 0\n0\n",
+				_normalize(bladeTestResults.getOutput()));
+
+			Map<String, Integer> sessions = stubGogoServer.getSessions();
+
+			Assert.assertNotEquals(sessions.get("echo 600"), sessions.get("echo 400"));
+		}
+	}
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static String _normalize(String output) {
+		return output.replace("\r\n", "\n");
+	}
+
+	private BladeTestResults _runCommands(StubGogoServer stubGogoServer, String parallel, String... gogoCommands)
+		throws Exception {
+
+		File commandsFile = temporaryFolder.newFile("commands.txt");
+
+		Files.write(commandsFile.toPath(), Arrays.asList(gogoCommands), StandardCharsets.UTF_8);
+
+		File homeDir = temporaryFolder.newFolder("home");
+
+		return TestUtil.runBlade(
+			homeDir, homeDir, false, "sh", "--parallel", parallel, "-p", String.valueOf(stubGogoServer.getPort()),
+			"-f", commandsFile.getPath());
+	}
+
+	/**
+	 * Speaks just enough of the gogo shell telnet protocol for the client. An
+	 * "echo" command sleeps for its argument in milliseconds and then answers
+	 * the argument, a "drop" command closes the session without an answer. If
+	 * every session drops, sessions are closed as soon as they connect.
+	 */
+	private static class StubGogoServer implements AutoCloseable {
+
+		public StubGogoServer(boolean dropEverySession) throws IOException {
+			_dropEverySession = dropEverySession;
+
+			_serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+			_executorService.submit(this::_accept);
+		}
+
+		@Override
+		public void close() throws IOException {
+			_serverSocket.close();
+
+			_executorService.shutdownNow();
+		}
+
+		public int getPort() {
+			return _serverSocket.getLocalPort();
+		}
+
+		public Map<String, Integer> getSessions() {
+			return _sessions;
+		}
+
+		private void _accept() {
+			int session = 0;
+
+			while (!_serverSocket.isClosed()) {
+				try {
+					Socket socket = _serverSocket.accept();
+
+					int currentSession = session++;
+
+					_executorService.submit(() -> _serve(socket, currentSession));
+				}
+				catch (IOException ioe) {
+				}
+			}
+		}
+
+		private String _readLine(InputStream inputStream) throws IOException {
+			StringBuilder sb = new StringBuilder();
+
+			int c;
+
+			while ((c = inputStream.read()) != '\n') {
+				if (c == -1) {
+					return null;
+				}
+
+				if (c != '\r') {
+					sb.append((char)c);
+				}
+			}
+
+			return sb.toString();
+		}
+
+		private void _serve(Socket socket, int session) {
+			try (Socket closeable = socket) {
+				if (_dropEverySession) {
+					return;
+				}
+
+				InputStream inputStream = socket.getInputStream();
+				OutputStream outputStream = socket.getOutputStream();
+
+				for (int i = 0; i < 4; i++) {
+					outputStream.write(new byte[] {(byte)255, (byte)251, 1});
+				}
+
+				outputStream.flush();
+
+				if (!_skip(inputStream, 3)) {
+					return;
+				}
+
+				outputStream.write(new byte[] {(byte)255, (byte)250, 24, 1, (byte)255, (byte)240});
+
+				outputStream.flush();
+
+				if (!_skip(inputStream, 11)) {
+					return;
+				}
+
+				outputStream.write(_PROMPT);
+
+				outputStream.flush();
+
+				String gogoCommand;
+
+				while ((gogoCommand = _readLine(inputStream)) != null) {
+					_sessions.put(gogoCommand, session);
+
+					if (gogoCommand.equals("drop")) {
+						return;
+					}
+
+					String argument = gogoCommand.substring(5);
+
+					Thread.sleep(Long.parseLong(argument));
+
+					outputStream.write((argument + "\r\n").getBytes(StandardCharsets.UTF_8));
+					outputStream.write(_PROMPT);
+
+					outputStream.flush();
+				}
+			}
+			catch (Exception e) {
+			}
+		}
+
+		private boolean _skip(InputStream inputStream, int length) throws IOException {
+			for (int i = 0; i < length; i++) {
+				if (inputStream.read() == -1) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		private static final byte[] _PROMPT = "g! ".getBytes(StandardCharsets.UTF_8);
+
+		private final boolean _dropEverySession;
+		private final ExecutorService _executorService = Executors.newCachedThreadPool();
+		private final ServerSocket _serverSocket;
+		private final Map<String, Integer> _sessions = new ConcurrentHashMap<>();
+
+	}
+
+}
\ No newline at end of file
@@ -21,6 +21,9 @@ import com.beust.jcommander.Parameters;
 
 import com.liferay.blade.cli.command.BaseArgs;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author Gregory Amerson
  */
@@ -30,10 +33,49 @@ import com.liferay.blade.cli.command.BaseArgs;
 )
 public class RemoteDeployArgs extends BaseArgs {
 
+	public String getCallbackHost() {
+		return _callbackHost;
+	}
+
+	public int getConcurrency() {
+		return _concurrency;
+	}
+
+	public List<String> getTargets() {
+		return _targets;
+	}
+
+	public boolean isUpload() {
+		return _upload;
+	}
+
 	public boolean isWatch() {
 		return _watch;
 	}
 
+	@Parameter(
+		description = "The host name or address the runtime should use to fetch uploaded bundles from this machine (default is the local address used to reach each runtime)",
+		names = "--callback-host"
+	)
+	private String _callbackHost;
+
+	@Parameter(
+		description = "The maximum number of runtimes that are deployed to at the same time.", names = "--concurrency"
+	)
+	private int _concurrency = 4;
+
+	@Parameter(
+		description = "The gogo shell host:port of a runtime to deploy to. May be given several times or as a comma separated list. Defaults to the liferay.workspace.remote.deploy.targets workspace property or localhost:11311",
+		names = {"-t", "--target"}
+	)
+	private List<String> _targets = new ArrayList<>();
+
+	@Parameter(
+		description = "Serves the bundles to the runtime over HTTP instead of passing file paths, for runtimes that don't share this file system (e.g. containers)",
+		names = {"-u", "--upload"}
+	)
+	private boolean _upload;
+
 	@Parameter(
 		description = "Watches the deployed file for changes and will automatically redeploy", names = {"-w", "--watch"}
 	)
@@ -21,13 +21,17 @@ import aQute.bnd.osgi.Domain;
 
 import com.liferay.blade.cli.BladeCLI;
 import com.liferay.blade.cli.LiferayBundleDeployer;
+import com.liferay.blade.cli.WorkspaceProvider;
 import com.liferay.blade.cli.command.BaseArgs;
 import com.liferay.blade.cli.command.BaseCommand;
 import com.liferay.blade.cli.gradle.GradleExec;
 import com.liferay.blade.cli.gradle.GradleTooling;
+import com.liferay.blade.cli.gradle.GradleWorkspaceProvider;
 import com.liferay.blade.cli.gradle.ProcessResult;
 import com.liferay.blade.cli.util.BladeUtil;
+import com.liferay.blade.cli.util.FileServer;
 import com.liferay.blade.cli.util.FileWatcher;
+import com.liferay.blade.cli.util.Pair;
 import com.liferay.blade.gradle.tooling.ProjectInfo;
 
 import java.io.File;
@@ -38,11 +42,19 @@ import java.net.URI;
 
 import java.nio.file.Path;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -67,10 +79,18 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		File baseDir = deployArgs.getBase();
 
-		String host = "localhost";
-		int port = 11311;
+		List<Pair<String, Integer>> targets = new ArrayList<>();
+
+		for (Pair<String, Integer> target : _getTargets(deployArgs)) {
+			String host = target.first();
+			int port = target.second();
+
+			if (BladeUtil.canConnect(host, port)) {
+				targets.add(target);
+
+				continue;
+			}
 
-		if (!BladeUtil.canConnect(host, port)) {
 			StringBuilder sb = new StringBuilder();
 
 			sb.append("Unable to connect to gogo shell on " + host + ":" + port);
@@ -88,7 +108,9 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 			ConnectException connectException = new ConnectException(sb.toString());
 
 			connectException.printStackTrace(error);
+		}
 
+		if (targets.isEmpty()) {
 			return;
 		}
 
@@ -96,11 +118,50 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		Map<String, Set<File>> projectOutputFiles = projectInfo.getProjectOutputFiles();
 
-		if (deployArgs.isWatch()) {
-			_deployWatch(gradleExec, projectOutputFiles, host, port);
+		if (deployArgs.isUpload()) {
+
+			// targets may be reached through different local addresses, so
+			// serve the bundles on the address each target routes back to
+
+			Map<String, FileServer> callbackFileServers = new HashMap<>();
+
+			for (Pair<String, Integer> target : targets) {
+				String callbackHost = deployArgs.getCallbackHost();
+
+				if (callbackHost == null) {
+					callbackHost = FileServer.getLocalAddress(target.first(), target.second());
+				}
+
+				FileServer fileServer = callbackFileServers.get(callbackHost);
+
+				if (fileServer == null) {
+					fileServer = new FileServer(callbackHost);
+
+					callbackFileServers.put(callbackHost, fileServer);
+				}
+
+				_fileServers.put(target.first() + ":" + target.second(), fileServer);
+			}
 		}
-		else {
-			_deploy(gradleExec, projectOutputFiles, host, port);
+
+		int concurrency = Math.min(deployArgs.getConcurrency(), targets.size());
+
+		_executorService = Executors.newFixedThreadPool(Math.max(1, concurrency));
+
+		try {
+			if (deployArgs.isWatch()) {
+				_deployWatch(gradleExec, projectOutputFiles, targets);
+			}
+			else {
+				_deploy(gradleExec, projectOutputFiles, targets);
+			}
+		}
+		finally {
+			_executorService.shutdownNow();
+
+			for (FileServer fileServer : new HashSet<>(_fileServers.values())) {
+				fileServer.close();
+			}
 		}
 	}
 
@@ -109,15 +170,24 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 		return RemoteDeployArgs.class;
 	}
 
-	private void _addError(String msg) {
+	private static String _getPrefix(Pair<String, Integer> target, List<Pair<String, Integer>> targets) {
+		if (targets.size() > 1) {
+			return "[" + target.first() + ":" + target.second() + "] ";
+		}
+
+		return "";
+	}
+
+	private synchronized void _addError(String msg) {
 		getBladeCLI().addErrors("deploy", Collections.singleton(msg));
 	}
 
-	private void _addError(String prefix, String msg) {
+	private synchronized void _addError(String prefix, String msg) {
 		getBladeCLI().addErrors(prefix, Collections.singleton(msg));
 	}
 
-	private void _deploy(GradleExec gradle, Map<String, Set<File>> projectOutputFiles, String host, int port)
+	private void _deploy(
+			GradleExec gradle, Map<String, Set<File>> projectOutputFiles, List<Pair<String, Integer>> targets)
 		throws Exception {
 
 		ProcessResult processResult = gradle.executeTask("assemble -x check");
@@ -146,35 +216,19 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		Stream<Set<File>> stream = values.stream();
 
-		stream.flatMap(
+		List<File> outputFiles = stream.flatMap(
 			files -> files.stream()
 		).filter(
 			File::exists
-		).forEach(
-			outputFile -> {
-				try {
-					_installOrUpdate(outputFile, host, port);
-				}
-				catch (Exception e) {
-					String message = e.getMessage();
-
-					Class<?> exceptionClass = e.getClass();
-
-					if (message == null) {
-						message = "DeployCommand._deploy threw " + exceptionClass.getSimpleName();
-					}
-
-					_addError(message);
-
-					PrintStream error = bladeCLI.error();
-
-					e.printStackTrace(error);
-				}
-			}
+		).collect(
+			Collectors.toList()
 		);
+
+		_deployToTargets(outputFiles, targets);
 	}
 
-	private void _deployBundle(File file, LiferayBundleDeployer client, Domain bundle, Map.Entry<String, Attrs> bsn)
+	private void _deployBundle(
+			File file, LiferayBundleDeployer client, Domain bundle, Map.Entry<String, Attrs> bsn, String prefix)
 		throws Exception {
 
 		Map.Entry<String, Attrs> fragmentHost = bundle.getFragmentHost();
@@ -194,14 +248,92 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 		URI uri = file.toURI();
 
 		if (existingId > 0) {
-			_reloadExistingBundle(client, fragmentHost, existingId, hostId, uri);
+			_reloadExistingBundle(client, fragmentHost, existingId, hostId, uri, prefix);
 		}
 		else {
-			_installNewBundle(client, bsn, fragmentHost, hostId, uri);
+			_installNewBundle(client, bsn, fragmentHost, hostId, uri, prefix);
+		}
+	}
+
+	/**
+	 * Deploys the files to every target, running up to the configured number
+	 * of targets at the same time. A failure on one target doesn't stop the
+	 * deploy to the others.
+	 */
+	private void _deployToTargets(List<File> files, List<Pair<String, Integer>> targets) throws Exception {
+		BladeCLI bladeCLI = getBladeCLI();
+
+		List<Future<Integer>> futures = new ArrayList<>();
+
+		for (Pair<String, Integer> target : targets) {
+			futures.add(
+				_executorService.submit(
+					() -> {
+						String prefix = _getPrefix(target, targets);
+
+						int failures = 0;
+
+						for (File file : files) {
+							try {
+								_installOrUpdate(file, target.first(), target.second(), prefix);
+							}
+							catch (Exception e) {
+								failures++;
+
+								String message = e.getMessage();
+
+								Class<?> exceptionClass = e.getClass();
+
+								if (message == null) {
+									message = "DeployCommand._deploy threw " + exceptionClass.getSimpleName();
+								}
+
+								_addError(prefix + message);
+
+								PrintStream error = bladeCLI.error();
+
+								e.printStackTrace(error);
+							}
+						}
+
+						return failures;
+					}));
+		}
+
+		if (targets.size() == 1) {
+			Future<Integer> future = futures.get(0);
+
+			future.get();
+
+			return;
+		}
+
+		int failedTargets = 0;
+
+		for (int i = 0; i < targets.size(); i++) {
+			Future<Integer> future = futures.get(i);
+
+			int failures = future.get();
+
+			if (failures > 0) {
+				failedTargets++;
+
+				String prefix = _getPrefix(targets.get(i), targets);
+
+				bladeCLI.out(prefix + failures + " of " + files.size() + " deploys failed");
+			}
+		}
+
+		bladeCLI.out(
+			"Deployed " + files.size() + " files to " + (targets.size() - failedTargets) + " of " + targets.size() +
+				" targets");
+
+		if (failedTargets > 0) {
+			_addError(failedTargets + " of " + targets.size() + " targets failed");
 		}
 	}
 
-	private void _deployWar(File file, LiferayBundleDeployer liferayBundleDeployer) throws Exception {
+	private void _deployWar(File file, LiferayBundleDeployer liferayBundleDeployer, String prefix) throws Exception {
 		URI uri = file.toURI();
 
 		long bundleId = liferayBundleDeployer.install(uri);
@@ -211,19 +343,19 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 			PrintStream out = bladeCLI.out();
 
-			out.println("Installed bundle " + bundleId);
+			out.println(prefix + "Installed bundle " + bundleId);
 
 			BundleDTO bundle = liferayBundleDeployer.getBundle(bundleId);
 
 			if (bundle.state == Bundle.INSTALLED) {
 				liferayBundleDeployer.start(bundleId);
 
-				out.println("Started bundle " + bundleId);
+				out.println(prefix + "Started bundle " + bundleId);
 			}
 			else if (bundle.state == Bundle.ACTIVE) {
 				liferayBundleDeployer.update(bundleId, uri);
 
-				out.println("Updated bundle " + bundleId);
+				out.println(prefix + "Updated bundle " + bundleId);
 			}
 		}
 		else {
@@ -232,10 +364,11 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 	}
 
 	private void _deployWatch(
-			final GradleExec gradleExec, final Map<String, Set<File>> projectOutputFiles, String host, int port)
+			final GradleExec gradleExec, final Map<String, Set<File>> projectOutputFiles,
+			List<Pair<String, Integer>> targets)
 		throws Exception {
 
-		_deploy(gradleExec, projectOutputFiles, host, port);
+		_deploy(gradleExec, projectOutputFiles, targets);
 
 		Collection<Set<File>> values = projectOutputFiles.values();
 
@@ -277,25 +410,33 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		thread.start();
 
-		FileWatcher.Consumer<Path> consumer = new FileWatcher.Consumer<Path>() {
+		FileWatcher.Consumer<Set<Path>> consumer = new FileWatcher.Consumer<Set<Path>>() {
 
 			@Override
-			public void consume(Path modified) {
+			public void consume(Set<Path> modifiedPaths) {
 				try {
-					File file = modified.toFile();
+					List<File> modifiedFiles = new ArrayList<>();
+
+					for (Path modified : modifiedPaths) {
+						File file = modified.toFile();
 
-					File modifiedFile = file.getAbsoluteFile();
+						File modifiedFile = file.getAbsoluteFile();
 
-					if (outputPaths.contains(modifiedFile.toPath())) {
-						bladeCLI.out("installOrUpdate " + modifiedFile);
+						if (modifiedFile.exists()) {
+							bladeCLI.out("installOrUpdate " + modifiedFile);
+
+							modifiedFiles.add(modifiedFile);
+						}
+					}
 
-						_installOrUpdate(modifiedFile, host, port);
+					if (!modifiedFiles.isEmpty()) {
+						_deployToTargets(modifiedFiles, targets);
 					}
 				}
 				catch (Exception e) {
 					String exceptionMessage = (e.getMessage() == null) ? "" : (System.lineSeparator() + e.getMessage());
 
-					String message = "Error: Bundle Insatllation failed: " + modified + exceptionMessage;
+					String message = "Error: Bundle Insatllation failed: " + modifiedPaths + exceptionMessage;
 
 					_addError(message);
 
@@ -311,12 +452,77 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		File baseDir = args.getBase();
 
-		new FileWatcher(baseDir.toPath(), true, consumer);
+		new FileWatcher(baseDir.toPath(), outputPaths, _WATCH_SETTLE_MILLIS, consumer);
+	}
+
+	private List<Pair<String, Integer>> _getTargets(RemoteDeployArgs remoteDeployArgs) {
+		List<String> targetStrings = new ArrayList<>(remoteDeployArgs.getTargets());
+
+		if (targetStrings.isEmpty()) {
+			BladeCLI bladeCLI = getBladeCLI();
+
+			File baseDir = remoteDeployArgs.getBase();
+
+			WorkspaceProvider workspaceProvider = bladeCLI.getWorkspaceProvider(baseDir);
+
+			if (workspaceProvider instanceof GradleWorkspaceProvider) {
+				GradleWorkspaceProvider gradleWorkspaceProvider = (GradleWorkspaceProvider)workspaceProvider;
+
+				Properties gradleProperties = gradleWorkspaceProvider.getGradleProperties(
+					gradleWorkspaceProvider.getWorkspaceDir(baseDir));
+
+				String targetsProperty = gradleProperties.getProperty(_TARGETS_PROPERTY);
+
+				if (targetsProperty != null) {
+					for (String targetString : targetsProperty.split(",")) {
+						targetString = targetString.trim();
+
+						if (!targetString.isEmpty()) {
+							targetStrings.add(targetString);
+						}
+					}
+				}
+			}
+		}
+
+		if (targetStrings.isEmpty()) {
+			targetStrings.add(_DEFAULT_HOST + ":" + _DEFAULT_PORT);
+		}
+
+		List<Pair<String, Integer>> targets = new ArrayList<>();
+
+		for (String targetString : targetStrings) {
+			String host = targetString;
+			int port = _DEFAULT_PORT;
+
+			int index = targetString.lastIndexOf(':');
+
+			if (index != -1) {
+				host = targetString.substring(0, index);
+
+				try {
+					port = Integer.parseInt(targetString.substring(index + 1));
+				}
+				catch (NumberFormatException nfe) {
+					_addError("Invalid target " + targetString + ", the port must be a number");
+
+					continue;
+				}
+			}
+
+			Pair<String, Integer> target = new Pair<>(host, port);
+
+			if (!targets.contains(target)) {
+				targets.add(target);
+			}
+		}
+
+		return targets;
 	}
 
 	private void _installNewBundle(
 			LiferayBundleDeployer client, Map.Entry<String, Attrs> bsn, Map.Entry<String, Attrs> fragmentHost,
-			long hostId, URI uri)
+			long hostId, URI uri, String prefix)
 		throws Exception {
 
 		BladeCLI bladeCLI = getBladeCLI();
@@ -325,35 +531,35 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		long installedId = client.install(uri);
 
-		out.println("Installed bundle " + installedId);
+		out.println(prefix + "Installed bundle " + installedId);
 
 		if ((fragmentHost != null) && (hostId > 0)) {
 			client.refresh(hostId);
 
-			out.println("Deployed fragment bundle " + installedId);
+			out.println(prefix + "Deployed fragment bundle " + installedId);
 		}
 		else {
 			long existingId = client.getBundleId(bsn.getKey());
 
 			try {
 				if (!Objects.equals(installedId, existingId)) {
-					out.println("Error: Bundle IDs do not match.");
+					out.println(prefix + "Error: Bundle IDs do not match.");
 				}
 				else {
 					if (existingId > 1) {
 						client.start(existingId);
 
-						out.println("Started bundle " + installedId);
+						out.println(prefix + "Started bundle " + installedId);
 					}
 					else {
-						out.println("Error: bundle failed to start: " + bsn);
+						out.println(prefix + "Error: bundle failed to start: " + bsn);
 					}
 				}
 			}
 			catch (Exception e) {
 				String exceptionMessage = (e.getMessage() == null) ? "" : (System.lineSeparator() + e.getMessage());
 
-				String message = "Error: Bundle Deployment failed: " + bsn + exceptionMessage;
+				String message = prefix + "Error: Bundle Deployment failed: " + bsn + exceptionMessage;
 
 				_addError("deploy watch", message);
 
@@ -364,16 +570,16 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 		}
 	}
 
-	private void _installOrUpdate(File file, String host, int port) throws Exception {
+	private void _installOrUpdate(File file, String host, int port, String prefix) throws Exception {
 		file = file.getAbsoluteFile();
 
-		try (LiferayBundleDeployer client = LiferayBundleDeployer.newInstance(host, port)) {
+		try (LiferayBundleDeployer client = _newLiferayBundleDeployer(host, port)) {
 			String name = file.getName();
 
 			name = name.toLowerCase();
 
 			if (name.endsWith(".war")) {
-				_deployWar(file, client);
+				_deployWar(file, client, prefix);
 			}
 			else {
 				Domain bundle = Domain.domain(file);
@@ -381,17 +587,29 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 				Map.Entry<String, Attrs> bsn = bundle.getBundleSymbolicName();
 
 				if (bsn != null) {
-					_deployBundle(file, client, bundle, bsn);
+					_deployBundle(file, client, bundle, bsn, prefix);
 				}
 				else {
-					getBladeCLI().error("Unable to install or update " + file.getName() + "as it is not a bundle.");
+					getBladeCLI().error(
+						prefix + "Unable to install or update " + file.getName() + "as it is not a bundle.");
 				}
 			}
 		}
 	}
 
+	private LiferayBundleDeployer _newLiferayBundleDeployer(String host, int port) throws Exception {
+		FileServer fileServer = _fileServers.get(host + ":" + port);
+
+		if (fileServer != null) {
+			return LiferayBundleDeployer.newInstance(host, port, fileServer);
+		}
+
+		return LiferayBundleDeployer.newInstance(host, port);
+	}
+
 	private final void _reloadExistingBundle(
-			LiferayBundleDeployer client, Map.Entry<String, Attrs> fragmentHost, long existingId, long hostId, URI uri)
+			LiferayBundleDeployer client, Map.Entry<String, Attrs> fragmentHost, long existingId, long hostId, URI uri,
+			String prefix)
 		throws Exception {
 
 		if ((fragmentHost != null) && (hostId > 0)) {
@@ -403,7 +621,18 @@ public class RemoteDeployCommand extends BaseCommand<RemoteDeployArgs> {
 
 		PrintStream out = getBladeCLI().out();
 
-		out.println("Updated bundle " + existingId);
+		out.println(prefix + "Updated bundle " + existingId);
 	}
 
+	private static final String _DEFAULT_HOST = "localhost";
+
+	private static final int _DEFAULT_PORT = 11311;
+
+	private static final String _TARGETS_PROPERTY = "liferay.workspace.remote.deploy.targets";
+
+	private static final long _WATCH_SETTLE_MILLIS = 500;
+
+	private ExecutorService _executorService;
+	private final Map<String, FileServer> _fileServers = new HashMap<>();
+
 }
\ No newline at end of file